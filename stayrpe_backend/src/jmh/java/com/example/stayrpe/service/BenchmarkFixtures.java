@@ -0,0 +1,326 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.CompleteWorkoutRequest;
+import com.example.stayrpe.dto.ExerciseResponse;
+import com.example.stayrpe.dto.WorkoutHistoryExercise;
+import com.example.stayrpe.dto.WorkoutHistoryResponse;
+import com.example.stayrpe.dto.WorkoutHistorySet;
+import com.example.stayrpe.model.*;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Datos sintéticos para los benchmarks, con la forma de una sesión real:
+ * 6-9 ejercicios de 3-5 series, algún ejercicio o serie añadidos durante el entrenamiento,
+ * series sin completar y objetivos por RIR o por RPE. Todo sale de una semilla fija
+ * para que dos ejecuciones midan exactamente lo mismo.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 42L;
+
+    private static final String[][] EXERCISES = {
+            {"Press banca", "Pecho"}, {"Press inclinado con mancuernas", "Pecho"}, {"Aperturas en polea", "Pecho"},
+            {"Dominadas", "Espalda"}, {"Remo con barra", "Espalda"}, {"Jalón al pecho", "Espalda"},
+            {"Sentadilla", "Cuádriceps"}, {"Prensa", "Cuádriceps"}, {"Peso muerto rumano", "Isquiotibiales"},
+            {"Press militar", "Hombros"}, {"Elevaciones laterales", "Hombros"}, {"Curl con barra", "Bíceps"},
+            {"Extensión de tríceps en polea", "Tríceps"}, {"Hip thrust", "Glúteos"}, {"Plancha", "Core"}
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    static CompleteWorkoutRequest completeWorkoutRequest(Random random) {
+        LocalDateTime startedAt = LocalDateTime.of(2026, 3, 2, 18, 0).plusMinutes(random.nextInt(120));
+        List<CompleteWorkoutRequest.CompletedExercise> exercises = new ArrayList<>();
+
+        int exerciseCount = 6 + random.nextInt(4);
+        for (int order = 1; order <= exerciseCount; order++) {
+            String[] exercise = EXERCISES[random.nextInt(EXERCISES.length)];
+            boolean addedExercise = order == exerciseCount && random.nextBoolean();
+
+            List<CompleteWorkoutRequest.CompletedSet> sets = new ArrayList<>();
+            int setCount = 3 + random.nextInt(3);
+            double targetWeight = 20 + random.nextInt(30) * 2.5;
+            for (int setNumber = 1; setNumber <= setCount; setNumber++) {
+                boolean completed = random.nextInt(10) > 0;
+                boolean byRpe = random.nextInt(4) == 0;
+                sets.add(CompleteWorkoutRequest.CompletedSet.builder()
+                        .setNumber(setNumber)
+                        .targetRepsMin(8)
+                        .targetRepsMax(12)
+                        .targetWeight(targetWeight)
+                        .targetRir(byRpe ? null : 2)
+                        .targetRpe(byRpe ? 8 : null)
+                        .actualReps(completed ? 6 + random.nextInt(8) : null)
+                        .actualWeight(completed ? targetWeight + (random.nextInt(5) - 2) * 2.5 : null)
+                        .actualRir(completed && !byRpe ? random.nextInt(4) : null)
+                        .actualRpe(completed && byRpe ? 7 + random.nextInt(3) : null)
+                        .completed(completed)
+                        .wasAddedDuringWorkout(setNumber == setCount && random.nextInt(5) == 0)
+                        .build());
+            }
+
+            exercises.add(CompleteWorkoutRequest.CompletedExercise.builder()
+                    .exerciseId((long) (order % 3 == 0 ? 0 : order))
+                    .exerciseName(exercise[0])
+                    .exerciseMuscle(exercise[1])
+                    .exerciseOrder(order)
+                    .restBetweenSets(60 + random.nextInt(4) * 30)
+                    .wasAddedDuringWorkout(addedExercise)
+                    .sets(sets)
+                    .build());
+        }
+
+        return CompleteWorkoutRequest.builder()
+                .routineName("Torso A")
+                .routineDescription("Empuje y tirón horizontal")
+                .startedAt(startedAt)
+                .completedAt(startedAt.plusMinutes(55 + random.nextInt(40)))
+                .exercises(exercises)
+                .build();
+    }
+
+    static Map<Long, Exercise> exerciseCatalog() {
+        Map<Long, Exercise> catalog = new HashMap<>();
+        for (int i = 0; i < EXERCISES.length; i++) {
+            long id = i + 1;
+            catalog.put(id, Exercise.builder()
+                    .id(id)
+                    .name(EXERCISES[i][0])
+                    .muscle(EXERCISES[i][1])
+                    .isCustom(false)
+                    .build());
+        }
+        return catalog;
+    }
+
+    static List<ExerciseResponse> exerciseResponses() {
+        List<ExerciseResponse> responses = new ArrayList<>();
+        exerciseCatalog().values().forEach(exercise -> responses.add(ExerciseCatalogService.toResponse(exercise)));
+        // Variantes para que el índice tenga un tamaño parecido al catálogo real más los personalizados
+        String[] variants = {"con barra", "con mancuernas", "en máquina", "en polea", "unilateral"};
+        long id = 1000;
+        for (String[] exercise : EXERCISES) {
+            for (String variant : variants) {
+                responses.add(ExerciseResponse.builder()
+                        .id(id++)
+                        .name(exercise[0] + " " + variant)
+                        .muscle(exercise[1])
+                        .isCustom(false)
+                        .build());
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Rutina de un día de macrociclo con sus series; el mapa lleva las series de cada ejercicio
+     */
+    static Routine routine(Random random, Map<Long, List<ExerciseSet>> setsByRoutineExercise) {
+        Routine routine = Routine.builder().id(1L).name("Pierna B").description("Sentadilla y accesorios").build();
+        List<RoutineExercise> routineExercises = new ArrayList<>();
+
+        long setId = 1;
+        for (int order = 1; order <= 8; order++) {
+            String[] exercise = EXERCISES[random.nextInt(EXERCISES.length)];
+            RoutineExercise routineExercise = RoutineExercise.builder()
+                    .id((long) order)
+                    .routine(routine)
+                    .exercise(Exercise.builder().id((long) order).name(exercise[0]).muscle(exercise[1]).build())
+                    .order(order)
+                    .numberOfSets(4)
+                    .restBetweenSets(120)
+                    .build();
+
+            List<ExerciseSet> sets = new ArrayList<>();
+            for (int setNumber = 1; setNumber <= 4; setNumber++) {
+                boolean byRpe = random.nextInt(3) == 0;
+                sets.add(ExerciseSet.builder()
+                        .id(setId++)
+                        .routineExercise(routineExercise)
+                        .setNumber(setNumber)
+                        .targetRepsMin(6)
+                        .targetRepsMax(10)
+                        .targetWeight(40 + random.nextInt(20) * 2.5)
+                        .rir(byRpe ? null : 2)
+                        .rpe(byRpe ? 8 : null)
+                        .build());
+            }
+            setsByRoutineExercise.put(routineExercise.getId(), sets);
+            routineExercises.add(routineExercise);
+        }
+
+        routine.setRoutineExercises(routineExercises);
+        return routine;
+    }
+
+    /**
+     * Customizaciones resueltas para un tercio de las series, mezclando los tres ámbitos
+     */
+    static Map<Long, MacrocycleCustomizationService.ResolvedCustomization> customizations(
+            Random random, Collection<List<ExerciseSet>> sets) {
+
+        Map<Long, MacrocycleCustomizationService.ResolvedCustomization> customizations = new HashMap<>();
+        CustomizationScope[] scopes = CustomizationScope.values();
+        for (List<ExerciseSet> exerciseSets : sets) {
+            for (ExerciseSet set : exerciseSets) {
+                if (random.nextInt(3) != 0) {
+                    continue;
+                }
+                MacrocycleCustomizationService.ResolvedCustomization customization =
+                        new MacrocycleCustomizationService.ResolvedCustomization();
+                customization.apply(scopes[random.nextInt(scopes.length)],
+                        null, null, set.getTargetWeight() + 2.5, null, null, null);
+                if (random.nextBoolean()) {
+                    customization.apply(CustomizationScope.DAY, 5, 8, null, null, 9, "Bajar más lento");
+                }
+                customizations.put(set.getId(), customization);
+            }
+        }
+        return customizations;
+    }
+
+    static MacrocycleCustomizationService.DayPlanInfo dayPlanInfo(Routine routine) {
+        return MacrocycleCustomizationService.DayPlanInfo.builder()
+                .absoluteDay(12)
+                .dayOfMicrocycle(5)
+                .actualDate(LocalDate.of(2026, 3, 12))
+                .isRestDay(false)
+                .routine(routine)
+                .build();
+    }
+
+    static Macrocycle macrocycle() {
+        return Macrocycle.builder()
+                .id(1L)
+                .name("Hipertrofia primavera")
+                .startDate(LocalDate.of(2026, 3, 1))
+                .microcycleDurationDays(7)
+                .totalMicrocycles(8)
+                .build();
+    }
+
+    /**
+     * Series ya guardadas con los casos de {@link WorkoutSessionSet#getPerformanceComparison()}:
+     * por debajo, en y por encima del objetivo, sin objetivo y sin completar
+     */
+    static List<WorkoutSessionSet> sessionSets(Random random, int count) {
+        List<WorkoutSessionSet> sets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean completed = random.nextInt(10) > 0;
+            boolean hasTargets = random.nextInt(5) > 0;
+            double targetWeight = 20 + random.nextInt(40) * 2.5;
+            sets.add(WorkoutSessionSet.builder()
+                    .setNumber(i % 5 + 1)
+                    .targetRepsMin(hasTargets ? 8 : null)
+                    .targetRepsMax(hasTargets ? 12 : null)
+                    .targetWeight(hasTargets ? targetWeight : null)
+                    .actualReps(6 + random.nextInt(9))
+                    .actualWeight(targetWeight + (random.nextInt(5) - 2) * 2.5)
+                    .completed(completed)
+                    .build());
+        }
+        return sets;
+    }
+
+    static List<WorkoutHistoryResponse> workoutHistory(Random random, int sessions) {
+        List<WorkoutHistoryResponse> history = new ArrayList<>(sessions);
+        LocalDateTime day = LocalDateTime.of(2026, 3, 1, 18, 0);
+        for (int i = 0; i < sessions; i++) {
+            int totalSets = 18 + random.nextInt(10);
+            int completedSets = totalSets - random.nextInt(3);
+            boolean inMacrocycle = random.nextInt(4) > 0;
+            history.add(WorkoutHistoryResponse.builder()
+                    .id((long) i + 1)
+                    .routineName(i % 2 == 0 ? "Torso A" : "Pierna B")
+                    .routineDescription("Rutina de " + (i % 2 == 0 ? "torso" : "pierna"))
+                    .startedAt(day.minusDays(i * 2L))
+                    .completedAt(day.minusDays(i * 2L).plusMinutes(70))
+                    .durationMinutes(70)
+                    .totalExercises(7)
+                    .totalSets(totalSets)
+                    .completedSets(completedSets)
+                    .completionPercentage(Math.round(completedSets * 100.0f / totalSets))
+                    .totalVolume(6000 + random.nextInt(4000) + 0.5)
+                    .macrocycleName(inMacrocycle ? "Hipertrofia primavera" : null)
+                    .absoluteDay(inMacrocycle ? 60 - i * 2 : null)
+                    .build());
+        }
+        return history;
+    }
+
+    /**
+     * Detalle de una sesión (lo que devuelve GET /workout-history/{id})
+     */
+    static WorkoutHistoryResponse workoutDetails(Random random) {
+        WorkoutHistoryResponse details = workoutHistory(random, 1).get(0);
+        List<WorkoutHistoryExercise> exercises = new ArrayList<>();
+
+        for (int order = 1; order <= 7; order++) {
+            String[] exercise = EXERCISES[random.nextInt(EXERCISES.length)];
+            List<WorkoutHistorySet> sets = new ArrayList<>();
+            double volume = 0;
+            for (WorkoutSessionSet sessionSet : sessionSets(random, 4)) {
+                Double setVolume = sessionSet.getVolume();
+                volume += setVolume != null ? setVolume : 0;
+                sets.add(WorkoutHistorySet.builder()
+                        .setNumber(sets.size() + 1)
+                        .targetRepsMin(sessionSet.getTargetRepsMin())
+                        .targetRepsMax(sessionSet.getTargetRepsMax())
+                        .targetWeight(sessionSet.getTargetWeight())
+                        .targetRir(2)
+                        .actualReps(sessionSet.getActualReps())
+                        .actualWeight(sessionSet.getActualWeight())
+                        .actualRir(random.nextInt(4))
+                        .completed(sessionSet.getCompleted())
+                        .wasAddedDuringWorkout(false)
+                        .volume(setVolume)
+                        .performanceComparison(sessionSet.getPerformanceComparison())
+                        .build());
+            }
+            exercises.add(WorkoutHistoryExercise.builder()
+                    .exerciseName(exercise[0])
+                    .exerciseMuscle(exercise[1])
+                    .exerciseOrder(order)
+                    .plannedSets(sets.size())
+                    .completedSets((int) sets.stream().filter(set -> Boolean.TRUE.equals(set.getCompleted())).count())
+                    .totalVolume(volume)
+                    .wasAddedDuringWorkout(false)
+                    .sets(sets)
+                    .build());
+        }
+
+        details.setExercises(exercises);
+        return details;
+    }
+
+    /**
+     * Repositorio falso que responde en memoria a los métodos indicados por nombre.
+     * Cualquier otro método falla, así un cambio que añada consultas al camino medido no pasa desapercibido.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + " (benchmark)";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                                + " no está disponible en los benchmarks");
+                    }
+                    return answer.apply(args);
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.DayCustomizationResponse;
+import com.example.stayrpe.model.ExerciseSet;
+import com.example.stayrpe.model.Macrocycle;
+import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.repository.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montaje de la respuesta de un día de macrociclo (8 ejercicios × 4 series, un tercio customizadas)
+ * y el cálculo de valores efectivos de cada serie. Los repositorios responden en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DayCustomizationBenchmark {
+
+    private MacrocycleCustomizationService service;
+    private Macrocycle macrocycle;
+    private Routine routine;
+    private MacrocycleCustomizationService.DayPlanInfo dayPlanInfo;
+    private Map<Long, MacrocycleCustomizationService.ResolvedCustomization> customizations;
+    private List<DayCustomizationResponse.SetInfo> setInfos;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        Map<Long, List<ExerciseSet>> setsByRoutineExercise = new HashMap<>();
+        routine = BenchmarkFixtures.routine(random, setsByRoutineExercise);
+        customizations = BenchmarkFixtures.customizations(random, setsByRoutineExercise.values());
+        dayPlanInfo = BenchmarkFixtures.dayPlanInfo(routine);
+        macrocycle = BenchmarkFixtures.macrocycle();
+
+        ExerciseSetRepository exerciseSetRepository = BenchmarkFixtures.repository(ExerciseSetRepository.class,
+                Map.of("findByRoutineIdOrderBySetNumber", args -> setsByRoutineExercise.values().stream()
+                        .flatMap(List::stream).toList()));
+
+        service = new MacrocycleCustomizationService(
+                BenchmarkFixtures.repository(MacrocycleDayCustomizationRepository.class, Map.of()),
+                BenchmarkFixtures.repository(MacrocycleDayPlanRepository.class, Map.of()),
+                BenchmarkFixtures.repository(RoutineExerciseRepository.class, Map.of()),
+                exerciseSetRepository,
+                BenchmarkFixtures.repository(MacrocycleScopedCustomizationRepository.class, Map.of()),
+                BenchmarkFixtures.repository(SyncTombstoneRepository.class, Map.of()),
+                new SimpleMeterRegistry());
+
+        setInfos = new ArrayList<>();
+        DayCustomizationResponse response = buildDayCustomizationResponse();
+        response.getExercises().forEach(exercise -> setInfos.addAll(exercise.getSets()));
+    }
+
+    @Benchmark
+    public DayCustomizationResponse buildDayCustomizationResponse() {
+        return service.buildDayCustomizationResponse(macrocycle, dayPlanInfo.getAbsoluteDay(), dayPlanInfo,
+                routine.getRoutineExercises(), customizations);
+    }
+
+    @Benchmark
+    public void calculateEffectiveValues(Blackhole blackhole) {
+        for (DayCustomizationResponse.SetInfo setInfo : setInfos) {
+            setInfo.calculateEffectiveValues();
+            blackhole.consume(setInfo.getEffectiveWeight());
+        }
+    }
+}
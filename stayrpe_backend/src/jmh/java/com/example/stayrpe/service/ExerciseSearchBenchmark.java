@@ -0,0 +1,50 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.ExerciseResponse;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de ejercicios sobre el índice en memoria: exacta por trigramas y aproximada con erratas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExerciseSearchBenchmark {
+
+    @Param({"press", "sentadila", "elevasiones laterales"})
+    public String query;
+
+    private ExerciseSearchIndex index;
+    private String normalizedQuery;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        List<ExerciseResponse> exercises = BenchmarkFixtures.exerciseResponses();
+        Map<Long, Long> popularity = new HashMap<>();
+        exercises.forEach(exercise -> popularity.put(exercise.getId(), (long) random.nextInt(500)));
+
+        index = new ExerciseSearchIndex(exercises, popularity);
+        normalizedQuery = ExerciseSearchIndex.normalize(query);
+    }
+
+    @Benchmark
+    public List<ExerciseSearchIndex.Match> search() {
+        return ExerciseSearchIndex.top(index.search(normalizedQuery), 20);
+    }
+
+    @Benchmark
+    public List<ExerciseSearchIndex.Match> fuzzySearch() {
+        return ExerciseSearchIndex.top(index.fuzzySearch(normalizedQuery, 2), 20);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.config.FieldSelection;
+import com.example.stayrpe.dto.DayCustomizationResponse;
+import com.example.stayrpe.dto.WorkoutHistoryResponse;
+import com.example.stayrpe.model.ExerciseSet;
+import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.repository.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialización de las respuestas más pesadas, con el ObjectMapper que configura Spring Boot
+ * (JavaTimeModule, fechas ISO). Incluye los getters derivados que Jackson también serializa
+ * (p. ej. WorkoutHistoryResponse.getWorkoutSummary, SetInfo.getSetDescription).
+ * Cada benchmark se mide en JSON, CBOR y Smile (véase BinaryFormatsConfig); los *Gzip añaden
+ * la compresión que aplica server.compression.
+ *
+ * <p>El tamaño de cada respuesta por formato, sin y con gzip, lo imprime {@link #main}:</p>
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.stayrpe.service.SerializationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private List<WorkoutHistoryResponse> history;
+    private WorkoutHistoryResponse workoutDetails;
+    private DayCustomizationResponse dayCustomization;
+
+    @Setup
+    public void setUp() {
+        objectMapper = objectMapper(format);
+        Random random = new Random(BenchmarkFixtures.SEED);
+
+        history = BenchmarkFixtures.workoutHistory(random, 50);
+        workoutDetails = BenchmarkFixtures.workoutDetails(random);
+
+        Map<Long, List<ExerciseSet>> setsByRoutineExercise = new HashMap<>();
+        Routine routine = BenchmarkFixtures.routine(random, setsByRoutineExercise);
+        MacrocycleCustomizationService service = new MacrocycleCustomizationService(
+                BenchmarkFixtures.repository(MacrocycleDayCustomizationRepository.class, Map.of()),
+                BenchmarkFixtures.repository(MacrocycleDayPlanRepository.class, Map.of()),
+                BenchmarkFixtures.repository(RoutineExerciseRepository.class, Map.of()),
+                BenchmarkFixtures.repository(ExerciseSetRepository.class,
+                        Map.of("findByRoutineIdOrderBySetNumber", args -> setsByRoutineExercise.values().stream()
+                                .flatMap(List::stream).toList())),
+                BenchmarkFixtures.repository(MacrocycleScopedCustomizationRepository.class, Map.of()),
+                BenchmarkFixtures.repository(SyncTombstoneRepository.class, Map.of()),
+                new SimpleMeterRegistry());
+        MacrocycleCustomizationService.DayPlanInfo dayPlanInfo = BenchmarkFixtures.dayPlanInfo(routine);
+        dayCustomization = service.buildDayCustomizationResponse(BenchmarkFixtures.macrocycle(),
+                dayPlanInfo.getAbsoluteDay(), dayPlanInfo, routine.getRoutineExercises(),
+                BenchmarkFixtures.customizations(random, setsByRoutineExercise.values()));
+    }
+
+    /**
+     * GET /workout-history: 50 sesiones sin detalle
+     */
+    @Benchmark
+    public byte[] workoutHistoryList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(history);
+    }
+
+    /**
+     * GET /workout-history/{id}: una sesión con sus ejercicios y series
+     */
+    @Benchmark
+    public byte[] workoutHistoryDetails() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(workoutDetails);
+    }
+
+    @Benchmark
+    public byte[] dayCustomization() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dayCustomization);
+    }
+
+    @Benchmark
+    public byte[] workoutHistoryListGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(history));
+    }
+
+    @Benchmark
+    public byte[] dayCustomizationGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(dayCustomization));
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.printf("%-24s %-6s %10s %10s%n", "Respuesta", "Format", "Bytes", "Gzip");
+        for (String format : new String[] {"json", "cbor", "smile"}) {
+            SerializationBenchmark benchmark = new SerializationBenchmark();
+            benchmark.format = format;
+            benchmark.setUp();
+            printSize("workout-history (50)", format, benchmark.workoutHistoryList());
+            printSize("workout-history/{id}", format, benchmark.workoutHistoryDetails());
+            printSize("day-customization", format, benchmark.dayCustomization());
+        }
+    }
+
+    private static void printSize(String response, String format, byte[] payload) throws IOException {
+        System.out.printf("%-24s %-6s %10d %10d%n", response, format, payload.length, gzip(payload).length);
+    }
+
+    private static ObjectMapper objectMapper(String format) {
+        return switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().filters(FieldSelection.serializeAll())
+                    .factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().filters(FieldSelection.serializeAll())
+                    .factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().filters(FieldSelection.serializeAll()).build();
+        };
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.CompleteWorkoutRequest;
+import com.example.stayrpe.model.Exercise;
+import com.example.stayrpe.model.WorkoutSession;
+import com.example.stayrpe.model.WorkoutSessionSet;
+import com.example.stayrpe.repository.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción de la sesión al guardar un entrenamiento (sin base de datos):
+ * estadísticas, entidades de ejercicios y series, y la comparación con el objetivo del historial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkoutSessionBenchmark {
+
+    private WorkoutSessionService service;
+    private CompleteWorkoutRequest request;
+    private List<WorkoutSessionSet> sessionSets;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        Map<Long, Exercise> catalog = BenchmarkFixtures.exerciseCatalog();
+
+        ExerciseRepository exerciseRepository = BenchmarkFixtures.repository(ExerciseRepository.class,
+                Map.of("findById", args -> Optional.ofNullable(catalog.get((Long) args[0]))));
+
+        service = new WorkoutSessionService(
+                BenchmarkFixtures.repository(WorkoutSessionRepository.class, Map.of()),
+                BenchmarkFixtures.repository(RoutineRepository.class, Map.of()),
+                exerciseRepository,
+                BenchmarkFixtures.repository(MacrocycleRepository.class, Map.of()),
+                new RoutineVersionService(BenchmarkFixtures.repository(RoutineVersionRepository.class, Map.of())),
+                BenchmarkFixtures.repository(SyncTombstoneRepository.class, Map.of()),
+                BenchmarkFixtures.repository(OutboxEventRepository.class, Map.of()),
+                new WorkoutArchiveService(BenchmarkFixtures.repository(WorkoutSessionArchiveRepository.class, Map.of()),
+                        null, new SimpleMeterRegistry(), false, 365, 200, 50000),
+                event -> { },
+                new SimpleMeterRegistry());
+
+        request = BenchmarkFixtures.completeWorkoutRequest(random);
+        sessionSets = BenchmarkFixtures.sessionSets(random, 30);
+    }
+
+    @Benchmark
+    public WorkoutSession calculateSessionStats() {
+        WorkoutSession session = newSession();
+        service.calculateSessionStats(session, request);
+        return session;
+    }
+
+    @Benchmark
+    public WorkoutSession createSessionExercisesVersioned() {
+        WorkoutSession session = newSession();
+        service.createSessionExercises(session, request.getExercises(), true);
+        return session;
+    }
+
+    @Benchmark
+    public WorkoutSession createSessionExercisesInline() {
+        WorkoutSession session = newSession();
+        service.createSessionExercises(session, request.getExercises(), false);
+        return session;
+    }
+
+    /**
+     * Una sesión del historial tiene en torno a 30 series; se compara cada una con su objetivo
+     */
+    @Benchmark
+    public void performanceComparison(Blackhole blackhole) {
+        for (WorkoutSessionSet set : sessionSets) {
+            blackhole.consume(set.getPerformanceComparison());
+        }
+    }
+
+    private WorkoutSession newSession() {
+        return WorkoutSession.builder()
+                .routineName(request.getRoutineName())
+                .startedAt(request.getStartedAt())
+                .completedAt(request.getCompletedAt())
+                .totalExercises(request.getExercises().size())
+                .build();
+    }
+}
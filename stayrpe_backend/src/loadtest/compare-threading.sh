@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Compara el throughput con el pool de hilos de Tomcat y con hilos virtuales bajo alta concurrencia.
+# Requiere Java 21, una MySQL con los usuarios de SyntheticDataGenerator (variables MYSQL* como en
+# application.properties) y los puertos libres. Arranca el jar dos veces, una por modo, y lanza el
+# mismo LoadDriver contra cada una; al final consulta /admin/threading para ver el pinning.
+#
+#   ./src/loadtest/compare-threading.sh [usuarios] [segundos] [prefijo]
+#   ADMIN_TOKEN=<jwt de un ADMIN> ./src/loadtest/compare-threading.sh 400 60 load_
+set -euo pipefail
+
+USERS=${1:-400}
+DURATION=${2:-60}
+PREFIX=${3:-load_}
+PORT=${PORT:-8080}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8081}
+BASE_URL="http://localhost:${PORT}"
+
+cd "$(dirname "$0")/../.."
+
+./mvnw -B -q -Pjava21 -DskipTests package
+JAR=$(ls target/stayrpe-backend-*.jar | grep -v original | head -n 1)
+./mvnw -B -q -Ploadtest test-compile
+
+run_mode() {
+    local label=$1 virtual=$2
+    java -jar "$JAR" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" \
+        --spring.threads.virtual.enabled="$virtual" \
+        > "target/threading-${label}.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:${MANAGEMENT_PORT}/actuator/health" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "La aplicación no arrancó: target/threading-${label}.log"; exit 1; }
+        sleep 1
+    done
+
+    ./mvnw -B -q -Ploadtest exec:java@drive -Dloadtest.args="--label=${label} --base-url=${BASE_URL} \
+        --prefix=${PREFIX} --users=${USERS} --duration-seconds=${DURATION} --think-ms=0"
+
+    if [[ -n "${ADMIN_TOKEN:-}" ]]; then
+        curl -s -H "Authorization: Bearer ${ADMIN_TOKEN}" "${BASE_URL}/admin/threading"
+        echo
+    fi
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform false
+run_mode virtual true
@@ -0,0 +1,379 @@
+package com.example.stayrpe.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Reproduce contra la aplicación en marcha la mezcla de peticiones de la app móvil con los usuarios
+ * de {@link SyntheticDataGenerator}: cada usuario virtual inicia sesión y repite sesiones de uso
+ * (inicio, calendario, historial, completar el entrenamiento del día) con pausas entre peticiones.
+ * Al terminar imprime, por operación, peticiones, errores, throughput y percentiles de latencia.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java@drive -Dloadtest.args="--users=50 --duration-seconds=120"
+ * </pre>
+ * {@code --label} solo rotula el informe, para comparar ejecuciones (véase compare-threading.sh).
+ */
+public class LoadDriver {
+
+    // Peso de cada tipo de sesión de uso en la mezcla
+    private static final int DASHBOARD_WEIGHT = 45;
+    private static final int CALENDAR_WEIGHT = 25;
+    private static final int HISTORY_WEIGHT = 15;
+    private static final int WORKOUT_WEIGHT = 10;
+    private static final int RELOGIN_WEIGHT = 5;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String usernamePrefix;
+    private final String password;
+    private final long thinkMs;
+    private String label = "";
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    public LoadDriver(String baseUrl, String usernamePrefix, String password, long thinkMs) {
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = baseUrl;
+        this.usernamePrefix = usernamePrefix;
+        this.password = password;
+        this.thinkMs = thinkMs;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options = Options.parse(args);
+        LoadDriver driver = new LoadDriver(
+                options.get("base-url", "http://localhost:8080"),
+                options.get("prefix", "load_"),
+                options.get("password", "loadtest"),
+                options.getLong("think-ms", 200));
+        driver.label = options.get("label", "");
+
+        driver.run(options.getInt("users", 20), options.getInt("first-user", 1),
+                Duration.ofSeconds(options.getLong("duration-seconds", 60)), options.getLong("seed", 42L));
+    }
+
+    public void run(int users, int firstUser, Duration duration, long seed) throws InterruptedException {
+        System.out.printf("%sLanzando %d usuarios virtuales contra %s durante %d s%n",
+                label.isEmpty() ? "" : "[" + label + "] ", users, baseUrl, duration.toSeconds());
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        for (int i = 0; i < users; i++) {
+            String username = usernamePrefix + String.format("%05d", firstUser + i);
+            Random random = new Random(seed * 1_000_003L + i);
+            executor.submit(() -> new VirtualUser(username, random).run(deadline));
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        recorder.print(duration);
+    }
+
+    private final class VirtualUser {
+
+        private final String username;
+        private final Random random;
+        private String token;
+        private Long macrocycleId;
+        private int macrocycleDays;
+        private int nextDay;
+
+        VirtualUser(String username, Random random) {
+            this.username = username;
+            this.random = random;
+        }
+
+        void run(long deadline) {
+            try {
+                if (!login()) {
+                    System.out.printf("%s no puede iniciar sesión; se descarta%n", username);
+                    return;
+                }
+                loadActiveMacrocycle();
+
+                while (System.nanoTime() < deadline) {
+                    int roll = random.nextInt(DASHBOARD_WEIGHT + CALENDAR_WEIGHT + HISTORY_WEIGHT
+                            + WORKOUT_WEIGHT + RELOGIN_WEIGHT);
+                    if ((roll -= DASHBOARD_WEIGHT) < 0) {
+                        dashboard();
+                    } else if ((roll -= CALENDAR_WEIGHT) < 0) {
+                        calendar();
+                    } else if ((roll -= HISTORY_WEIGHT) < 0) {
+                        history();
+                    } else if ((roll -= WORKOUT_WEIGHT) < 0) {
+                        workout();
+                    } else {
+                        login();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        boolean login() throws InterruptedException {
+            ObjectNode body = MAPPER.createObjectNode().put("username", username).put("password", password);
+            JsonNode response = send("login", post("/login", body));
+            if (response == null || !response.hasNonNull("token")) {
+                return false;
+            }
+            token = response.get("token").asText();
+            return true;
+        }
+
+        void loadActiveMacrocycle() throws InterruptedException {
+            JsonNode response = send("macrocycle_active", get("/macrocycles/active"));
+            JsonNode active = response != null ? response.get("activeMacrocycle") : null;
+            if (active == null || active.isNull()) {
+                macrocycleId = null;
+                return;
+            }
+            Long previousId = macrocycleId;
+            macrocycleId = active.get("id").asLong();
+            macrocycleDays = active.get("microcycleDurationDays").asInt() * active.get("totalMicrocycles").asInt();
+            LocalDate startDate = LocalDate.parse(active.get("startDate").asText());
+            int today = (int) ChronoUnit.DAYS.between(startDate, LocalDate.now()) + 1;
+            // Los días ya completados en esta ejecución no se repiten
+            nextDay = macrocycleId.equals(previousId) ? Math.max(nextDay, today) : today;
+        }
+
+        // Pantalla de inicio
+        void dashboard() throws InterruptedException {
+            send("user_profile", get("/user/profile"));
+            think();
+            loadActiveMacrocycle();
+            send("workout_summary", get("/workout-history/summary"));
+            if (macrocycleId != null) {
+                send("check_day", get("/workout-history/check-day?macrocycleId=" + macrocycleId
+                        + "&absoluteDay=" + nextDay));
+            }
+            think();
+            send("routines", get("/routines"));
+            think();
+        }
+
+        // Calendario del macrociclo activo y detalle de un día
+        void calendar() throws InterruptedException {
+            if (macrocycleId == null) {
+                return;
+            }
+            send("day_plans", get("/macrocycles/" + macrocycleId + "/day-plans"));
+            send("completed_days", get("/workout-history/completed-days?macrocycleId=" + macrocycleId));
+            send("customized_days", get("/macrocycles/" + macrocycleId + "/customized-days"));
+            think();
+            send("day_customization", get("/macrocycles/" + macrocycleId + "/days/" + (1 + random.nextInt(macrocycleDays))));
+            think();
+        }
+
+        // Historial, detalle de la última sesión y estadísticas
+        void history() throws InterruptedException {
+            JsonNode sessions = send("workout_history", get("/workout-history?limit=20"));
+            think();
+            if (sessions != null && sessions.isArray() && !sessions.isEmpty()) {
+                JsonNode session = sessions.get(random.nextInt(sessions.size()));
+                send("workout_details", get("/workout-history/" + session.get("id").asLong()));
+                think();
+            }
+            send("workout_stats", get("/workout-history/stats"));
+            think();
+        }
+
+        // Abre el día pendiente del macrociclo y lo completa con los valores efectivos de cada serie
+        void workout() throws InterruptedException {
+            if (macrocycleId == null) {
+                return;
+            }
+            JsonNode day = null;
+            while (nextDay <= macrocycleDays) {
+                day = send("day_customization", get("/macrocycles/" + macrocycleId + "/days/" + nextDay));
+                if (day != null && day.path("exercises").size() > 0) {
+                    break;
+                }
+                day = null;
+                nextDay++;
+            }
+            if (day == null) {
+                return;
+            }
+            think();
+
+            LocalDateTime completedAt = LocalDateTime.now().withNano(0);
+            ObjectNode request = MAPPER.createObjectNode()
+                    .put("routineName", day.get("routineName").asText())
+                    .put("routineDescription", day.path("routineDescription").asText(null))
+                    .put("startedAt", completedAt.minusMinutes(50 + random.nextInt(40)).toString())
+                    .put("completedAt", completedAt.toString())
+                    .put("macrocycleId", macrocycleId)
+                    .put("absoluteDay", nextDay);
+            ArrayNode exercises = request.putArray("exercises");
+            for (JsonNode exercise : day.get("exercises")) {
+                ObjectNode completedExercise = exercises.addObject()
+                        .put("exerciseId", exercise.get("exerciseId").asLong())
+                        .put("exerciseName", exercise.get("exerciseName").asText())
+                        .put("exerciseMuscle", exercise.get("exerciseMuscle").asText())
+                        .put("exerciseOrder", exercise.get("order").asInt())
+                        .put("restBetweenSets", exercise.path("restBetweenSets").asInt(90));
+                ArrayNode sets = completedExercise.putArray("sets");
+                for (JsonNode set : exercise.get("sets")) {
+                    int repsMin = set.path("effectiveRepsMin").asInt(8);
+                    int repsMax = set.path("effectiveRepsMax").asInt(repsMin);
+                    double weight = set.path("effectiveWeight").asDouble(20);
+                    boolean completed = random.nextInt(100) < 92;
+                    ObjectNode completedSet = sets.addObject()
+                            .put("setNumber", set.get("setNumber").asInt())
+                            .put("targetRepsMin", repsMin)
+                            .put("targetRepsMax", repsMax)
+                            .put("targetWeight", weight)
+                            .put("completed", completed);
+                    copyIfPresent(set, "effectiveRir", completedSet, "targetRir");
+                    copyIfPresent(set, "effectiveRpe", completedSet, "targetRpe");
+                    if (completed) {
+                        completedSet.put("actualReps", repsMin + random.nextInt(repsMax - repsMin + 1))
+                                .put("actualWeight", weight);
+                    }
+                }
+            }
+
+            send("workout_complete", post("/workout-history/complete", request));
+            nextDay++;
+            think();
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+        }
+
+        private HttpRequest.Builder post(String path, JsonNode body) {
+            return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+        }
+
+        private HttpRequest.Builder authorized(HttpRequest.Builder builder) {
+            return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+        }
+
+        /**
+         * Envía la petición y registra su latencia; devuelve el cuerpo JSON o null si falla
+         */
+        private JsonNode send(String operation, HttpRequest.Builder request) throws InterruptedException {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                boolean ok = response.statusCode() / 100 == 2;
+                recorder.record(operation, System.nanoTime() - start, ok);
+                return ok && !response.body().isEmpty() ? MAPPER.readTree(response.body()) : null;
+            } catch (IOException e) {
+                recorder.record(operation, System.nanoTime() - start, false);
+                return null;
+            }
+        }
+
+        private void think() throws InterruptedException {
+            if (thinkMs > 0) {
+                Thread.sleep(random.nextLong(thinkMs * 2));
+            }
+        }
+    }
+
+    private static void copyIfPresent(JsonNode from, String fromField, ObjectNode to, String toField) {
+        JsonNode value = from.get(fromField);
+        if (value != null && !value.isNull()) {
+            to.set(toField, value);
+        }
+    }
+
+    /**
+     * Latencias por operación. Cada muestra se guarda (en microsegundos) para dar percentiles exactos.
+     */
+    static final class LatencyRecorder {
+
+        private final Map<String, Samples> samples = new ConcurrentSkipListMap<>();
+
+        void record(String operation, long nanos, boolean ok) {
+            samples.computeIfAbsent(operation, key -> new Samples()).add(nanos / 1_000, ok);
+        }
+
+        void print(Duration duration) {
+            double seconds = duration.toMillis() / 1000.0;
+            System.out.printf("%n%-20s %10s %7s %9s %9s %9s %9s %9s%n",
+                    "operación", "peticiones", "errores", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+
+            Samples total = new Samples();
+            samples.forEach((operation, operationSamples) -> {
+                print(operation, operationSamples, seconds);
+                total.addAll(operationSamples);
+            });
+            print("TOTAL", total, seconds);
+        }
+
+        private static void print(String operation, Samples samples, double seconds) {
+            long[] sorted = samples.sorted();
+            System.out.printf(Locale.ROOT, "%-20s %10d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    operation, sorted.length, samples.errors(), sorted.length / seconds,
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    sorted.length > 0 ? sorted[sorted.length - 1] / 1000.0 : 0);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1000.0;
+        }
+
+        private static final class Samples {
+            private long[] micros = new long[1024];
+            private int size;
+            private long errors;
+
+            synchronized void add(long value, boolean ok) {
+                if (size == micros.length) {
+                    micros = Arrays.copyOf(micros, size * 2);
+                }
+                micros[size++] = value;
+                if (!ok) {
+                    errors++;
+                }
+            }
+
+            synchronized void addAll(Samples other) {
+                long[] values = other.sorted();
+                for (long value : values) {
+                    add(value, true);
+                }
+                errors += other.errors();
+            }
+
+            synchronized long errors() {
+                return errors;
+            }
+
+            synchronized long[] sorted() {
+                long[] copy = Arrays.copyOf(micros, size);
+                Arrays.sort(copy);
+                return copy;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.stayrpe.loadtest;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opciones de línea de comandos con la forma {@code --clave=valor}
+ */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private Options() {
+    }
+
+    static Options parse(String[] args) {
+        Options options = new Options();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opción no válida: " + arg + " (formato --clave=valor)");
+            }
+            int separator = arg.indexOf('=');
+            options.values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    long getLong(String key, long defaultValue) {
+        String value = values.get(key);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    LocalDate getDate(String key, LocalDate defaultValue) {
+        String value = values.get(key);
+        return value != null ? LocalDate.parse(value) : defaultValue;
+    }
+}
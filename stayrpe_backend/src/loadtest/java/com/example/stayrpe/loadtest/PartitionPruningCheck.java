@@ -0,0 +1,69 @@
+package com.example.stayrpe.loadtest;
+
+import com.example.stayrpe.StayrpeApplication;
+import com.example.stayrpe.dto.PartitionStatusResponse;
+import com.example.stayrpe.service.WorkoutSessionPartitionService;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+/**
+ * Comprueba contra una base MySQL con las migraciones aplicadas que workout_sessions está
+ * particionada y que las consultas por rango de completed_at podan particiones, con el mismo
+ * EXPLAIN que GET /admin/partitions/pruning. Arranca la aplicación (en un puerto libre) para que las
+ * consultas sean las que genera Hibernate desde los repositorios. Termina con código 1 si algo
+ * falla, para usarlo como paso de CI después de {@code exec:java@generate}.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java@prune-check -Dloadtest.args="--url=jdbc:mysql://localhost:3306/stayrpe"
+ * </pre>
+ */
+public class PartitionPruningCheck {
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/stayrpe"
+            + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+
+    public static void main(String[] args) {
+        Options options = Options.parse(args);
+        boolean ok;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StayrpeApplication.class)
+                .run("--server.port=0", "--management.server.port=0",
+                        "--spring.datasource.url=" + options.get("url", DEFAULT_URL),
+                        "--spring.datasource.username=" + options.get("db-user", "root"),
+                        "--spring.datasource.password=" + options.get("db-password", ""),
+                        "--stayrpe.partitions.quarters-ahead=" + options.getInt("quarters-ahead", 2),
+                        "--stayrpe.archive.after-days=" + options.getInt("archive-after-days", 365),
+                        "--stayrpe.exercises.seed.enabled=false")) {
+            ok = run(context.getBean(WorkoutSessionPartitionService.class));
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    static boolean run(WorkoutSessionPartitionService service) {
+        List<PartitionStatusResponse.PartitionInfo> partitions = service.getPartitions();
+        if (partitions.isEmpty()) {
+            System.out.println("FALLO: " + WorkoutSessionPartitionService.TABLE
+                    + " no está particionada (¿se arrancó la aplicación contra esta base?)");
+            return false;
+        }
+
+        System.out.printf("%d particiones en %s%n", partitions.size(), WorkoutSessionPartitionService.TABLE);
+        for (PartitionStatusResponse.PartitionInfo partition : partitions) {
+            System.out.printf("  %-12s [%s, %s) ~%d filas%n", partition.getName(),
+                    partition.getFrom() != null ? partition.getFrom() : "-",
+                    partition.getTo() != null ? partition.getTo() : "MAXVALUE",
+                    partition.getApproximateRows());
+        }
+
+        boolean ok = true;
+        for (PartitionStatusResponse.PruningCheck check : service.checkPruning(null)) {
+            System.out.printf("%s %s: lee %s de %d (esperadas %s)%n    %s%n",
+                    check.isPruned() ? "OK   " : "FALLO", check.getQuery(), check.getPartitionsScanned(),
+                    check.getTotalPartitions(), check.getPartitionsExpected(), check.getSql());
+            ok &= check.isPruned();
+        }
+        return ok;
+    }
+}
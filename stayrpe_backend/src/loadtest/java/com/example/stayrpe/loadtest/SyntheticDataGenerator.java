@@ -0,0 +1,512 @@
+package com.example.stayrpe.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Rellena una base de datos MySQL (o compatible) con usuarios sintéticos y años de historial:
+ * perfil, rutinas, macrociclos consecutivos con sus planes y customizaciones, y las sesiones
+ * de entrenamiento con sus ejercicios y series.
+ *
+ * <p>El resultado es determinista para la misma semilla, fecha final y catálogo de ejercicios:
+ * cada usuario usa su propio generador aleatorio derivado de la semilla. Los ids se asignan aquí
+ * (a partir del máximo actual de cada tabla) para poder insertar en lotes sin leer claves generadas,
+ * y cada usuario se escribe en una única transacción, tabla a tabla en orden de dependencias.</p>
+ *
+ * <p>Requiere el esquema ya creado (arrancar la aplicación una vez) y el catálogo de ejercicios
+ * predefinidos. Todos los usuarios comparten la contraseña {@code --password}.</p>
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java@generate -Dloadtest.args="--users=200 --years=3 --seed=42"
+ * </pre>
+ */
+public class SyntheticDataGenerator {
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/stayrpe"
+            + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&rewriteBatchedStatements=true";
+
+    private static final String[] FIRST_NAMES = {"Lucía", "Hugo", "Martina", "Mateo", "Sofía", "Leo", "Julia",
+            "Daniel", "Paula", "Álvaro", "Valeria", "Pablo", "Carmen", "Manuel", "Alba", "Javier"};
+    private static final String[] LAST_NAMES = {"García", "Martínez", "López", "Sánchez", "Pérez", "Gómez",
+            "Martín", "Jiménez", "Ruiz", "Hernández", "Díaz", "Moreno", "Álvarez", "Romero"};
+    private static final String[] FITNESS_GOALS = {"muscle_gain", "strength", "fat_loss", "maintenance"};
+    private static final String[] EXPERIENCE_LEVELS = {"beginner", "intermediate", "advanced"};
+
+    // Plantillas de rutina: nombre y músculos de los que se eligen sus ejercicios
+    private static final String[][] ROUTINE_TEMPLATES = {
+            {"Torso A", "chest", "back", "shoulders", "arms"},
+            {"Pierna A", "legs", "core"},
+            {"Torso B", "back", "chest", "arms", "shoulders"},
+            {"Pierna B", "legs", "core"},
+            {"Full body", "chest", "back", "legs", "shoulders", "arms", "core"}
+    };
+
+    // Días de entrenamiento de un microciclo de 7 días según el número de rutinas
+    private static final int[][] TRAINING_DAYS = {
+            {}, {1}, {1, 4}, {1, 3, 5}, {1, 2, 4, 5}, {1, 2, 3, 5, 6}
+    };
+
+    private final Connection connection;
+    private final long seed;
+    private final LocalDate endDate;
+    private final int historyDays;
+    private final String usernamePrefix;
+    private final String passwordHash;
+    private final int batchSize;
+
+    private final List<CatalogExercise> catalog = new ArrayList<>();
+    private final Map<String, List<CatalogExercise>> catalogByMuscle = new HashMap<>();
+    private final Map<String, Long> nextIds = new HashMap<>();
+
+    // Filas pendientes por tabla, en el orden en que deben insertarse
+    private final Map<String, Batch> batches = new LinkedHashMap<>();
+
+    public SyntheticDataGenerator(Connection connection, long seed, LocalDate endDate, int years,
+                                  String usernamePrefix, String password, int batchSize) {
+        this.connection = connection;
+        this.seed = seed;
+        this.endDate = endDate;
+        this.historyDays = years * 365;
+        this.usernamePrefix = usernamePrefix;
+        this.passwordHash = new BCryptPasswordEncoder().encode(password);
+        this.batchSize = batchSize;
+
+        batch("usuario", "id", "username", "password", "first_name", "last_name", "enabled");
+        batch("usuario_roles", "usuario_id", "rol");
+        batch("user_profile", "id", "usuario_id", "age", "height", "weight", "sex", "fitness_goal",
+                "experience_level", "onboarding_complete");
+        batch("routines", "id", "name", "description", "created_by", "created_at", "updated_at", "is_active");
+        batch("routine_exercises", "id", "routine_id", "exercise_id", "exercise_order", "number_of_sets",
+                "rest_between_sets", "notes");
+        batch("exercise_sets", "id", "routine_exercise_id", "set_number", "target_reps_min", "target_reps_max",
+                "target_weight", "rir", "rpe", "notes", "completed");
+        batch("macrocycles", "id", "name", "description", "created_by", "is_archived", "is_currently_active",
+                "start_date", "microcycle_duration_days", "total_microcycles", "created_at", "updated_at");
+        batch("macrocycle_day_plans", "id", "macrocycle_id", "day_number", "routine_id", "is_rest_day");
+        batch("macrocycle_day_customizations", "id", "macrocycle_id", "absolute_day", "routine_exercise_id",
+                "exercise_set_id", "custom_reps_min", "custom_reps_max", "custom_weight", "custom_rir", "custom_rpe",
+                "custom_notes", "created_at", "updated_at");
+        batch("workout_sessions", "id", "user_id", "routine_id", "routine_name", "routine_description",
+                "started_at", "completed_at", "duration_minutes", "total_exercises", "total_sets", "completed_sets",
+                "completion_percentage", "total_volume", "notes", "macrocycle_id", "macrocycle_name", "absolute_day",
+                "created_at", "updated_at");
+        batch("workout_session_exercises", "id", "workout_session_id", "exercise_id", "exercise_name",
+                "exercise_muscle", "exercise_order", "planned_sets", "completed_sets", "rest_between_sets", "notes",
+                "was_added_during_workout", "total_volume");
+        batch("workout_session_sets", "id", "workout_session_exercise_id", "set_number", "target_reps_min",
+                "target_reps_max", "target_weight", "target_rir", "target_rpe", "actual_reps", "actual_weight",
+                "actual_rir", "actual_rpe", "completed", "was_added_during_workout");
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Options options = Options.parse(args);
+        int users = options.getInt("users", 100);
+
+        try (Connection connection = DriverManager.getConnection(
+                options.get("url", DEFAULT_URL),
+                options.get("db-user", "root"),
+                options.get("db-password", ""))) {
+
+            connection.setAutoCommit(false);
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(connection,
+                    options.getLong("seed", 42L),
+                    options.getDate("end-date", LocalDate.now()),
+                    options.getInt("years", 2),
+                    options.get("prefix", "load_"),
+                    options.get("password", "loadtest"),
+                    options.getInt("batch-size", 1000));
+            generator.generate(users);
+        }
+    }
+
+    public void generate(int users) throws SQLException {
+        long start = System.nanoTime();
+        loadCatalog();
+        checkNotGenerated();
+        for (String table : batches.keySet()) {
+            nextIds.put(table, maxId(table) + 1);
+        }
+
+        long totalRows = 0;
+        for (int index = 1; index <= users; index++) {
+            Random random = new Random(seed * 1_000_003L + index);
+            generateUser(index, random);
+            totalRows += flush();
+            connection.commit();
+
+            if (index % 10 == 0 || index == users) {
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf(Locale.ROOT, "%d/%d usuarios, %d filas, %.0f filas/s%n",
+                        index, users, totalRows, totalRows / seconds);
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "Generados %d usuarios (%s00001..%s%05d) con %d filas en %.1f s%n",
+                users, usernamePrefix, usernamePrefix, users, totalRows, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void generateUser(int index, Random random) {
+        long userId = nextId("usuario");
+        String username = usernamePrefix + String.format("%05d", index);
+        add("usuario", userId, username, passwordHash, pick(random, FIRST_NAMES), pick(random, LAST_NAMES), true);
+        add("usuario_roles", userId, "USER");
+        add("user_profile", nextId("user_profile"), userId, 18 + random.nextInt(40), 155 + random.nextInt(40),
+                50 + random.nextInt(55), random.nextBoolean() ? "male" : "female", pick(random, FITNESS_GOALS),
+                pick(random, EXPERIENCE_LEVELS), true);
+
+        LocalDate historyStart = endDate.minusDays(historyDays);
+        LocalDateTime createdAt = historyStart.minusDays(random.nextInt(30)).atTime(20, 0);
+        // Fuerza relativa del usuario y constancia (probabilidad de entrenar un día planificado)
+        double strength = 0.6 + random.nextDouble() * 0.8;
+        double adherence = 0.6 + random.nextDouble() * 0.35;
+
+        List<RoutinePlan> routines = new ArrayList<>();
+        int routineCount = 3 + random.nextInt(3);
+        for (int r = 0; r < routineCount; r++) {
+            routines.add(generateRoutine(userId, ROUTINE_TEMPLATES[r], createdAt, strength, random));
+        }
+
+        LocalDate macrocycleStart = historyStart;
+        int number = 1;
+        while (!macrocycleStart.isAfter(endDate)) {
+            int microcycles = 6 + random.nextInt(5);
+            LocalDate macrocycleEnd = macrocycleStart.plusDays(microcycles * 7L - 1);
+            boolean current = !macrocycleEnd.isBefore(endDate);
+            generateMacrocycle(userId, "Bloque " + number, macrocycleStart, microcycles, current, routines,
+                    historyStart, strength, adherence, random);
+            macrocycleStart = macrocycleEnd.plusDays(1);
+            number++;
+        }
+    }
+
+    private RoutinePlan generateRoutine(long userId, String[] template, LocalDateTime createdAt, double strength,
+                                        Random random) {
+        RoutinePlan routine = new RoutinePlan(nextId("routines"), template[0], "Rutina de " + template[0].toLowerCase());
+        add("routines", routine.id, routine.name, routine.description, userId, createdAt, createdAt, true);
+
+        Set<CatalogExercise> chosen = new LinkedHashSet<>();
+        int exerciseCount = 5 + random.nextInt(3);
+        for (int attempt = 0; chosen.size() < exerciseCount && attempt < exerciseCount * 4; attempt++) {
+            String muscle = template[1 + attempt % (template.length - 1)];
+            List<CatalogExercise> candidates = catalogByMuscle.getOrDefault(muscle, catalog);
+            chosen.add(candidates.get(random.nextInt(candidates.size())));
+        }
+
+        int order = 1;
+        for (CatalogExercise exercise : chosen) {
+            PlannedExercise planned = new PlannedExercise(nextId("routine_exercises"), exercise, order++,
+                    60 + random.nextInt(5) * 30);
+            int setCount = 3 + random.nextInt(2);
+            add("routine_exercises", planned.id, routine.id, exercise.id, planned.order, setCount,
+                    planned.restBetweenSets, null);
+
+            int repsMin = 6 + random.nextInt(3) * 2;
+            double weight = roundToPlate(exercise.baseWeight * strength);
+            boolean byRpe = random.nextInt(4) == 0;
+            for (int setNumber = 1; setNumber <= setCount; setNumber++) {
+                PlannedSet set = new PlannedSet(nextId("exercise_sets"), setNumber, repsMin, repsMin + 2, weight,
+                        byRpe ? null : 1 + random.nextInt(3), byRpe ? 7 + random.nextInt(3) : null);
+                add("exercise_sets", set.id, planned.id, set.setNumber, set.repsMin, set.repsMax, set.weight,
+                        set.rir, set.rpe, null, false);
+                planned.sets.add(set);
+            }
+            routine.exercises.add(planned);
+        }
+        return routine;
+    }
+
+    private void generateMacrocycle(long userId, String name, LocalDate startDate, int microcycles, boolean current,
+                                    List<RoutinePlan> routines, LocalDate historyStart, double strength,
+                                    double adherence, Random random) {
+        long macrocycleId = nextId("macrocycles");
+        LocalDateTime createdAt = startDate.minusDays(1).atTime(21, 0);
+        add("macrocycles", macrocycleId, name, "Mesociclo de " + microcycles + " semanas", userId, !current, current,
+                startDate, 7, microcycles, createdAt, createdAt);
+
+        // Plan semanal: las rutinas se reparten por los días de entrenamiento, el resto es descanso
+        RoutinePlan[] plan = new RoutinePlan[8];
+        int[] trainingDays = TRAINING_DAYS[Math.min(routines.size(), TRAINING_DAYS.length - 1)];
+        for (int i = 0; i < trainingDays.length; i++) {
+            plan[trainingDays[i]] = routines.get(i % routines.size());
+        }
+        for (int day = 1; day <= 7; day++) {
+            add("macrocycle_day_plans", nextId("macrocycle_day_plans"), macrocycleId, day,
+                    plan[day] != null ? plan[day].id : null, plan[day] == null);
+        }
+
+        for (int absoluteDay = 1; absoluteDay <= microcycles * 7; absoluteDay++) {
+            RoutinePlan routine = plan[(absoluteDay - 1) % 7 + 1];
+            if (routine == null) {
+                continue;
+            }
+
+            Map<Long, PlannedSet> customized = random.nextInt(20) == 0
+                    ? generateCustomizations(macrocycleId, absoluteDay, routine, createdAt, random)
+                    : Map.of();
+
+            LocalDate date = startDate.plusDays(absoluteDay - 1);
+            // El día de hoy y los siguientes quedan sin entrenar para que el driver de carga los complete
+            if (date.isBefore(endDate) && random.nextDouble() < adherence) {
+                double progress = ChronoUnit.DAYS.between(historyStart, date) / (double) historyDays;
+                generateSession(userId, macrocycleId, name, absoluteDay, date, routine, customized,
+                        1 + progress * 0.25 * strength, random);
+            }
+        }
+    }
+
+    private Map<Long, PlannedSet> generateCustomizations(long macrocycleId, int absoluteDay, RoutinePlan routine,
+                                                         LocalDateTime createdAt, Random random) {
+        Map<Long, PlannedSet> customized = new HashMap<>();
+        PlannedExercise exercise = routine.exercises.get(random.nextInt(routine.exercises.size()));
+        for (PlannedSet set : exercise.sets) {
+            if (random.nextBoolean()) {
+                continue;
+            }
+            PlannedSet custom = new PlannedSet(set.id, set.setNumber, set.repsMin - 2, set.repsMax - 2,
+                    set.weight + 2.5, set.rir, set.rpe);
+            add("macrocycle_day_customizations", nextId("macrocycle_day_customizations"), macrocycleId, absoluteDay,
+                    exercise.id, set.id, custom.repsMin, custom.repsMax, custom.weight, null, null,
+                    "Día pesado", createdAt, createdAt);
+            customized.put(set.id, custom);
+        }
+        return customized;
+    }
+
+    private void generateSession(long userId, long macrocycleId, String macrocycleName, int absoluteDay,
+                                 LocalDate date, RoutinePlan routine, Map<Long, PlannedSet> customized,
+                                 double progression, Random random) {
+        long sessionId = nextId("workout_sessions");
+        LocalDateTime startedAt = date.atTime(7 + random.nextInt(14), random.nextInt(60));
+        int duration = 45 + random.nextInt(50);
+        LocalDateTime completedAt = startedAt.plusMinutes(duration);
+
+        // A veces se salta el último ejercicio o se añade uno durante el entrenamiento
+        List<PlannedExercise> exercises = new ArrayList<>(routine.exercises);
+        if (exercises.size() > 3 && random.nextInt(10) == 0) {
+            exercises.remove(exercises.size() - 1);
+        }
+        boolean addExtra = random.nextInt(15) == 0;
+
+        int totalSets = 0;
+        int completedSets = 0;
+        double totalVolume = 0;
+        int order = 1;
+        for (PlannedExercise planned : exercises) {
+            SessionTotals totals = generateSessionExercise(sessionId, planned.exercise, order++, planned.restBetweenSets,
+                    planned.sets, customized, progression, false, random);
+            totalSets += totals.sets;
+            completedSets += totals.completedSets;
+            totalVolume += totals.volume;
+        }
+        if (addExtra) {
+            CatalogExercise extra = catalog.get(random.nextInt(catalog.size()));
+            List<PlannedSet> extraSets = List.of(
+                    new PlannedSet(0, 1, 10, 12, roundToPlate(extra.baseWeight * 0.5), 2, null),
+                    new PlannedSet(0, 2, 10, 12, roundToPlate(extra.baseWeight * 0.5), 2, null));
+            SessionTotals totals = generateSessionExercise(sessionId, extra, order++, 60, extraSets, Map.of(),
+                    progression, true, random);
+            totalSets += totals.sets;
+            completedSets += totals.completedSets;
+            totalVolume += totals.volume;
+        }
+
+        int completion = totalSets > 0 ? Math.round(completedSets * 100.0f / totalSets) : 0;
+        add("workout_sessions", sessionId, userId, routine.id, routine.name, routine.description, startedAt,
+                completedAt, duration, order - 1, totalSets, completedSets, completion, totalVolume, null,
+                macrocycleId, macrocycleName, absoluteDay, completedAt, completedAt);
+    }
+
+    private SessionTotals generateSessionExercise(long sessionId, CatalogExercise exercise, int order,
+                                                  int restBetweenSets, List<PlannedSet> sets,
+                                                  Map<Long, PlannedSet> customized, double progression,
+                                                  boolean addedDuringWorkout, Random random) {
+        long sessionExerciseId = nextId("workout_session_exercises");
+        SessionTotals totals = new SessionTotals();
+
+        for (PlannedSet planned : sets) {
+            PlannedSet target = customized.getOrDefault(planned.id, planned);
+            boolean completed = random.nextInt(100) < 92;
+            Integer actualReps = null;
+            Double actualWeight = null;
+            Integer actualRir = null;
+            Integer actualRpe = null;
+            if (completed) {
+                actualReps = Math.max(1, target.repsMin - 1 + random.nextInt(target.repsMax - target.repsMin + 3));
+                actualWeight = roundToPlate(target.weight * progression);
+                actualRir = target.rir != null ? Math.max(0, target.rir + random.nextInt(3) - 1) : null;
+                actualRpe = target.rpe != null ? Math.min(10, target.rpe + random.nextInt(3) - 1) : null;
+                totals.completedSets++;
+                totals.volume += actualReps * actualWeight;
+            }
+            totals.sets++;
+            add("workout_session_sets", nextId("workout_session_sets"), sessionExerciseId, target.setNumber,
+                    target.repsMin, target.repsMax, target.weight, target.rir, target.rpe, actualReps, actualWeight,
+                    actualRir, actualRpe, completed, addedDuringWorkout);
+        }
+
+        add("workout_session_exercises", sessionExerciseId, sessionId, exercise.id, exercise.name, exercise.muscle,
+                order, sets.size(), totals.completedSets, restBetweenSets, null, addedDuringWorkout, totals.volume);
+        return totals;
+    }
+
+    // =========================================================================
+    // JDBC
+    // =========================================================================
+
+    private void loadCatalog() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT id, name, muscle FROM exercises WHERE is_custom = false ORDER BY id")) {
+            while (rs.next()) {
+                String name = rs.getString("name");
+                // Peso de trabajo base estable por ejercicio (no depende del orden de generación)
+                double baseWeight = 10 + Math.floorMod(name.hashCode(), 19) * 5;
+                CatalogExercise exercise = new CatalogExercise(rs.getLong("id"), name, rs.getString("muscle"), baseWeight);
+                catalog.add(exercise);
+                catalogByMuscle.computeIfAbsent(exercise.muscle, key -> new ArrayList<>()).add(exercise);
+            }
+        }
+        if (catalog.isEmpty()) {
+            throw new IllegalStateException("No hay ejercicios predefinidos: arranca la aplicación una vez para crear "
+                    + "el esquema y cargar el catálogo");
+        }
+    }
+
+    private void checkNotGenerated() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM usuario WHERE username = ?")) {
+            statement.setString(1, usernamePrefix + "00001");
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    throw new IllegalStateException("Ya existen usuarios con el prefijo '" + usernamePrefix
+                            + "': usa otro --prefix o una base de datos limpia");
+                }
+            }
+        }
+    }
+
+    private long maxId(String table) throws SQLException {
+        if (!batches.get(table).columns[0].equals("id")) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private long nextId(String table) {
+        return nextIds.merge(table, 1L, Long::sum) - 1;
+    }
+
+    private void batch(String table, String... columns) {
+        batches.put(table, new Batch(table, columns));
+    }
+
+    private void add(String table, Object... values) {
+        batches.get(table).rows.add(values);
+    }
+
+    /**
+     * Inserta las filas pendientes tabla a tabla (padres antes que hijos) en lotes de batchSize
+     */
+    private long flush() throws SQLException {
+        long rows = 0;
+        for (Batch batch : batches.values()) {
+            rows += batch.flush(connection, batchSize);
+        }
+        return rows;
+    }
+
+    private static double roundToPlate(double weight) {
+        return Math.max(2.5, Math.round(weight / 2.5) * 2.5);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static final class Batch {
+        private final String sql;
+        private final String[] columns;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        Batch(String table, String[] columns) {
+            this.columns = columns;
+            this.sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        }
+
+        int flush(Connection connection, int batchSize) throws SQLException {
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int pending = 0;
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+            int flushed = rows.size();
+            rows.clear();
+            return flushed;
+        }
+    }
+
+    private record CatalogExercise(long id, String name, String muscle, double baseWeight) {
+    }
+
+    private static final class RoutinePlan {
+        final long id;
+        final String name;
+        final String description;
+        final List<PlannedExercise> exercises = new ArrayList<>();
+
+        RoutinePlan(long id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+    }
+
+    private static final class PlannedExercise {
+        final long id;
+        final CatalogExercise exercise;
+        final int order;
+        final int restBetweenSets;
+        final List<PlannedSet> sets = new ArrayList<>();
+
+        PlannedExercise(long id, CatalogExercise exercise, int order, int restBetweenSets) {
+            this.id = id;
+            this.exercise = exercise;
+            this.order = order;
+            this.restBetweenSets = restBetweenSets;
+        }
+    }
+
+    private record PlannedSet(long id, int setNumber, int repsMin, int repsMax, double weight, Integer rir,
+                              Integer rpe) {
+    }
+
+    private static final class SessionTotals {
+        int sets;
+        int completedSets;
+        double volume;
+    }
+}
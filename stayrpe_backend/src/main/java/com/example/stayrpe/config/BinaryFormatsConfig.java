@@ -0,0 +1,46 @@
+package com.example.stayrpe.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos binarios para la app móvil: con {@code Accept: application/cbor} o
+ * {@code Accept: application/x-jackson-smile} la respuesta se codifica en CBOR o Smile en lugar de JSON.
+ * Se usan en historial, personalización del día, estadísticas y rutinas, donde las respuestas
+ * repiten muchas veces los mismos nombres de campo. Sin esa cabecera, o con un Accept genérico,
+ * se sigue respondiendo JSON.
+ *
+ * <p>Los ObjectMapper salen del mismo Jackson2ObjectMapperBuilder que el de JSON, así que fechas,
+ * módulos y propiedades spring.jackson.* se serializan igual en los tres formatos.</p>
+ */
+@Configuration
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public BinaryFormatsConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring MVC ya añade estos conversores al ver las librerías, pero con un ObjectMapper sin la
+        // configuración de Spring Boot; se sustituyen y quedan al final para que JSON siga siendo el formato por defecto
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+    }
+}
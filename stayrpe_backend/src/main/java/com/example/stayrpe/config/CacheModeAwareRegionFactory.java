@@ -0,0 +1,30 @@
+package com.example.stayrpe.config;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.support.QueryResultsRegionTemplate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * La factoría JCache de Hibernate, con una diferencia en la caché de consultas: no guarda resultados
+ * de sesiones cuyo {@link org.hibernate.CacheMode} no permite escribir. Hibernate 6.6 sí lo comprueba
+ * para entidades y colecciones, pero con {@code CacheMode.GET} un fallo en la caché de consultas
+ * acaba guardando el resultado igualmente. Las sesiones de la réplica dependen de que no lo haga
+ * (ver {@link ReadWriteRoutingDataSource}).
+ */
+public class CacheModeAwareRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    public QueryResultsRegion buildQueryResultsRegion(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new QueryResultsRegionTemplate(regionName, this,
+                createQueryResultsRegionStorageAccess(regionName, sessionFactory)) {
+            @Override
+            public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+                if (session == null || session.getCacheMode().isPutEnabled()) {
+                    super.putIntoCache(key, value, session);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.stayrpe.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Selección de campos del parámetro {@code fields=} de las respuestas grandes, p. ej.
+ * {@code fields=id,routineName,completedAt} o {@code fields=name,exercises.exerciseName}.
+ * Un campo anidado se indica con su ruta separada por puntos; nombrar un objeto o lista
+ * incluye todo su contenido. Sin el parámetro se serializa todo, como hasta ahora.
+ *
+ * <p>Los controladores usan {@link #includes} para no cargar ni calcular lo que no se ha pedido
+ * (consultas de proyección, detalle sin ejercicios) y {@link #apply} para que Jackson omita el resto
+ * al serializar. Solo se filtran las clases anotadas con {@code @JsonFilter("fieldSelection")}.</p>
+ */
+public final class FieldSelection {
+
+    public static final String FILTER_ID = "fieldSelection";
+
+    private static final FieldSelection ALL = new FieldSelection(Set.of());
+
+    private final Set<String> paths;
+
+    private FieldSelection(Set<String> paths) {
+        this.paths = paths;
+    }
+
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> paths = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        return paths.isEmpty() ? ALL : new FieldSelection(paths);
+    }
+
+    public boolean isAll() {
+        return paths.isEmpty();
+    }
+
+    /**
+     * Si la ruta se serializa: está pedida, está dentro de algo pedido o contiene algo pedido
+     */
+    public boolean includes(String path) {
+        if (isAll()) {
+            return true;
+        }
+        for (String selected : paths) {
+            if (selected.equals(path) || selected.startsWith(path + ".") || path.startsWith(selected + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cuerpo de la respuesta con el filtro aplicado, o el mismo cuerpo si no hay selección
+     */
+    public Object apply(Object body) {
+        if (isAll() || body == null) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FILTER_ID, new PathFilter()));
+        return value;
+    }
+
+    /**
+     * Filtro por defecto del ObjectMapper: las clases anotadas se serializan completas
+     * cuando la respuesta no trae selección
+     */
+    public static SimpleFilterProvider serializeAll() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    private class PathFilter extends SimpleBeanPropertyFilter {
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (includes(currentPath(gen, writer.getName()))) {
+                writer.serializeAsField(pojo, gen, provider);
+            } else if (!gen.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, gen, provider);
+            }
+        }
+
+        /**
+         * Ruta del campo a partir de los nombres de los objetos que lo contienen; las listas no añaden nivel
+         */
+        private String currentPath(JsonGenerator gen, String field) {
+            Deque<String> names = new ArrayDeque<>();
+            names.push(field);
+            for (JsonStreamContext context = gen.getOutputContext().getParent(); context != null;
+                 context = context.getParent()) {
+                if (context.inObject() && context.getCurrentName() != null) {
+                    names.push(context.getCurrentName());
+                }
+            }
+            return String.join(".", names);
+        }
+    }
+}
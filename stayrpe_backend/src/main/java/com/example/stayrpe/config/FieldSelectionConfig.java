@@ -0,0 +1,18 @@
+package com.example.stayrpe.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra en el ObjectMapper de Spring Boot (JSON, CBOR y Smile) el filtro por defecto de
+ * {@link FieldSelection}, necesario para serializar las clases anotadas con {@code @JsonFilter}.
+ */
+@Configuration
+public class FieldSelectionConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilter() {
+        return builder -> builder.filters(FieldSelection.serializeAll());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.stayrpe.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Réplica de lectura opcional. Solo se activa si hay {@code stayrpe.datasource.replica.url};
+ * sin ella la aplicación usa el DataSource único que crea Spring Boot.
+ * El primario sigue configurándose con {@code spring.datasource.*} y la réplica hereda
+ * usuario, contraseña y driver salvo que se indiquen en {@code stayrpe.datasource.replica.*}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "stayrpe.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("stayrpe.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${stayrpe.datasource.replica.url}") String url,
+            @Value("${stayrpe.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${stayrpe.datasource.replica.password:${spring.datasource.password:}}") String password
+    ) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${stayrpe.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${stayrpe.datasource.replica.max-lag-seconds:5}") long maxLagSeconds
+    ) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLagSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor
+    ) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaLagMonitor);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        // La conexión real se pide al ejecutar la primera sentencia, cuando Spring ya
+        // ha marcado la transacción como de solo lectura
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
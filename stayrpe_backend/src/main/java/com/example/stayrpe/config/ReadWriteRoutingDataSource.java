@@ -0,0 +1,48 @@
+package com.example.stayrpe.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envía las transacciones {@code @Transactional(readOnly = true)} a la réplica mientras esté
+ * disponible y al día; todo lo demás (escrituras, trabajo sin transacción) va al primario.
+ * Debe envolverse en un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * para que la conexión se elija cuando la transacción ya está marcada como de solo lectura.
+ *
+ * Las sesiones que leen de la réplica pasan a {@link CacheMode#GET}: usan la caché de segundo nivel
+ * y la de consultas, pero no las rellenan (en la de consultas lo hace cumplir
+ * {@link CacheModeAwareRegionFactory}). Tras un UPDATE masivo que vacía una región, una lectura de
+ * la réplica retrasada guardaría filas antiguas con marca de tiempo nueva, y seguirían en caché
+ * hasta la siguiente escritura en la tabla, mucho después de que la réplica se pusiera al día.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaLagMonitor.isReplicaAvailable()) {
+            disableCachePutsForCurrentTransaction();
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    // La conexión se pide con la primera sentencia, antes de que la sesión guarde nada leído de la réplica
+    private static void disableCachePutsForCurrentTransaction() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+    }
+}
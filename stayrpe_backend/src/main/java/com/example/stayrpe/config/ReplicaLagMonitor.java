@@ -0,0 +1,100 @@
+package com.example.stayrpe.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Comprueba periódicamente que la réplica responde y que su retraso no supera
+ * {@code stayrpe.datasource.replica.max-lag-seconds}. Mientras no se cumpla, las lecturas
+ * vuelven al primario. Con {@code lag-query} vacío solo se comprueba la conexión
+ * (útil en local, donde la "réplica" es otra base de datos sin replicación). Una consulta propia
+ * puede devolver el retraso en segundos en su primera columna.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // SHOW REPLICA STATUS (MySQL 8.0.22+) y SHOW SLAVE STATUS (anteriores)
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource replicaDataSource;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    private volatile boolean replicaAvailable = false;
+    private volatile long lastLagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, long maxLagSeconds) {
+        this.replicaDataSource = replicaDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${stayrpe.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean available;
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            Long lag = readLagSeconds(statement);
+            lastLagSeconds = lag != null ? lag : -1;
+            available = lag != null && lag <= maxLagSeconds;
+        } catch (SQLException e) {
+            lastLagSeconds = -1;
+            available = false;
+            if (replicaAvailable) {
+                logger.warn("Réplica no disponible: {}", e.getMessage());
+            }
+        }
+
+        if (available != replicaAvailable) {
+            if (available) {
+                logger.info("Réplica disponible (retraso {} s): las lecturas vuelven a la réplica", lastLagSeconds);
+            } else {
+                logger.warn("Réplica fuera de servicio o con retraso {} s (máximo {} s): lecturas al primario",
+                        lastLagSeconds, maxLagSeconds);
+            }
+            replicaAvailable = available;
+        }
+    }
+
+    /**
+     * Retraso en segundos, o null si la replicación está parada o no configurada
+     */
+    private Long readLagSeconds(Statement statement) throws SQLException {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return statement.execute("SELECT 1") ? 0L : null;
+        }
+
+        try (ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return null;
+            }
+            for (String column : LAG_COLUMNS) {
+                try {
+                    long lag = rs.getLong(column);
+                    return rs.wasNull() ? null : lag;
+                } catch (SQLException e) {
+                    // columna no presente en esta versión: probar la siguiente
+                }
+            }
+            // Consulta propia (p. ej. sobre una tabla heartbeat): primera columna
+            long lag = rs.getLong(1);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.stayrpe.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Migraciones de esquema versionadas para lo que ddl-auto=update no sabe hacer (particiones,
+ * claves primarias, constraints). Al arrancar, después de que Hibernate cree o actualice las tablas
+ * y antes de que el servidor web acepte peticiones (los singletons se crean antes de arrancar Tomcat),
+ * aplica en orden los scripts {@code V<n>__<descripción>.sql} de stayrpe.schema.migrations.location
+ * que aún no figuren en schema_migrations. {vendor} se sustituye por el motor (mysql, h2...), así que
+ * un motor sin carpeta propia no aplica nada.
+ *
+ * Cada sentencia termina en ';' al final de una línea; las líneas que empiezan por '--' se ignoran.
+ * Todas se ejecutan en la misma conexión, de modo que las variables de sesión (SET @x) sirven entre
+ * sentencias. En MySQL el DDL no es transaccional: si un script falla a medias no se registra y el
+ * arranque se detiene para revisarlo a mano.
+ */
+@Component
+public class SchemaMigrationRunner implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationRunner.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    // Evita que dos instancias que arrancan a la vez apliquen el mismo script
+    private static final String MYSQL_LOCK = "stayrpe_schema_migrations";
+    private static final int MYSQL_LOCK_TIMEOUT_SECONDS = 300;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResourceLoader resourceLoader;
+    private final boolean enabled;
+    private final String location;
+
+    public SchemaMigrationRunner(
+            JdbcTemplate jdbcTemplate,
+            ResourceLoader resourceLoader,
+            @Value("${stayrpe.schema.migrations.enabled:true}") boolean enabled,
+            @Value("${stayrpe.schema.migrations.location:classpath:db/migration/{vendor}}") String location
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resourceLoader = resourceLoader;
+        this.enabled = enabled;
+        this.location = location;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            migrate(connection);
+            return null;
+        });
+    }
+
+    private void migrate(Connection connection) throws SQLException {
+        String vendor = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        List<Migration> migrations = loadMigrations(location.replace("{vendor}", vendor));
+        if (migrations.isEmpty()) {
+            return;
+        }
+
+        boolean mysql = vendor.contains("mysql");
+        if (mysql) {
+            acquireLock(connection);
+        }
+        try {
+            createHistoryTable(connection);
+            Map<Integer, Long> applied = loadApplied(connection);
+
+            int count = 0;
+            for (Migration migration : migrations) {
+                Long checksum = applied.get(migration.version());
+                if (checksum != null) {
+                    if (checksum != migration.checksum()) {
+                        logger.warn("La migración V{} ({}) cambió después de aplicarse; no se vuelve a ejecutar",
+                                migration.version(), migration.description());
+                    }
+                    continue;
+                }
+                apply(connection, migration);
+                count++;
+            }
+
+            if (count > 0) {
+                logger.info("Migraciones de esquema ({}): {} aplicadas, {} ya estaban", vendor, count, migrations.size() - count);
+            }
+        } finally {
+            if (mysql) {
+                releaseLock(connection);
+            }
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        logger.info("Aplicando migración V{}: {}", migration.version(), migration.description());
+        long start = System.nanoTime();
+
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements()) {
+                try {
+                    statement.execute(sql);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("La migración V" + migration.version() + " falló en: " + sql, e);
+                }
+            }
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO schema_migrations (version, description, checksum, applied_at, execution_ms) VALUES (?, ?, ?, ?, ?)")) {
+            insert.setInt(1, migration.version());
+            insert.setString(2, migration.description());
+            insert.setLong(3, migration.checksum());
+            insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            insert.setLong(5, durationMs);
+            insert.executeUpdate();
+        }
+        logger.info("Migración V{} aplicada en {} ms", migration.version(), durationMs);
+    }
+
+    private List<Migration> loadMigrations(String resolvedLocation) {
+        Resource[] resources;
+        try {
+            resources = ResourcePatternUtils.getResourcePatternResolver(resourceLoader)
+                    .getResources(resolvedLocation + "/V*__*.sql");
+        } catch (IOException e) {
+            // Una carpeta que no existe para este motor equivale a no tener migraciones
+            return List.of();
+        }
+
+        List<Migration> migrations = new ArrayList<>();
+        Set<Integer> versions = new HashSet<>();
+        for (Resource resource : resources) {
+            Matcher matcher = FILE_NAME.matcher(Objects.requireNonNull(resource.getFilename()));
+            if (!matcher.matches()) {
+                continue;
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (!versions.add(version)) {
+                throw new IllegalStateException("Versión de migración duplicada: V" + version);
+            }
+
+            byte[] content;
+            try {
+                content = resource.getContentAsByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo leer la migración " + resource.getFilename(), e);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), crc.getValue(),
+                    splitStatements(new String(content, StandardCharsets.UTF_8))));
+        }
+
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        return migrations;
+    }
+
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            if (current.length() > 0) {
+                current.append('\n');
+            }
+            if (trimmed.endsWith(";")) {
+                current.append(line, 0, line.lastIndexOf(';'));
+                statements.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(line);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private void createHistoryTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                    "version INT NOT NULL PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "checksum BIGINT NOT NULL, " +
+                    "applied_at TIMESTAMP NOT NULL, " +
+                    "execution_ms BIGINT NOT NULL)");
+        }
+    }
+
+    private Map<Integer, Long> loadApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private void acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            lock.setString(1, MYSQL_LOCK);
+            lock.setInt(2, MYSQL_LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = lock.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new IllegalStateException("No se obtuvo el bloqueo de migraciones en "
+                            + MYSQL_LOCK_TIMEOUT_SECONDS + " s");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) {
+        try (PreparedStatement unlock = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            unlock.setString(1, MYSQL_LOCK);
+            unlock.executeQuery().close();
+        } catch (SQLException e) {
+            logger.warn("No se pudo liberar el bloqueo de migraciones: {}", e.getMessage());
+        }
+    }
+
+    private record Migration(int version, String description, long checksum, List<String> statements) {
+    }
+}
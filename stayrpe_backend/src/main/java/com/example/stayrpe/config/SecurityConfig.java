@@ -1,6 +1,7 @@
 package com.example.stayrpe.config;
 
 import com.example.stayrpe.jwt.JwtFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.*;
@@ -11,17 +12,25 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.*;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtFilter jwtFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtFilter jwtFilter,
+                                                   ManagementPortRequestMatcher managementPort) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/login", "/publico", "/register").permitAll()  // 🔓 acceso libre
                         .requestMatchers("/admin").hasRole("ADMIN")                      // 🔐 solo admin
+                        .requestMatchers("/admin/**").hasRole("ADMIN")                   // 🔐 estadísticas y mantenimiento
+                        .requestMatchers("/actuator/health").permitAll()                 // 🔓 sondas de vida
+                        .requestMatchers(new AndRequestMatcher(managementPort,
+                                new AntPathRequestMatcher("/actuator/prometheus"))).permitAll()  // 🔓 scrape, solo red interna
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")                // 🔐 métricas
                         .requestMatchers("/exercises/**").authenticated()                // 🔐 ejercicios requieren autenticación
                         .requestMatchers("/routines/**").authenticated()                 // 🔐 rutinas requieren autenticación
                         .requestMatchers("/user/**").authenticated()                     // 🔐 perfil de usuario requiere autenticación
@@ -32,8 +41,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // 🔐 encripta contraseñas
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry); // 🔐 encripta contraseñas
     }
 
     @Bean
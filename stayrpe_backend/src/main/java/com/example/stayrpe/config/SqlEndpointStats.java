@@ -0,0 +1,72 @@
+package com.example.stayrpe.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sentencias SQL y tiempo JDBC acumulados por endpoint ("GET /routines/{id}") desde el arranque.
+ */
+@Component
+public class SqlEndpointStats {
+
+    private static final int MAX_ENDPOINTS = 500;
+
+    private final Map<String, EndpointTotals> totalsByEndpoint = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, SqlStatementCounter.Snapshot used, boolean overThreshold) {
+        EndpointTotals totals = totalsByEndpoint.get(endpoint);
+        if (totals == null) {
+            if (totalsByEndpoint.size() >= MAX_ENDPOINTS) {
+                return;
+            }
+            totals = totalsByEndpoint.computeIfAbsent(endpoint, key -> new EndpointTotals());
+        }
+        totals.requests.increment();
+        totals.statements.add(used.statements());
+        totals.jdbcNanos.add(used.jdbcNanos());
+        totals.maxStatements.accumulate(used.statements());
+        if (overThreshold) {
+            totals.overThreshold.increment();
+        }
+    }
+
+    public Map<String, EndpointTotals> getTotalsByEndpoint() {
+        return totalsByEndpoint;
+    }
+
+    public void clear() {
+        totalsByEndpoint.clear();
+    }
+
+    public static class EndpointTotals {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder jdbcNanos = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder overThreshold = new LongAdder();
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getStatements() {
+            return statements.sum();
+        }
+
+        public long getJdbcNanos() {
+            return jdbcNanos.sum();
+        }
+
+        public long getMaxStatements() {
+            return maxStatements.get();
+        }
+
+        public long getOverThreshold() {
+            return overThreshold.sum();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.stayrpe.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las sentencias SQL y el tiempo JDBC de cada petición HTTP (incluida la autenticación JWT).
+ * Lo publica en la cabecera {@code Server-Timing}, lo acumula por endpoint en {@link SqlEndpointStats}
+ * y avisa en el log cuando una petición supera los umbrales configurados (típico de un N+1).
+ * También lo exporta a Micrometer (stayrpe.http.sql.statements y stayrpe.http.sql.time, por método y patrón).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlRequestStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlRequestStatsFilter.class);
+
+    static final String START_ATTRIBUTE = SqlRequestStatsFilter.class.getName() + ".start";
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final SqlEndpointStats sqlEndpointStats;
+    private final MeterRegistry meterRegistry;
+    private final int warnStatements;
+    private final long warnJdbcMs;
+
+    public SqlRequestStatsFilter(
+            SqlEndpointStats sqlEndpointStats,
+            MeterRegistry meterRegistry,
+            @Value("${stayrpe.sql.warn-statements:30}") int warnStatements,
+            @Value("${stayrpe.sql.warn-jdbc-ms:500}") long warnJdbcMs
+    ) {
+        this.sqlEndpointStats = sqlEndpointStats;
+        this.meterRegistry = meterRegistry;
+        this.warnStatements = warnStatements;
+        this.warnJdbcMs = warnJdbcMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        SqlStatementCounter.Snapshot start = SqlStatementCounter.snapshot();
+        request.setAttribute(START_ATTRIBUTE, start);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.Snapshot used = SqlStatementCounter.snapshot().since(start);
+            String uri = uriPattern(request);
+            String endpoint = request.getMethod() + " " + uri;
+            boolean overThreshold = used.statements() > warnStatements || used.jdbcMillis() > warnJdbcMs;
+
+            sqlEndpointStats.record(endpoint, used, overThreshold);
+            recordMetrics(request.getMethod(), uri, used);
+            if (overThreshold) {
+                logger.warn("{} ejecutó {} sentencias SQL en {} ms de JDBC (umbral {} sentencias / {} ms): posible N+1",
+                        endpoint, used.statements(), Math.round(used.jdbcMillis()), warnStatements, warnJdbcMs);
+            }
+            // Las respuestas con cuerpo ya la llevan (SqlServerTimingAdvice); aquí solo las que no se han enviado
+            if (!response.isCommitted()) {
+                response.setHeader(SERVER_TIMING_HEADER, serverTiming(used));
+            }
+        }
+    }
+
+    static String serverTiming(SqlStatementCounter.Snapshot used) {
+        return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d queries\"", used.jdbcMillis(), used.statements());
+    }
+
+    private void recordMetrics(String method, String uri, SqlStatementCounter.Snapshot used) {
+        DistributionSummary.builder("stayrpe.http.sql.statements")
+                .description("Sentencias SQL por petición")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(used.statements());
+        Timer.builder("stayrpe.http.sql.time")
+                .description("Tiempo JDBC por petición")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(used.jdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // El patrón del controlador (no la URL real) para acotar el número de endpoints distintos
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMATCHED";
+    }
+}
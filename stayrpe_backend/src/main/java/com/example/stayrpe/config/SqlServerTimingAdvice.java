@@ -0,0 +1,37 @@
+package com.example.stayrpe.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Añade la cabecera {@code Server-Timing} justo antes de escribir el cuerpo de la respuesta,
+ * cuando ya se han ejecutado las consultas del controlador pero las cabeceras aún se pueden cambiar.
+ */
+@ControllerAdvice
+public class SqlServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(SqlRequestStatsFilter.START_ATTRIBUTE)
+                instanceof SqlStatementCounter.Snapshot start) {
+            SqlStatementCounter.Snapshot used = SqlStatementCounter.snapshot().since(start);
+            response.getHeaders().set(SqlRequestStatsFilter.SERVER_TIMING_HEADER, SqlRequestStatsFilter.serverTiming(used));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.stayrpe.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en cada hilo y acumula su tiempo JDBC
+ * (lo mide {@link SqlTimingListener}). Los contadores nunca se reinician: quien quiera medir
+ * un tramo toma un {@link Snapshot} al empezar y resta al terminar, así que las mediciones
+ * se pueden anidar (la de la petición HTTP y la de un test, por ejemplo).
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Totals> TOTALS = ThreadLocal.withInitial(Totals::new);
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    private static final class Totals {
+        private long statements;
+        private long jdbcNanos;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        TOTALS.get().statements++;
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    static void addJdbcTime(long nanos) {
+        TOTALS.get().jdbcNanos += nanos;
+    }
+
+    public static Snapshot snapshot() {
+        Totals totals = TOTALS.get();
+        return new Snapshot(totals.statements, totals.jdbcNanos);
+    }
+
+    /**
+     * Ejecuta la acción y devuelve cuántas sentencias lanzó y cuánto tiempo pasó en JDBC
+     */
+    public static Snapshot measure(Runnable action) {
+        Snapshot start = snapshot();
+        action.run();
+        return snapshot().since(start);
+    }
+
+    /**
+     * Ejecuta la acción y devuelve, en orden, el SQL de las sentencias que Hibernate preparó en ella
+     */
+    public static List<String> capture(Runnable action) {
+        List<String> outer = CAPTURED.get();
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } finally {
+            if (outer == null) {
+                CAPTURED.remove();
+            } else {
+                outer.addAll(captured);
+                CAPTURED.set(outer);
+            }
+        }
+        return captured;
+    }
+
+    public record Snapshot(long statements, long jdbcNanos) {
+
+        public Snapshot since(Snapshot start) {
+            return new Snapshot(statements - start.statements, jdbcNanos - start.jdbcNanos);
+        }
+
+        public double jdbcMillis() {
+            return jdbcNanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.stayrpe.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mide el tiempo de cada ejecución JDBC (sentencias y lotes) de una sesión de Hibernate
+ * y lo suma al hilo actual en {@link SqlStatementCounter}. Hibernate crea una instancia por sesión.
+ */
+public class SqlTimingListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.addJdbcTime(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.addJdbcTime(System.nanoTime() - batchStart);
+    }
+}
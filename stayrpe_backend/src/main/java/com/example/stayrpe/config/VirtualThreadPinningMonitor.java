@@ -0,0 +1,188 @@
+package com.example.stayrpe.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Con {@code spring.threads.virtual.enabled=true} (Java 21+), escucha en JFR los eventos
+ * jdk.VirtualThreadPinned: un hilo virtual que se bloquea sin poder soltar su hilo portador
+ * (típicamente dentro de un bloque synchronized). Los agrupa por el primer marco de la aplicación
+ * para el informe de /admin/threading y los publica en stayrpe.threads.pinned.
+ *
+ * <p>El código de la aplicación no bloquea dentro de synchronized; lo que aparezca aquí suele venir
+ * de una librería, y la pila completa del primer evento de cada sitio lo identifica.</p>
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.example.stayrpe.";
+    private static final int MAX_SITES = 200;
+    private static final int MAX_FRAMES = 12;
+
+    private final boolean virtualThreadsEnabled;
+    private final boolean pinningEnabled;
+    private final long thresholdMs;
+    private final Timer pinnedTimer;
+
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private volatile RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+            @Value("${stayrpe.threads.pinning.enabled:true}") boolean pinningEnabled,
+            @Value("${stayrpe.threads.pinning.threshold-ms:20}") long thresholdMs
+    ) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+        this.pinningEnabled = pinningEnabled;
+        this.thresholdMs = thresholdMs;
+        this.pinnedTimer = Timer.builder("stayrpe.threads.pinned")
+                .description("Tiempo que un hilo virtual ha bloqueado su hilo portador")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!virtualThreadsEnabled) {
+            logger.info("Peticiones servidas por el pool de hilos de Tomcat (spring.threads.virtual.enabled=false)");
+            return;
+        }
+        if (!supportsVirtualThreads()) {
+            logger.warn("spring.threads.virtual.enabled=true requiere Java 21 y la JVM es {}: "
+                    + "se siguen usando hilos de plataforma", Runtime.version().feature());
+            return;
+        }
+        if (!pinningEnabled) {
+            logger.info("Peticiones servidas por hilos virtuales (sin diagnóstico de pinning)");
+            return;
+        }
+
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        recording = stream;
+        logger.info("Peticiones servidas por hilos virtuales; registrando pinning de más de {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        RecordingStream stream = recording;
+        if (stream != null) {
+            stream.close();
+            recording = null;
+        }
+    }
+
+    void record(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinnedTimer.record(nanos, TimeUnit.NANOSECONDS);
+
+        List<String> frames = new ArrayList<>();
+        String site = null;
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                String description = frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber();
+                if (site == null && description.startsWith(APPLICATION_PACKAGE)) {
+                    site = description;
+                }
+                if (frames.size() < MAX_FRAMES) {
+                    frames.add(description);
+                }
+            }
+        }
+        if (site == null) {
+            site = frames.isEmpty() ? "desconocido" : frames.get(0);
+        }
+
+        PinnedSite pinnedSite = sites.get(site);
+        if (pinnedSite == null) {
+            if (sites.size() >= MAX_SITES) {
+                return;
+            }
+            pinnedSite = sites.computeIfAbsent(site, key -> new PinnedSite(frames));
+            logger.warn("Hilo virtual anclado a su portador {} ms en {}", nanos / 1_000_000, site);
+        }
+        pinnedSite.record(nanos);
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public Map<String, PinnedSite> getSites() {
+        return sites;
+    }
+
+    public void clear() {
+        sites.clear();
+    }
+
+    public static boolean supportsVirtualThreads() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    public static class PinnedSite {
+        private final List<String> stackTrace;
+        private final LongAdder events = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        PinnedSite(List<String> stackTrace) {
+            this.stackTrace = List.copyOf(stackTrace);
+        }
+
+        void record(long durationNanos) {
+            events.increment();
+            nanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+        }
+
+        public List<String> getStackTrace() {
+            return stackTrace;
+        }
+
+        public long getEvents() {
+            return events.sum();
+        }
+
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.stayrpe.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.Map;
+
+/**
+ * Respuesta de GET /bootstrap: cada campo lleva el mismo cuerpo que su endpoint individual.
+ * Una parte que falla queda a null y su error aparece en {@code errors} con el nombre del campo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BootstrapResponse {
+    private Object profile;
+    private Object activeMacrocycle;
+    private Object summary;
+    private Object routines;
+    private Object checkDay;
+    private Map<String, Object> errors;
+}
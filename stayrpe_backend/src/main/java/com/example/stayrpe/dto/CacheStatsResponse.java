@@ -0,0 +1,49 @@
+package com.example.stayrpe.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private long secondLevelHits;
+    private long secondLevelMisses;
+    private long secondLevelPuts;
+    private double secondLevelHitRatio;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private double queryCacheHitRatio;
+    private List<RegionStats> regions;
+    private List<ApplicationCacheStats> applicationCaches;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegionStats {
+        private String region;
+        private long hits;
+        private long misses;
+        private long puts;
+        private double hitRatio;
+        private long entriesInMemory;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ApplicationCacheStats {
+        private String name;
+        private long hits;
+        private long misses;
+        private double hitRatio;
+        private long evictions;
+        private long size;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.stayrpe.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Respuesta de GET /sync/changes: las entidades creadas o modificadas desde el token anterior
+ * (planas, con los ids de sus padres) y los borrados. syncToken se envía en la siguiente petición;
+ * con fullSync = true el cliente debe sustituir su copia local en lugar de fusionarla.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedResponse {
+
+    private String syncToken;
+    private boolean fullSync;
+    private List<RoutineChange> routines;
+    private List<RoutineExerciseChange> routineExercises;
+    private List<ExerciseSetChange> exerciseSets;
+    private List<MacrocycleChange> macrocycles;
+    private List<DayPlanChange> dayPlans;
+    private List<DayCustomizationChange> dayCustomizations;
+    private List<ScopedCustomizationChange> scopedCustomizations;
+    private List<WorkoutHistoryResponse> workoutSessions;
+    private List<Deletion> deleted;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoutineChange {
+
+        private Long id;
+        private String name;
+        private String description;
+        private LocalDateTime updatedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoutineExerciseChange {
+
+        private Long id;
+        private Long routineId;
+        private Long exerciseId;
+        private String exerciseName;
+        private String exerciseMuscle;
+        private Integer order;
+        private Integer numberOfSets;
+        private Integer restBetweenSets;
+        private String notes;
+        private LocalDateTime updatedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExerciseSetChange {
+
+        private Long id;
+        private Long routineExerciseId;
+        private Integer setNumber;
+        private Integer targetRepsMin;
+        private Integer targetRepsMax;
+        private Double targetWeight;
+        private Integer rir;
+        private Integer rpe;
+        private String notes;
+        private LocalDateTime updatedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MacrocycleChange {
+
+        private Long id;
+        private String name;
+        private String description;
+        private LocalDate startDate;
+        private Integer microcycleDurationDays;
+        private Integer totalMicrocycles;
+        private boolean archived;
+        private boolean currentlyActive;
+        private LocalDateTime updatedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayPlanChange {
+
+        private Long id;
+        private Long macrocycleId;
+        private Integer dayNumber;
+        private Long routineId;
+        private String routineName;
+        private Boolean restDay;
+        private LocalDateTime updatedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayCustomizationChange {
+
+        private Long id;
+        private Long macrocycleId;
+        private Integer absoluteDay;
+        private Long routineExerciseId;
+        private Long exerciseSetId;
+        private Integer customRepsMin;
+        private Integer customRepsMax;
+        private Double customWeight;
+        private Integer customRir;
+        private Integer customRpe;
+        private String customNotes;
+        private LocalDateTime updatedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScopedCustomizationChange {
+
+        private Long id;
+        private Long macrocycleId;
+        private String scope;
+        // Solo en las de ámbito MICROCYCLE
+        private Integer microcycleNumber;
+        private Long routineExerciseId;
+        private Long exerciseSetId;
+        private Integer customRepsMin;
+        private Integer customRepsMax;
+        private Double customWeight;
+        private Integer customRir;
+        private Integer customRpe;
+        private String customNotes;
+        private LocalDateTime updatedAt;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Deletion {
+
+        private String type;
+        private Long id;
+        private LocalDateTime deletedAt;
+    }
+}
@@ -11,6 +11,7 @@ import lombok.AllArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class CreateExerciseSetDTO {
+    private Long id; // opcional: id del ExerciseSet existente al editar
     private Integer setNumber;
     private Integer targetRepsMin;
     private Integer targetRepsMax;
@@ -12,6 +12,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class CreateRoutineExerciseDTO {
+    private Long id; // opcional: id del RoutineExercise existente al editar
     private Long exerciseId;
     private Integer order;
     private Integer numberOfSets;
@@ -1,5 +1,6 @@
 package com.example.stayrpe.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter("fieldSelection")
 public class DayCustomizationResponse {
 
     private Integer absoluteDay;
@@ -26,6 +28,7 @@ public class DayCustomizationResponse {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonFilter("fieldSelection")
     public static class ExerciseCustomization {
 
         private Long routineExerciseId;
@@ -45,6 +48,7 @@ public class DayCustomizationResponse {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonFilter("fieldSelection")
     public static class SetInfo {
 
         private Long setId;
@@ -61,6 +65,7 @@ public class DayCustomizationResponse {
         private Integer customRir;
         private Integer customRpe;
         private String customNotes;
+        private String customizationScope;
         private boolean isCustomized;
         private Integer effectiveRepsMin;
         private Integer effectiveRepsMax;
@@ -0,0 +1,26 @@
+package com.example.stayrpe.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExerciseFacetsResponse {
+    private int totalExercises;
+    private List<FacetCount> muscles;
+    private List<FacetCount> muscleGroups;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+        private String value;
+        private int count;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.stayrpe.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.AllArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter("fieldSelection")
 public class ExerciseSetResponse {
     private Long id;
     private Integer setNumber;
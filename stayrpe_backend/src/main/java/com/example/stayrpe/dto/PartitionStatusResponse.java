@@ -0,0 +1,47 @@
+package com.example.stayrpe.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionStatusResponse {
+    private String table;
+    private boolean partitioned;
+    private List<PartitionInfo> partitions;
+    private List<PruningCheck> pruning;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PartitionInfo {
+        private String name;
+        // null en la primera partición (sin límite inferior) y en p_future (sin límite superior)
+        private LocalDate from;
+        private LocalDate to;
+        // Estimación de information_schema, no un COUNT exacto
+        private long approximateRows;
+        private long bytes;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PruningCheck {
+        private String query;
+        private String sql;
+        private List<String> partitionsScanned;
+        private List<String> partitionsExpected;
+        private int totalPartitions;
+        private boolean pruned;
+    }
+}
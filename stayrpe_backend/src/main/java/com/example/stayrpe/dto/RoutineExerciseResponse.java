@@ -1,5 +1,6 @@
 package com.example.stayrpe.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter("fieldSelection")
 public class RoutineExerciseResponse {
     private Long id;
     private Long exerciseId;
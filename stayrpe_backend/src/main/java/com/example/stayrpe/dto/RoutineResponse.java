@@ -1,5 +1,6 @@
 package com.example.stayrpe.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter("fieldSelection")
 public class RoutineResponse {
     private Long id;
     private String name;
@@ -0,0 +1,39 @@
+package com.example.stayrpe.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Petición de customización a nivel de macrociclo o de microciclo.
+ * Reutiliza el formato por serie de {@link DayCustomizationRequest}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScopedCustomizationRequest {
+
+    private List<DayCustomizationRequest.SetCustomization> setCustomizations;
+
+    public boolean isValid() {
+        if (setCustomizations == null || setCustomizations.isEmpty()) {
+            return true;
+        }
+
+        for (DayCustomizationRequest.SetCustomization customization : setCustomizations) {
+            if (customization.getExerciseSetId() == null || !customization.isValid()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public int getCustomizationCount() {
+        return setCustomizations != null ? setCustomizations.size() : 0;
+    }
+}
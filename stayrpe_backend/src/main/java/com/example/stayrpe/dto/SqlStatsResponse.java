@@ -0,0 +1,31 @@
+package com.example.stayrpe.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatsResponse {
+    private int warnStatements;
+    private long warnJdbcMs;
+    private List<EndpointStats> endpoints;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EndpointStats {
+        private String endpoint;
+        private long requests;
+        private double avgStatements;
+        private long maxStatements;
+        private double avgJdbcMs;
+        private double totalJdbcMs;
+        private long overThreshold;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.stayrpe.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadingStatsResponse {
+    private int javaVersion;
+    private boolean virtualThreadsEnabled;
+    private boolean servingOnVirtualThreads;
+    private boolean pinningRecording;
+    private long pinningThresholdMs;
+    private List<PinnedSite> pinnedSites;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PinnedSite {
+        private String site;
+        private long events;
+        private double totalMs;
+        private double maxMs;
+        private List<String> stackTrace;
+    }
+}
@@ -3,6 +3,9 @@ package com.example.stayrpe.jwt;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +23,12 @@ public class JwtUtil {
 
     private final Algorithm algorithm = Algorithm.HMAC256(secret);
 
+    private final MeterRegistry meterRegistry;
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     public String generateToken(String username) {
         return JWT.create()
                 .withSubject(username)
@@ -30,7 +39,7 @@ public class JwtUtil {
 
     public String extractUsername(String token) {
         try {
-            return JWT.require(algorithm).build().verify(token).getSubject();
+            return verify(token).getSubject();
         } catch (TokenExpiredException e) {
             logger.warn("Token expirado: {}", e.getMessage());
             throw e;
@@ -42,7 +51,7 @@ public class JwtUtil {
 
     public boolean isTokenValid(String token) {
         try {
-            JWT.require(algorithm).build().verify(token);
+            verify(token);
             return true;
         } catch (TokenExpiredException e) {
             logger.warn("Token expirado en validación: {}", e.getMessage());
@@ -52,4 +61,22 @@ public class JwtUtil {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifica la firma y la caducidad, midiendo el tiempo en stayrpe.jwt.verification por resultado
+     */
+    private DecodedJWT verify(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            DecodedJWT decoded = JWT.require(algorithm).build().verify(token);
+            outcome = "valid";
+            return decoded;
+        } catch (TokenExpiredException e) {
+            outcome = "expired";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("stayrpe.jwt.verification", "outcome", outcome));
+        }
+    }
+}
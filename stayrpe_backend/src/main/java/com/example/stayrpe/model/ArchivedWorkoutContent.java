@@ -0,0 +1,105 @@
+package com.example.stayrpe.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contenido de un {@link WorkoutSessionArchive}: los ejercicios y series de la sesión tal como
+ * estaban en workout_session_exercises y workout_session_sets (objetivos en línea incluidos).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedWorkoutContent {
+
+    @Builder.Default
+    private List<ArchivedExercise> exercises = new ArrayList<>();
+
+    /**
+     * Entidades no persistidas equivalentes a las filas archivadas, para reutilizar la conversión a respuesta
+     */
+    public List<WorkoutSessionExercise> toSessionExercises() {
+        List<WorkoutSessionExercise> result = new ArrayList<>(exercises.size());
+        for (ArchivedExercise archived : exercises) {
+            WorkoutSessionExercise exercise = WorkoutSessionExercise.builder()
+                    .exerciseName(archived.getExerciseName())
+                    .exerciseMuscle(archived.getExerciseMuscle())
+                    .exerciseOrder(archived.getExerciseOrder())
+                    .plannedSets(archived.getPlannedSets())
+                    .completedSets(archived.getCompletedSets())
+                    .restBetweenSets(archived.getRestBetweenSets())
+                    .notes(archived.getNotes())
+                    .wasAddedDuringWorkout(archived.getWasAddedDuringWorkout())
+                    .totalVolume(archived.getTotalVolume())
+                    .build();
+            for (ArchivedSet set : archived.getSets()) {
+                exercise.getSets().add(WorkoutSessionSet.builder()
+                        .workoutSessionExercise(exercise)
+                        .setNumber(set.getSetNumber())
+                        .targetRepsMin(set.getTargetRepsMin())
+                        .targetRepsMax(set.getTargetRepsMax())
+                        .targetWeight(set.getTargetWeight())
+                        .targetRir(set.getTargetRir())
+                        .targetRpe(set.getTargetRpe())
+                        .targetNotes(set.getTargetNotes())
+                        .actualReps(set.getActualReps())
+                        .actualWeight(set.getActualWeight())
+                        .actualRir(set.getActualRir())
+                        .actualRpe(set.getActualRpe())
+                        .actualNotes(set.getActualNotes())
+                        .completed(set.getCompleted())
+                        .wasAddedDuringWorkout(set.getWasAddedDuringWorkout())
+                        .build());
+            }
+            result.add(exercise);
+        }
+        return result;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ArchivedExercise {
+        private Long exerciseId;
+        private String exerciseName;
+        private String exerciseMuscle;
+        private Integer exerciseOrder;
+        private Integer plannedSets;
+        private Integer completedSets;
+        private Integer restBetweenSets;
+        private String notes;
+        private Boolean wasAddedDuringWorkout;
+        private Double totalVolume;
+
+        @Builder.Default
+        private List<ArchivedSet> sets = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ArchivedSet {
+        private Integer setNumber;
+        private Integer targetRepsMin;
+        private Integer targetRepsMax;
+        private Double targetWeight;
+        private Integer targetRir;
+        private Integer targetRpe;
+        private String targetNotes;
+        private Integer actualReps;
+        private Double actualWeight;
+        private Integer actualRir;
+        private Integer actualRpe;
+        private String actualNotes;
+        private Boolean completed;
+        private Boolean wasAddedDuringWorkout;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.stayrpe.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Última versión aplicada de un catálogo incluido en la aplicación (p. ej. los ejercicios predefinidos).
+ * Si el checksum del recurso coincide con el guardado, el arranque no necesita comparar fila a fila.
+ */
+@Entity
+@Table(name = "catalog_seed_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogSeedState {
+
+    @Id
+    @Column(name = "catalog", length = 50)
+    private String catalog;
+
+    @Column(name = "version", nullable = false, length = 50)
+    private String version;
+
+    /**
+     * SHA-256 del recurso tal y como se aplicó
+     */
+    @Column(name = "checksum", nullable = false, length = 64)
+    private String checksum;
+
+    @Column(name = "entry_count", nullable = false)
+    private Integer entryCount;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
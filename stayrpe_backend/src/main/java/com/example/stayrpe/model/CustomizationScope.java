@@ -0,0 +1,12 @@
+package com.example.stayrpe.model;
+
+/**
+ * Ámbito de una customización de macrociclo.
+ * El orden de resolución al renderizar un día es DAY > MICROCYCLE > MACROCYCLE:
+ * el ámbito más específico que define un campo es el que gana.
+ */
+public enum CustomizationScope {
+    MACROCYCLE,
+    MICROCYCLE,
+    DAY
+}
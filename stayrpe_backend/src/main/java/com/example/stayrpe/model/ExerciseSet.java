@@ -5,8 +5,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "exercise_set")
 @Table(name = "exercise_sets")
 @Data
 @NoArgsConstructor
@@ -54,4 +59,14 @@ public class ExerciseSet {
 
     @Column(name = "completed")
     private Boolean completed = false;
-}
\ No newline at end of file
+
+    // Para el change feed de /sync/changes
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
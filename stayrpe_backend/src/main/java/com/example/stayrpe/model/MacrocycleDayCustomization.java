@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class MacrocycleDayCustomization {
+public class MacrocycleDayCustomization implements SetCustomizationValues {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -70,15 +70,6 @@ public class MacrocycleDayCustomization {
         updatedAt = LocalDateTime.now();
     }
 
-    public boolean hasAnyCustomization() {
-        return customRepsMin != null ||
-                customRepsMax != null ||
-                customWeight != null ||
-                customRir != null ||
-                customRpe != null ||
-                (customNotes != null && !customNotes.trim().isEmpty());
-    }
-
     public Integer getEffectiveRepsMin() {
         return customRepsMin != null ? customRepsMin : exerciseSet.getTargetRepsMin();
     }
@@ -5,8 +5,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "macrocycle_day_plan")
 @Table(name = "macrocycle_day_plans")
 @Data
 @NoArgsConstructor
@@ -31,4 +36,14 @@ public class MacrocycleDayPlan {
 
     @Column(name = "is_rest_day")
     private Boolean isRestDay = false;
-}
\ No newline at end of file
+
+    // Para el change feed de /sync/changes
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
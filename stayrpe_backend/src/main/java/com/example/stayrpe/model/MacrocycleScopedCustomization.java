@@ -0,0 +1,95 @@
+package com.example.stayrpe.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Customización de una serie aplicada a todo el macrociclo o a un microciclo completo.
+ * Evita duplicar una fila por cada día absoluto cuando una progresión se repite
+ * semana a semana. Las customizaciones por día siguen en {@link MacrocycleDayCustomization}.
+ *
+ * microcycle_number forma parte de la clave única, así que no puede ser NULL (en MySQL dos NULL
+ * nunca chocan): las de ámbito MACROCYCLE usan {@link #WHOLE_MACROCYCLE}.
+ */
+@Entity
+@Table(name = "macrocycle_scoped_customizations",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_scoped_customization",
+                columnNames = {"macrocycle_id", "scope", "microcycle_number", "exercise_set_id"}),
+        indexes = @Index(
+                name = "idx_scoped_customization_lookup",
+                columnList = "macrocycle_id, scope, microcycle_number"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MacrocycleScopedCustomization implements SetCustomizationValues {
+
+    public static final int WHOLE_MACROCYCLE = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "macrocycle_id", nullable = false)
+    private Macrocycle macrocycle;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 16)
+    private CustomizationScope scope;
+
+    /**
+     * Número de microciclo (1..totalMicrocycles), o {@link #WHOLE_MACROCYCLE} cuando el ámbito es MACROCYCLE
+     */
+    @Column(name = "microcycle_number", nullable = false)
+    private Integer microcycleNumber;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "routine_exercise_id", nullable = false)
+    private RoutineExercise routineExercise;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exercise_set_id", nullable = false)
+    private ExerciseSet exerciseSet;
+
+    @Column(name = "custom_reps_min")
+    private Integer customRepsMin;
+
+    @Column(name = "custom_reps_max")
+    private Integer customRepsMax;
+
+    @Column(name = "custom_weight")
+    private Double customWeight;
+
+    @Column(name = "custom_rir")
+    private Integer customRir;
+
+    @Column(name = "custom_rpe")
+    private Integer customRpe;
+
+    @Column(name = "custom_notes", columnDefinition = "TEXT")
+    private String customNotes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.stayrpe.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento del outbox transaccional: se inserta en la misma transacción que el cambio que lo origina
+ * y lo procesa después OutboxDispatcher, fuera de la petición.
+ */
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_status_next", columnList = "status, next_attempt_at")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    public static final String WORKOUT_COMPLETED = "WorkoutCompleted";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 60)
+    private String eventType;
+
+    // Id de la entidad del evento (la sesión en WorkoutCompleted)
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private OutboxEventStatus status = OutboxEventStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
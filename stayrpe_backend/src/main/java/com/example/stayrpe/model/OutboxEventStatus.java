@@ -0,0 +1,11 @@
+package com.example.stayrpe.model;
+
+/**
+ * Estados de un evento del outbox. Mientras un worker lo procesa sigue PENDING con
+ * next_attempt_at en el futuro (la concesión), de modo que si el proceso cae vuelve a estar pendiente.
+ */
+public enum OutboxEventStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,38 @@
+package com.example.stayrpe.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Constancia de que un handler ya procesó un evento del outbox. Se guarda en la misma transacción
+ * que el trabajo del handler; la restricción única impide aplicarlo dos veces en un reintento.
+ */
+@Entity
+@Table(
+        name = "outbox_handler_receipts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbox_receipt_event_handler", columnNames = {"event_id", "handler"})
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxHandlerReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "handler", nullable = false, length = 60)
+    private String handler;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
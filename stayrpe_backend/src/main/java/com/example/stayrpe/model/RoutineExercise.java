@@ -5,10 +5,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "routine_exercise")
 @Table(name = "routine_exercises")
 @Data
 @NoArgsConstructor
@@ -41,5 +45,16 @@ public class RoutineExercise {
     private String notes;
 
     @OneToMany(mappedBy = "routineExercise", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "routine_exercise_sets")
     private List<ExerciseSet> sets;
-}
\ No newline at end of file
+
+    // Para el change feed de /sync/changes
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.stayrpe.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contenido de una {@link RoutineVersion}: la plantilla (ejercicios y objetivos de cada serie)
+ * con la que se hizo una sesión. No incluye lo añadido durante el entrenamiento.
+ * Los ejercicios se identifican por exerciseOrder y las series por setNumber.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoutineSnapshot {
+
+    private String routineName;
+    private String routineDescription;
+
+    @Builder.Default
+    private List<ExerciseSnapshot> exercises = new ArrayList<>();
+
+    @JsonIgnore
+    public ExerciseSnapshot findExercise(Integer exerciseOrder) {
+        if (exerciseOrder == null) return null;
+        for (ExerciseSnapshot exercise : exercises) {
+            if (exerciseOrder.equals(exercise.getExerciseOrder())) {
+                return exercise;
+            }
+        }
+        return null;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ExerciseSnapshot {
+        private Long exerciseId;
+        private String exerciseName;
+        private String exerciseMuscle;
+        private Integer exerciseOrder;
+        private Integer restBetweenSets;
+        private String notes;
+
+        @Builder.Default
+        private List<SetSnapshot> sets = new ArrayList<>();
+
+        @JsonIgnore
+        public SetSnapshot findSet(Integer setNumber) {
+            if (setNumber == null) return null;
+            for (SetSnapshot set : sets) {
+                if (setNumber.equals(set.getSetNumber())) {
+                    return set;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SetSnapshot {
+        private Integer setNumber;
+        private Integer targetRepsMin;
+        private Integer targetRepsMax;
+        private Double targetWeight;
+        private Integer targetRir;
+        private Integer targetRpe;
+        private String targetNotes;
+    }
+}
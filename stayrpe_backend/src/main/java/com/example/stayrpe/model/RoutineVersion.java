@@ -0,0 +1,45 @@
+package com.example.stayrpe.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión inmutable de una rutina tal y como se entrenó.
+ * Se identifica por el hash SHA-256 de su contenido, así que cada estado distinto
+ * de la plantilla se guarda una sola vez y las sesiones lo referencian por id.
+ */
+@Entity
+@Immutable
+@Table(name = "routine_versions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_routine_version_hash", columnNames = "content_hash"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoutineVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "routine_name", nullable = false)
+    private String routineName;
+
+    /**
+     * {@link RoutineSnapshot} serializado en JSON canónico
+     */
+    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,42 @@
+package com.example.stayrpe.model;
+
+/**
+ * Valores personalizados de una serie, comunes a las customizaciones por día
+ * ({@link MacrocycleDayCustomization}) y por ámbito ({@link MacrocycleScopedCustomization}).
+ * Los getters y setters los genera Lombok en cada entidad.
+ */
+public interface SetCustomizationValues {
+
+    Integer getCustomRepsMin();
+
+    void setCustomRepsMin(Integer customRepsMin);
+
+    Integer getCustomRepsMax();
+
+    void setCustomRepsMax(Integer customRepsMax);
+
+    Double getCustomWeight();
+
+    void setCustomWeight(Double customWeight);
+
+    Integer getCustomRir();
+
+    void setCustomRir(Integer customRir);
+
+    Integer getCustomRpe();
+
+    void setCustomRpe(Integer customRpe);
+
+    String getCustomNotes();
+
+    void setCustomNotes(String customNotes);
+
+    default boolean hasAnyCustomization() {
+        return getCustomRepsMin() != null ||
+                getCustomRepsMax() != null ||
+                getCustomWeight() != null ||
+                getCustomRir() != null ||
+                getCustomRpe() != null ||
+                (getCustomNotes() != null && !getCustomNotes().trim().isEmpty());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.stayrpe.model;
+
+/**
+ * Tipos de entidad del change feed de /sync/changes. Los planes de día no tienen tipo propio
+ * porque solo se borran junto con su macrociclo, cuya lápida ya los cubre.
+ */
+public enum SyncEntityType {
+    ROUTINE,
+    ROUTINE_EXERCISE,
+    EXERCISE_SET,
+    MACROCYCLE,
+    MACROCYCLE_DAY_CUSTOMIZATION,
+    MACROCYCLE_SCOPED_CUSTOMIZATION,
+    WORKOUT_SESSION
+}
@@ -0,0 +1,44 @@
+package com.example.stayrpe.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de una entidad borrada, para que /sync/changes pueda comunicar el borrado a los clientes
+ * que sincronizaron antes. Solo se registra la entidad borrada explícitamente: al borrar un padre
+ * (macrociclo, ejercicio de rutina, serie) el cliente elimina también sus hijos.
+ * Se conservan stayrpe.sync.tombstone-retention-days; un token más antiguo obliga a sincronizar todo.
+ */
+@Entity
+@Table(
+        name = "sync_tombstones",
+        indexes = @Index(name = "idx_sync_tombstones_user_deleted", columnList = "user_id, deleted_at")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 40)
+    private SyncEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
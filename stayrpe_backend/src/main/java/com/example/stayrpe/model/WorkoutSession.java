@@ -13,9 +13,19 @@ import java.util.ArrayList;
 /**
  * Entidad para almacenar sesiones de entrenamiento completadas.
  * Cada vez que un usuario completa un workout, se crea un registro aquí.
+ *
+ * En MySQL la tabla está particionada por trimestre de completed_at (db/migration/mysql). Una tabla
+ * particionada no admite claves foráneas, por eso las relaciones se declaran sin constraint.
  */
 @Entity
-@Table(name = "workout_sessions")
+@Table(
+        name = "workout_sessions",
+        indexes = {
+                @Index(name = "idx_workout_sessions_user_completed", columnList = "user_id, completed_at"),
+                @Index(name = "idx_workout_sessions_user_updated", columnList = "user_id, updated_at"),
+                @Index(name = "idx_workout_sessions_user_macrocycle_day", columnList = "user_id, macrocycle_id, absolute_day")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,14 +40,14 @@ public class WorkoutSession {
      * Usuario que realizó el entrenamiento
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Usuario user;
 
     /**
      * Rutina base que se utilizó (puede ser null si la rutina se eliminó después)
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "routine_id")
+    @JoinColumn(name = "routine_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Routine routine;
 
     /**
@@ -48,7 +58,16 @@ public class WorkoutSession {
     private String routineName;
 
     /**
-     * Descripción de la rutina en el momento del entrenamiento
+     * Versión inmutable de la rutina con la que se entrenó. Las sesiones que la tienen
+     * resuelven descripción y objetivos desde ella; null en sesiones antiguas.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "routine_version_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private RoutineVersion routineVersion;
+
+    /**
+     * Descripción de la rutina en el momento del entrenamiento.
+     * Solo se rellena en sesiones sin {@link #routineVersion}.
      */
     @Column(name = "routine_description", columnDefinition = "TEXT")
     private String routineDescription;
@@ -111,7 +130,7 @@ public class WorkoutSession {
      * 🔥 NUEVO: Macrociclo al que pertenece este entrenamiento (puede ser null)
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "macrocycle_id")
+    @JoinColumn(name = "macrocycle_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Macrocycle macrocycle;
 
     /**
@@ -128,6 +147,12 @@ public class WorkoutSession {
     @Column(name = "absolute_day")
     private Integer absoluteDay;
 
+    /**
+     * Momento en que sus ejercicios y series pasaron a workout_session_archives (null si siguen en las tablas)
+     */
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
     /**
      * Campos de auditoría
      */
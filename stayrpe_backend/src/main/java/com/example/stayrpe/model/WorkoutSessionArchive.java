@@ -0,0 +1,50 @@
+package com.example.stayrpe.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ejercicios y series de una sesión antigua empaquetados en un único blob comprimido
+ * ({@link ArchivedWorkoutContent} en Smile + deflate). La cabecera de la sesión sigue en workout_sessions.
+ */
+@Entity
+@Table(name = "workout_session_archives")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkoutSessionArchive {
+
+    public static final String FORMAT_SMILE_DEFLATE = "smile+deflate";
+
+    @Id
+    @Column(name = "workout_session_id")
+    private Long sessionId;
+
+    @Column(name = "format", nullable = false, length = 20)
+    private String format;
+
+    @Lob
+    @Column(name = "payload", nullable = false, length = 16777215)
+    private byte[] payload;
+
+    @Column(name = "exercise_count", nullable = false)
+    private Integer exerciseCount;
+
+    @Column(name = "set_count", nullable = false)
+    private Integer setCount;
+
+    @Column(name = "uncompressed_bytes", nullable = false)
+    private Integer uncompressedBytes;
+
+    @Column(name = "compressed_bytes", nullable = false)
+    private Integer compressedBytes;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -22,7 +22,8 @@ public class WorkoutSessionExercise {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "workout_session_id", nullable = false)
+    // workout_sessions está particionada en MySQL y no puede ser destino de una clave foránea
+    @JoinColumn(name = "workout_session_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private WorkoutSession workoutSession;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -64,6 +64,30 @@ public class WorkoutSessionSet {
     @Column(name = "was_added_during_workout")
     private Boolean wasAddedDuringWorkout = false;
 
+    /**
+     * Copia no persistida de esta serie con los objetivos tomados de la versión de rutina
+     */
+    public WorkoutSessionSet withTargetsFrom(RoutineSnapshot.SetSnapshot target) {
+        return WorkoutSessionSet.builder()
+                .id(id)
+                .workoutSessionExercise(workoutSessionExercise)
+                .setNumber(setNumber)
+                .targetRepsMin(target.getTargetRepsMin())
+                .targetRepsMax(target.getTargetRepsMax())
+                .targetWeight(target.getTargetWeight())
+                .targetRir(target.getTargetRir())
+                .targetRpe(target.getTargetRpe())
+                .targetNotes(target.getTargetNotes())
+                .actualReps(actualReps)
+                .actualWeight(actualWeight)
+                .actualRir(actualRir)
+                .actualRpe(actualRpe)
+                .actualNotes(actualNotes)
+                .completed(completed)
+                .wasAddedDuringWorkout(wasAddedDuringWorkout)
+                .build();
+    }
+
     public Double getVolume() {
         if (actualReps != null && actualWeight != null && completed) {
             return actualReps * actualWeight;
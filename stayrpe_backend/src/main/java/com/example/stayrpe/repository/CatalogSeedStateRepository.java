@@ -0,0 +1,7 @@
+package com.example.stayrpe.repository;
+
+import com.example.stayrpe.model.CatalogSeedState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CatalogSeedStateRepository extends JpaRepository<CatalogSeedState, String> {
+}
@@ -16,6 +16,8 @@ public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
 
     List<Exercise> findByIsCustomFalse();
 
+    long countByIsCustomFalse();
+
     List<Exercise> findByIsCustomTrueAndCreatedBy(Usuario usuario);
 
     @Query("SELECT e FROM Exercise e WHERE e.isCustom = false OR (e.isCustom = true AND e.createdBy = :usuario)")
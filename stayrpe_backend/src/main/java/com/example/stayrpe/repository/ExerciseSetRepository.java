@@ -1,10 +1,17 @@
 package com.example.stayrpe.repository;
 
 import com.example.stayrpe.model.ExerciseSet;
+import com.example.stayrpe.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ExerciseSetRepository extends JpaRepository<ExerciseSet, Long> {
@@ -12,5 +19,38 @@ public interface ExerciseSetRepository extends JpaRepository<ExerciseSet, Long>
     @Query("SELECT es FROM ExerciseSet es WHERE es.routineExercise.id = :routineExerciseId ORDER BY es.setNumber ASC")
     List<ExerciseSet> findByRoutineExerciseIdOrderBySetNumber(@Param("routineExerciseId") Long routineExerciseId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT es FROM ExerciseSet es JOIN FETCH es.routineExercise re LEFT JOIN FETCH re.exercise " +
+            "WHERE re.routine.id = :routineId ORDER BY re.id, es.setNumber ASC")
+    List<ExerciseSet> findByRoutineIdOrderBySetNumber(@Param("routineId") Long routineId);
+
     void deleteByRoutineExerciseId(Long routineExerciseId);
-}
\ No newline at end of file
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ExerciseSet es WHERE es.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Copia en una sola sentencia todas las series de una rutina a otra cuyos ejercicios
+     * se acaban de copiar con {@link RoutineExerciseRepository#copyExercisesToRoutine}.
+     * Los ejercicios de origen y destino se emparejan por su posición en orden de id.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "exercise_sets"))
+    @Query(value = "INSERT INTO exercise_sets (routine_exercise_id, set_number, target_reps_min, target_reps_max, target_weight, rir, rpe, notes, updated_at) " +
+            "SELECT target.id, es.set_number, es.target_reps_min, es.target_reps_max, es.target_weight, es.rir, es.rpe, es.notes, :updatedAt " +
+            "FROM exercise_sets es " +
+            "JOIN (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn FROM routine_exercises WHERE routine_id = :sourceRoutineId) source " +
+            "ON es.routine_exercise_id = source.id " +
+            "JOIN (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn FROM routine_exercises WHERE routine_id = :targetRoutineId) target " +
+            "ON target.rn = source.rn " +
+            "ORDER BY es.id",
+            nativeQuery = true)
+    int copySetsToRoutine(@Param("sourceRoutineId") Long sourceRoutineId,
+                          @Param("targetRoutineId") Long targetRoutineId,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT es FROM ExerciseSet es JOIN FETCH es.routineExercise re JOIN re.routine r " +
+            "WHERE r.createdBy = :usuario AND r.isActive = true AND (:since IS NULL OR es.updatedAt > :since)")
+    List<ExerciseSet> findChangedByUser(@Param("usuario") Usuario usuario, @Param("since") LocalDateTime since);
+}
@@ -4,12 +4,15 @@ import com.example.stayrpe.model.MacrocycleDayCustomization;
 import com.example.stayrpe.model.Macrocycle;
 import com.example.stayrpe.model.ExerciseSet;
 import com.example.stayrpe.model.RoutineExercise;
+import com.example.stayrpe.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,28 +60,42 @@ public interface MacrocycleDayCustomizationRepository extends JpaRepository<Macr
             RoutineExercise routineExercise
     );
 
-    @Modifying
+    // Borrados masivos: una sola sentencia DELETE en lugar de cargar y borrar cada entidad
+
+    @Modifying(flushAutomatically = true)
     @Transactional
-    void deleteByMacrocycle(Macrocycle macrocycle);
+    @Query("DELETE FROM MacrocycleDayCustomization mdc WHERE mdc.exerciseSet.id IN :exerciseSetIds")
+    int deleteByExerciseSetIdIn(@Param("exerciseSetIds") Collection<Long> exerciseSetIds);
 
-    @Modifying
+    @Modifying(flushAutomatically = true)
     @Transactional
-    void deleteByMacrocycleAndAbsoluteDay(Macrocycle macrocycle, Integer absoluteDay);
+    @Query("DELETE FROM MacrocycleDayCustomization mdc WHERE mdc.macrocycle = :macrocycle")
+    int deleteByMacrocycle(@Param("macrocycle") Macrocycle macrocycle);
 
-    @Modifying
+    @Modifying(flushAutomatically = true)
     @Transactional
-    void deleteByMacrocycleAndAbsoluteDayAndExerciseSet(
-            Macrocycle macrocycle,
-            Integer absoluteDay,
-            ExerciseSet exerciseSet
+    @Query("DELETE FROM MacrocycleDayCustomization mdc WHERE mdc.macrocycle = :macrocycle AND mdc.absoluteDay = :absoluteDay")
+    int deleteByMacrocycleAndAbsoluteDay(@Param("macrocycle") Macrocycle macrocycle,
+                                         @Param("absoluteDay") Integer absoluteDay);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM MacrocycleDayCustomization mdc " +
+            "WHERE mdc.macrocycle = :macrocycle AND mdc.absoluteDay = :absoluteDay AND mdc.exerciseSet = :exerciseSet")
+    int deleteByMacrocycleAndAbsoluteDayAndExerciseSet(
+            @Param("macrocycle") Macrocycle macrocycle,
+            @Param("absoluteDay") Integer absoluteDay,
+            @Param("exerciseSet") ExerciseSet exerciseSet
     );
 
-    @Modifying
+    @Modifying(flushAutomatically = true)
     @Transactional
-    void deleteByMacrocycleAndAbsoluteDayAndRoutineExercise(
-            Macrocycle macrocycle,
-            Integer absoluteDay,
-            RoutineExercise routineExercise
+    @Query("DELETE FROM MacrocycleDayCustomization mdc " +
+            "WHERE mdc.macrocycle = :macrocycle AND mdc.absoluteDay = :absoluteDay AND mdc.routineExercise = :routineExercise")
+    int deleteByMacrocycleAndAbsoluteDayAndRoutineExercise(
+            @Param("macrocycle") Macrocycle macrocycle,
+            @Param("absoluteDay") Integer absoluteDay,
+            @Param("routineExercise") RoutineExercise routineExercise
     );
 
     @Query("SELECT mdc FROM MacrocycleDayCustomization mdc " +
@@ -97,4 +114,8 @@ public interface MacrocycleDayCustomizationRepository extends JpaRepository<Macr
             "GROUP BY mdc.absoluteDay " +
             "ORDER BY mdc.absoluteDay")
     List<Object[]> findDayCustomizationCounts(@Param("macrocycle") Macrocycle macrocycle);
-}
\ No newline at end of file
+
+    @Query("SELECT mdc FROM MacrocycleDayCustomization mdc JOIN mdc.macrocycle m " +
+            "WHERE m.createdBy = :usuario AND (:since IS NULL OR mdc.updatedAt > :since)")
+    List<MacrocycleDayCustomization> findChangedByUser(@Param("usuario") Usuario usuario, @Param("since") LocalDateTime since);
+}
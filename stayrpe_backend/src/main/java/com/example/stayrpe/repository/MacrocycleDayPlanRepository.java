@@ -3,17 +3,26 @@ package com.example.stayrpe.repository;
 import com.example.stayrpe.model.MacrocycleDayPlan;
 import com.example.stayrpe.model.Macrocycle;
 import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface MacrocycleDayPlanRepository extends JpaRepository<MacrocycleDayPlan, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<MacrocycleDayPlan> findByMacrocycleOrderByDayNumber(Macrocycle macrocycle);
 
-    void deleteByMacrocycle(Macrocycle macrocycle);
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM MacrocycleDayPlan mdp WHERE mdp.macrocycle = :macrocycle")
+    int deleteByMacrocycle(@Param("macrocycle") Macrocycle macrocycle);
 
     @Query("SELECT COUNT(mdp) FROM MacrocycleDayPlan mdp JOIN mdp.macrocycle m WHERE mdp.routine = :routine AND m.isArchived = false")
     long countByRoutineAndMacrocycleIsArchivedFalse(@Param("routine") Routine routine);
@@ -23,4 +32,8 @@ public interface MacrocycleDayPlanRepository extends JpaRepository<MacrocycleDay
 
     @Query("SELECT COUNT(mdp) FROM MacrocycleDayPlan mdp WHERE mdp.routine = :routine")
     long countByRoutine(@Param("routine") Routine routine);
-}
\ No newline at end of file
+
+    @Query("SELECT mdp FROM MacrocycleDayPlan mdp JOIN FETCH mdp.macrocycle m LEFT JOIN FETCH mdp.routine " +
+            "WHERE m.createdBy = :usuario AND (:since IS NULL OR mdp.updatedAt > :since)")
+    List<MacrocycleDayPlan> findChangedByUser(@Param("usuario") Usuario usuario, @Param("since") LocalDateTime since);
+}
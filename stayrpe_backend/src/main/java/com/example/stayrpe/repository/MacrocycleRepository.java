@@ -2,11 +2,15 @@ package com.example.stayrpe.repository;
 
 import com.example.stayrpe.model.Macrocycle;
 import com.example.stayrpe.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,8 +22,10 @@ public interface MacrocycleRepository extends JpaRepository<Macrocycle, Long> {
 
     int countByCreatedByAndIsArchivedFalse(Usuario usuario);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Macrocycle> findByCreatedByAndIsArchivedTrue(Usuario usuario);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT m FROM Macrocycle m WHERE m.createdBy = :usuario AND m.isCurrentlyActive = true AND m.isArchived = false")
     Optional<Macrocycle> findByCreatedByAndIsCurrentlyActiveTrue(@Param("usuario") Usuario usuario);
 
@@ -27,11 +33,16 @@ public interface MacrocycleRepository extends JpaRepository<Macrocycle, Long> {
     boolean existsByCreatedByAndIsCurrentlyActiveTrue(@Param("usuario") Usuario usuario);
 
     @Modifying
-    @Query("UPDATE Macrocycle m SET m.isCurrentlyActive = false WHERE m.createdBy = :usuario")
-    void deactivateAllMacrocycles(@Param("usuario") Usuario usuario);
+    @Query("UPDATE Macrocycle m SET m.isCurrentlyActive = false, m.updatedAt = :updatedAt " +
+            "WHERE m.createdBy = :usuario AND m.isCurrentlyActive = true")
+    void deactivateAllMacrocycles(@Param("usuario") Usuario usuario, @Param("updatedAt") LocalDateTime updatedAt);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT m FROM Macrocycle m WHERE m.createdBy = :usuario AND m.isArchived = false ORDER BY m.isCurrentlyActive DESC, m.createdAt DESC")
     List<Macrocycle> findByCreatedByAndIsArchivedFalseOrderByCurrentlyActive(@Param("usuario") Usuario usuario);
 
     boolean existsByCreatedByAndNameIgnoreCase(Usuario usuario, String name);
-}
\ No newline at end of file
+
+    @Query("SELECT m FROM Macrocycle m WHERE m.createdBy = :usuario AND (:since IS NULL OR m.updatedAt > :since)")
+    List<Macrocycle> findChangedByUser(@Param("usuario") Usuario usuario, @Param("since") LocalDateTime since);
+}
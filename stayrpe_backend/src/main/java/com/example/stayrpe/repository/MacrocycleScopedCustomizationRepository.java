@@ -0,0 +1,93 @@
+package com.example.stayrpe.repository;
+
+import com.example.stayrpe.model.CustomizationScope;
+import com.example.stayrpe.model.ExerciseSet;
+import com.example.stayrpe.model.Macrocycle;
+import com.example.stayrpe.model.MacrocycleScopedCustomization;
+import com.example.stayrpe.model.Usuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MacrocycleScopedCustomizationRepository extends JpaRepository<MacrocycleScopedCustomization, Long> {
+
+    /**
+     * Customizaciones de ámbito macrociclo y del microciclo indicado, que son las
+     * únicas que pueden afectar a un día concreto.
+     */
+    @Query("SELECT sc FROM MacrocycleScopedCustomization sc " +
+            "JOIN FETCH sc.exerciseSet es " +
+            "WHERE sc.macrocycle = :macrocycle " +
+            "AND (sc.scope = com.example.stayrpe.model.CustomizationScope.MACROCYCLE " +
+            "OR (sc.scope = com.example.stayrpe.model.CustomizationScope.MICROCYCLE AND sc.microcycleNumber = :microcycleNumber))")
+    List<MacrocycleScopedCustomization> findApplicableToMicrocycle(
+            @Param("macrocycle") Macrocycle macrocycle,
+            @Param("microcycleNumber") Integer microcycleNumber
+    );
+
+    @Query("SELECT sc FROM MacrocycleScopedCustomization sc " +
+            "WHERE sc.macrocycle = :macrocycle AND sc.scope = :scope " +
+            "AND sc.microcycleNumber = :microcycleNumber " +
+            "AND sc.exerciseSet = :exerciseSet")
+    Optional<MacrocycleScopedCustomization> findByScopeAndExerciseSet(
+            @Param("macrocycle") Macrocycle macrocycle,
+            @Param("scope") CustomizationScope scope,
+            @Param("microcycleNumber") Integer microcycleNumber,
+            @Param("exerciseSet") ExerciseSet exerciseSet
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM MacrocycleScopedCustomization sc " +
+            "WHERE sc.macrocycle = :macrocycle AND sc.scope = :scope " +
+            "AND sc.microcycleNumber = :microcycleNumber " +
+            "AND sc.exerciseSet = :exerciseSet")
+    int deleteByScopeAndExerciseSet(
+            @Param("macrocycle") Macrocycle macrocycle,
+            @Param("scope") CustomizationScope scope,
+            @Param("microcycleNumber") Integer microcycleNumber,
+            @Param("exerciseSet") ExerciseSet exerciseSet
+    );
+
+    /**
+     * Ámbito, microciclo y rutina de cada customización por ámbito, para saber qué días absolutos afectan.
+     * Orden de columnas: scope, microcycleNumber, routineId
+     */
+    @Query("SELECT DISTINCT sc.scope, sc.microcycleNumber, re.routine.id FROM MacrocycleScopedCustomization sc " +
+            "JOIN sc.routineExercise re WHERE sc.macrocycle = :macrocycle")
+    List<Object[]> findScopeRoutinesByMacrocycle(@Param("macrocycle") Macrocycle macrocycle);
+
+    @Query("SELECT sc FROM MacrocycleScopedCustomization sc " +
+            "WHERE sc.macrocycle = :macrocycle ORDER BY sc.scope, sc.microcycleNumber")
+    List<MacrocycleScopedCustomization> findByMacrocycleOrdered(@Param("macrocycle") Macrocycle macrocycle);
+
+    long countByMacrocycle(Macrocycle macrocycle);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM MacrocycleScopedCustomization sc " +
+            "WHERE sc.macrocycle = :macrocycle AND sc.scope = :scope " +
+            "AND sc.microcycleNumber = :microcycleNumber")
+    int deleteByScope(
+            @Param("macrocycle") Macrocycle macrocycle,
+            @Param("scope") CustomizationScope scope,
+            @Param("microcycleNumber") Integer microcycleNumber
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM MacrocycleScopedCustomization sc WHERE sc.macrocycle = :macrocycle")
+    int deleteAllByMacrocycle(@Param("macrocycle") Macrocycle macrocycle);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM MacrocycleScopedCustomization sc WHERE sc.exerciseSet.id IN :exerciseSetIds")
+    int deleteByExerciseSetIdIn(@Param("exerciseSetIds") Collection<Long> exerciseSetIds);
+
+    // Change feed de /sync/changes: since = null devuelve todas las del usuario
+    @Query("SELECT sc FROM MacrocycleScopedCustomization sc JOIN sc.macrocycle m " +
+            "WHERE m.createdBy = :usuario AND (:since IS NULL OR sc.updatedAt > :since)")
+    List<MacrocycleScopedCustomization> findChangedByUser(@Param("usuario") Usuario usuario, @Param("since") LocalDateTime since);
+}
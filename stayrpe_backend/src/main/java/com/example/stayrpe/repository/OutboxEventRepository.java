@@ -0,0 +1,33 @@
+package com.example.stayrpe.repository;
+
+import com.example.stayrpe.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.status = com.example.stayrpe.model.OutboxEventStatus.PENDING " +
+            "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Reclama el evento hasta leaseUntil. Devuelve 0 si otro worker (o instancia) se adelantó
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.nextAttemptAt = :leaseUntil, e.attempts = e.attempts + 1 " +
+            "WHERE e.id = :id AND e.status = com.example.stayrpe.model.OutboxEventStatus.PENDING AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT e.status, COUNT(e) FROM OutboxEvent e GROUP BY e.status")
+    List<Object[]> countByStatus();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = com.example.stayrpe.model.OutboxEventStatus.DONE AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,16 @@
+package com.example.stayrpe.repository;
+
+import com.example.stayrpe.model.OutboxHandlerReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface OutboxHandlerReceiptRepository extends JpaRepository<OutboxHandlerReceipt, Long> {
+
+    boolean existsByEventIdAndHandler(Long eventId, String handler);
+
+    // Tras purgar eventos procesados: sus constancias ya no pueden hacer falta
+    @Modifying
+    @Query("DELETE FROM OutboxHandlerReceipt r WHERE NOT EXISTS (SELECT 1 FROM OutboxEvent e WHERE e.id = r.eventId)")
+    int deleteOrphaned();
+}
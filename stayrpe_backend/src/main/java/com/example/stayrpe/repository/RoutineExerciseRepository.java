@@ -2,16 +2,53 @@
 package com.example.stayrpe.repository;
 
 import com.example.stayrpe.model.RoutineExercise;
+import com.example.stayrpe.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface RoutineExerciseRepository extends JpaRepository<RoutineExercise, Long> {
 
-    @Query("SELECT re FROM RoutineExercise re WHERE re.routine.id = :routineId ORDER BY re.order ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT re FROM RoutineExercise re LEFT JOIN FETCH re.exercise WHERE re.routine.id = :routineId ORDER BY re.order ASC")
     List<RoutineExercise> findByRoutineIdOrderByOrder(@Param("routineId") Long routineId);
 
     void deleteByRoutineId(Long routineId);
-}
\ No newline at end of file
+
+    /**
+     * Número de veces que cada ejercicio aparece en alguna rutina: [exerciseId, count]
+     */
+    @Query("SELECT re.exercise.id, COUNT(re) FROM RoutineExercise re WHERE re.exercise IS NOT NULL GROUP BY re.exercise.id")
+    List<Object[]> countUsageByExercise();
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM RoutineExercise re WHERE re.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Copia en una sola sentencia los ejercicios de una rutina a otra (recién creada).
+     * Se insertan en orden de id para que {@link ExerciseSetRepository#copySetsToRoutine}
+     * pueda emparejar origen y destino por posición.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "routine_exercises"))
+    @Query(value = "INSERT INTO routine_exercises (routine_id, exercise_id, exercise_order, number_of_sets, rest_between_sets, notes, updated_at) " +
+            "SELECT :targetRoutineId, exercise_id, exercise_order, number_of_sets, rest_between_sets, notes, :updatedAt " +
+            "FROM routine_exercises WHERE routine_id = :sourceRoutineId ORDER BY id",
+            nativeQuery = true)
+    int copyExercisesToRoutine(@Param("sourceRoutineId") Long sourceRoutineId,
+                               @Param("targetRoutineId") Long targetRoutineId,
+                               @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT re FROM RoutineExercise re JOIN FETCH re.routine r LEFT JOIN FETCH re.exercise " +
+            "WHERE r.createdBy = :usuario AND r.isActive = true AND (:since IS NULL OR re.updatedAt > :since)")
+    List<RoutineExercise> findChangedByUser(@Param("usuario") Usuario usuario, @Param("since") LocalDateTime since);
+}
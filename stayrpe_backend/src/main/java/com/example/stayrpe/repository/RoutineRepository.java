@@ -2,8 +2,14 @@ package com.example.stayrpe.repository;
 
 import com.example.stayrpe.model.Routine;
 import com.example.stayrpe.model.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RoutineRepository extends JpaRepository<Routine, Long> {
@@ -17,4 +23,33 @@ public interface RoutineRepository extends JpaRepository<Routine, Long> {
     int countByCreatedByAndIsActiveTrue(Usuario usuario);
 
     boolean existsByCreatedByAndNameIgnoreCaseAndIsActiveTrue(Usuario usuario, String name);
-}
\ No newline at end of file
+
+    /**
+     * Nombres de rutinas activas que encajan con un patrón LIKE (carácter de escape '!').
+     */
+    @Query("SELECT r.name FROM Routine r WHERE r.createdBy = :usuario AND r.isActive = true " +
+            "AND LOWER(r.name) LIKE LOWER(:pattern) ESCAPE '!'")
+    List<String> findActiveNamesLike(@Param("usuario") Usuario usuario, @Param("pattern") String pattern);
+
+    /**
+     * Resumen de las rutinas activas del usuario en una sola consulta agrupada.
+     * Columnas: id, name, description, createdAt, updatedAt, isActive, nº de ejercicios, nº de series.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT r.id, r.name, r.description, r.createdAt, r.updatedAt, r.isActive, " +
+            "COUNT(DISTINCT re.id), COUNT(es.id) " +
+            "FROM Routine r " +
+            "LEFT JOIN r.routineExercises re " +
+            "LEFT JOIN re.sets es " +
+            "WHERE r.createdBy = :usuario AND r.isActive = true " +
+            "GROUP BY r.id, r.name, r.description, r.createdAt, r.updatedAt, r.isActive " +
+            "ORDER BY r.id")
+    List<Object[]> findRoutineSummariesByUser(@Param("usuario") Usuario usuario);
+
+    /**
+     * Rutinas del usuario modificadas después de since (todas si es null), incluidas las
+     * desactivadas, que el change feed comunica como borradas
+     */
+    @Query("SELECT r FROM Routine r WHERE r.createdBy = :usuario AND (:since IS NULL OR r.updatedAt > :since)")
+    List<Routine> findChangedByUser(@Param("usuario") Usuario usuario, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,46 @@
+package com.example.stayrpe.repository;
+
+import com.example.stayrpe.model.RoutineVersion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RoutineVersionRepository extends JpaRepository<RoutineVersion, Long> {
+
+    Optional<RoutineVersion> findByContentHash(String contentHash);
+
+    /**
+     * Lectura con bloqueo (FOR UPDATE): a diferencia de la lectura normal, que en
+     * REPEATABLE READ usa la instantánea de la transacción, ve la fila que otra transacción
+     * acaba de confirmar y que hizo que insertIfAbsent se ignorara.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT rv FROM RoutineVersion rv WHERE rv.contentHash = :contentHash")
+    Optional<RoutineVersion> findByContentHashLocking(@Param("contentHash") String contentHash);
+
+    /**
+     * Inserta la versión si su hash aún no existe. Dos sesiones que guardan a la vez la misma
+     * versión no rompen la transacción: la segunda inserción espera a que la primera confirme y
+     * se ignora por la clave única. Después hay que leerla con {@link #findByContentHashLocking}.
+     * Declara routine_versions como única tabla afectada para que Hibernate no vacíe
+     * toda la caché de segundo nivel en cada entrenamiento guardado.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "routine_versions"))
+    @Query(value = "INSERT IGNORE INTO routine_versions (content_hash, routine_name, content, created_at) " +
+            "VALUES (:contentHash, :routineName, :content, :createdAt)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("contentHash") String contentHash,
+                       @Param("routineName") String routineName,
+                       @Param("content") String content,
+                       @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,108 @@
+package com.example.stayrpe.repository;
+
+import com.example.stayrpe.model.CustomizationScope;
+import com.example.stayrpe.model.ExerciseSet;
+import com.example.stayrpe.model.Macrocycle;
+import com.example.stayrpe.model.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    @Query("SELECT st FROM SyncTombstone st WHERE st.userId = :userId AND st.deletedAt > :since ORDER BY st.deletedAt")
+    List<SyncTombstone> findByUserIdSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone st WHERE st.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+
+    // Registro de borrados masivos: un INSERT ... SELECT con el mismo filtro que el DELETE,
+    // a ejecutar justo antes de él en la misma transacción
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT r.createdBy.id, com.example.stayrpe.model.SyncEntityType.ROUTINE_EXERCISE, re.id, :deletedAt " +
+            "FROM RoutineExercise re JOIN re.routine r WHERE re.id IN :ids")
+    int recordRoutineExercises(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT r.createdBy.id, com.example.stayrpe.model.SyncEntityType.EXERCISE_SET, es.id, :deletedAt " +
+            "FROM ExerciseSet es JOIN es.routineExercise re JOIN re.routine r WHERE es.id IN :ids")
+    int recordExerciseSets(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT m.createdBy.id, com.example.stayrpe.model.SyncEntityType.MACROCYCLE_DAY_CUSTOMIZATION, mdc.id, :deletedAt " +
+            "FROM MacrocycleDayCustomization mdc JOIN mdc.macrocycle m WHERE mdc.macrocycle = :macrocycle")
+    int recordDayCustomizations(@Param("macrocycle") Macrocycle macrocycle,
+                                @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT m.createdBy.id, com.example.stayrpe.model.SyncEntityType.MACROCYCLE_DAY_CUSTOMIZATION, mdc.id, :deletedAt " +
+            "FROM MacrocycleDayCustomization mdc JOIN mdc.macrocycle m " +
+            "WHERE mdc.macrocycle = :macrocycle AND mdc.absoluteDay = :absoluteDay")
+    int recordDayCustomizations(@Param("macrocycle") Macrocycle macrocycle,
+                                @Param("absoluteDay") Integer absoluteDay,
+                                @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT m.createdBy.id, com.example.stayrpe.model.SyncEntityType.MACROCYCLE_DAY_CUSTOMIZATION, mdc.id, :deletedAt " +
+            "FROM MacrocycleDayCustomization mdc JOIN mdc.macrocycle m " +
+            "WHERE mdc.macrocycle = :macrocycle AND mdc.absoluteDay = :absoluteDay AND mdc.exerciseSet = :exerciseSet")
+    int recordDayCustomizations(@Param("macrocycle") Macrocycle macrocycle,
+                                @Param("absoluteDay") Integer absoluteDay,
+                                @Param("exerciseSet") ExerciseSet exerciseSet,
+                                @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT m.createdBy.id, com.example.stayrpe.model.SyncEntityType.MACROCYCLE_DAY_CUSTOMIZATION, mdc.id, :deletedAt " +
+            "FROM MacrocycleDayCustomization mdc JOIN mdc.macrocycle m WHERE mdc.exerciseSet.id IN :exerciseSetIds")
+    int recordDayCustomizationsOfExerciseSets(@Param("exerciseSetIds") Collection<Long> exerciseSetIds,
+                                              @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT m.createdBy.id, com.example.stayrpe.model.SyncEntityType.MACROCYCLE_SCOPED_CUSTOMIZATION, sc.id, :deletedAt " +
+            "FROM MacrocycleScopedCustomization sc JOIN sc.macrocycle m WHERE sc.macrocycle = :macrocycle")
+    int recordScopedCustomizations(@Param("macrocycle") Macrocycle macrocycle,
+                                   @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT m.createdBy.id, com.example.stayrpe.model.SyncEntityType.MACROCYCLE_SCOPED_CUSTOMIZATION, sc.id, :deletedAt " +
+            "FROM MacrocycleScopedCustomization sc JOIN sc.macrocycle m " +
+            "WHERE sc.macrocycle = :macrocycle AND sc.scope = :scope AND sc.microcycleNumber = :microcycleNumber")
+    int recordScopedCustomizations(@Param("macrocycle") Macrocycle macrocycle,
+                                   @Param("scope") CustomizationScope scope,
+                                   @Param("microcycleNumber") Integer microcycleNumber,
+                                   @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT m.createdBy.id, com.example.stayrpe.model.SyncEntityType.MACROCYCLE_SCOPED_CUSTOMIZATION, sc.id, :deletedAt " +
+            "FROM MacrocycleScopedCustomization sc JOIN sc.macrocycle m " +
+            "WHERE sc.macrocycle = :macrocycle AND sc.scope = :scope AND sc.microcycleNumber = :microcycleNumber " +
+            "AND sc.exerciseSet = :exerciseSet")
+    int recordScopedCustomizations(@Param("macrocycle") Macrocycle macrocycle,
+                                   @Param("scope") CustomizationScope scope,
+                                   @Param("microcycleNumber") Integer microcycleNumber,
+                                   @Param("exerciseSet") ExerciseSet exerciseSet,
+                                   @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO SyncTombstone (userId, entityType, entityId, deletedAt) " +
+            "SELECT m.createdBy.id, com.example.stayrpe.model.SyncEntityType.MACROCYCLE_SCOPED_CUSTOMIZATION, sc.id, :deletedAt " +
+            "FROM MacrocycleScopedCustomization sc JOIN sc.macrocycle m WHERE sc.exerciseSet.id IN :exerciseSetIds")
+    int recordScopedCustomizationsOfExerciseSets(@Param("exerciseSetIds") Collection<Long> exerciseSetIds,
+                                                 @Param("deletedAt") LocalDateTime deletedAt);
+}
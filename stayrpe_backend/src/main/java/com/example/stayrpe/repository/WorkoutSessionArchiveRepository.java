@@ -0,0 +1,50 @@
+package com.example.stayrpe.repository;
+
+import com.example.stayrpe.model.WorkoutSessionArchive;
+import com.example.stayrpe.model.WorkoutSessionExercise;
+import com.example.stayrpe.model.WorkoutSessionSet;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WorkoutSessionArchiveRepository extends JpaRepository<WorkoutSessionArchive, Long> {
+
+    @Query("SELECT ws.id FROM WorkoutSession ws WHERE ws.archivedAt IS NULL AND ws.completedAt < :before ORDER BY ws.completedAt")
+    List<Long> findSessionIdsToArchive(@Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * Marca la sesión como archivada sin tocar updated_at (su resumen no cambia).
+     * Devuelve 0 si otra ejecución ya la archivó
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WorkoutSession ws SET ws.archivedAt = :archivedAt WHERE ws.id = :sessionId AND ws.archivedAt IS NULL")
+    int markArchived(@Param("sessionId") Long sessionId, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Query("SELECT e FROM WorkoutSessionExercise e WHERE e.workoutSession.id = :sessionId ORDER BY e.exerciseOrder, e.id")
+    List<WorkoutSessionExercise> findSessionExercises(@Param("sessionId") Long sessionId);
+
+    @Query("SELECT s FROM WorkoutSessionSet s WHERE s.workoutSessionExercise.workoutSession.id = :sessionId ORDER BY s.setNumber, s.id")
+    List<WorkoutSessionSet> findSessionSets(@Param("sessionId") Long sessionId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM WorkoutSessionSet s WHERE s.workoutSessionExercise.id IN " +
+            "(SELECT e.id FROM WorkoutSessionExercise e WHERE e.workoutSession.id = :sessionId)")
+    int deleteSessionSets(@Param("sessionId") Long sessionId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM WorkoutSessionExercise e WHERE e.workoutSession.id = :sessionId")
+    int deleteSessionExercises(@Param("sessionId") Long sessionId);
+
+    @Query("SELECT COUNT(s) FROM WorkoutSessionSet s")
+    long countHotSets();
+
+    // Orden de columnas: sesiones, series, bytes sin comprimir, bytes comprimidos
+    @Query("SELECT COUNT(a), COALESCE(SUM(a.setCount), 0), COALESCE(SUM(a.uncompressedBytes), 0), " +
+            "COALESCE(SUM(a.compressedBytes), 0) FROM WorkoutSessionArchive a")
+    List<Object[]> getArchiveTotals();
+}
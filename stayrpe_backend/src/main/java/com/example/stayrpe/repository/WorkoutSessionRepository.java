@@ -20,6 +20,22 @@ public interface WorkoutSessionRepository extends JpaRepository<WorkoutSession,
     @Query("SELECT ws FROM WorkoutSession ws WHERE ws.user = :user ORDER BY ws.completedAt DESC")
     List<WorkoutSession> findTopNByUser(@Param("user") Usuario user, org.springframework.data.domain.Pageable pageable);
 
+    /**
+     * Columnas resumen del historial, sin notas ni descripción (TEXT) ni la versión de rutina.
+     * Orden de columnas: id, routineName, startedAt, completedAt, durationMinutes, totalExercises,
+     * totalSets, completedSets, completionPercentage, totalVolume, macrocycleName, absoluteDay
+     */
+    @Query("SELECT ws.id, ws.routineName, ws.startedAt, ws.completedAt, ws.durationMinutes, ws.totalExercises, " +
+            "ws.totalSets, ws.completedSets, ws.completionPercentage, ws.totalVolume, ws.macrocycleName, ws.absoluteDay " +
+            "FROM WorkoutSession ws WHERE ws.user = :user ORDER BY ws.completedAt DESC")
+    List<Object[]> findHistorySummariesByUser(@Param("user") Usuario user, org.springframework.data.domain.Pageable pageable);
+
+    // Mismas columnas que findHistorySummariesByUser, para el change feed de /sync/changes
+    @Query("SELECT ws.id, ws.routineName, ws.startedAt, ws.completedAt, ws.durationMinutes, ws.totalExercises, " +
+            "ws.totalSets, ws.completedSets, ws.completionPercentage, ws.totalVolume, ws.macrocycleName, ws.absoluteDay " +
+            "FROM WorkoutSession ws WHERE ws.user = :user AND (:since IS NULL OR ws.updatedAt > :since) ORDER BY ws.completedAt DESC")
+    List<Object[]> findHistorySummariesChangedByUser(@Param("user") Usuario user, @Param("since") LocalDateTime since);
+
     long countByUser(Usuario user);
 
     boolean existsByUserAndMacrocycleAndAbsoluteDay(Usuario user, Macrocycle macrocycle, Integer absoluteDay);
@@ -31,8 +47,10 @@ public interface WorkoutSessionRepository extends JpaRepository<WorkoutSession,
 
     @Modifying
     @Transactional
-    @Query("UPDATE WorkoutSession ws SET ws.macrocycle = null WHERE ws.user = :user AND ws.macrocycle = :macrocycle")
-    void dissociateMacrocycleFromUserSessions(@Param("user") Usuario user, @Param("macrocycle") Macrocycle macrocycle);
+    @Query("UPDATE WorkoutSession ws SET ws.macrocycle = null, ws.updatedAt = :updatedAt " +
+            "WHERE ws.user = :user AND ws.macrocycle = :macrocycle")
+    int dissociateMacrocycleFromUserSessions(@Param("user") Usuario user, @Param("macrocycle") Macrocycle macrocycle,
+                                             @Param("updatedAt") LocalDateTime updatedAt);
 
     @Query("SELECT COUNT(ws) FROM WorkoutSession ws WHERE ws.macrocycle = :macrocycle")
     long countByMacrocycle(@Param("macrocycle") Macrocycle macrocycle);
@@ -51,8 +69,11 @@ public interface WorkoutSessionRepository extends JpaRepository<WorkoutSession,
                                                 @Param("startDate") LocalDateTime startDate,
                                                 @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT ws FROM WorkoutSession ws WHERE ws.user = :user AND DATE(ws.completedAt) = CURRENT_DATE ORDER BY ws.completedAt DESC")
-    List<WorkoutSession> findTodayWorkouts(@Param("user") Usuario user);
+    // Rango sobre completedAt en lugar de DATE(completedAt): con la función MySQL no puede podar particiones
+    @Query("SELECT ws FROM WorkoutSession ws WHERE ws.user = :user AND ws.completedAt >= :startOfDay AND ws.completedAt < :endOfDay ORDER BY ws.completedAt DESC")
+    List<WorkoutSession> findTodayWorkouts(@Param("user") Usuario user,
+                                           @Param("startOfDay") LocalDateTime startOfDay,
+                                           @Param("endOfDay") LocalDateTime endOfDay);
 
     @Query("SELECT ws FROM WorkoutSession ws WHERE ws.user = :user AND ws.completedAt >= :startOfWeek ORDER BY ws.completedAt DESC")
     List<WorkoutSession> findThisWeekWorkouts(@Param("user") Usuario user, @Param("startOfWeek") LocalDateTime startOfWeek);
@@ -95,7 +116,7 @@ public interface WorkoutSessionRepository extends JpaRepository<WorkoutSession,
             "COALESCE(AVG(ws.durationMinutes), 0), " +
             "COALESCE(AVG(ws.completionPercentage), 0) " +
             "FROM WorkoutSession ws WHERE ws.user = :user")
-    Object[] getDashboardStats(@Param("user") Usuario user);
+    List<Object[]> getDashboardStats(@Param("user") Usuario user);
 
     @Query("SELECT ws.routineName, COUNT(ws) FROM WorkoutSession ws WHERE ws.user = :user GROUP BY ws.routineName ORDER BY COUNT(ws) DESC")
     List<Object[]> getMostUsedRoutines(@Param("user") Usuario user);
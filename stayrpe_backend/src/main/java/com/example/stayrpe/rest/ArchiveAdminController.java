@@ -0,0 +1,44 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.service.WorkoutArchiveService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Estado del archivo frío de sesiones (sesiones y series archivadas, bytes antes y después de
+ * comprimir, series que quedan en la tabla caliente) y ejecución manual del archivado.
+ */
+@RestController
+@RequestMapping("/admin/archive")
+public class ArchiveAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveAdminController.class);
+
+    private final WorkoutArchiveService workoutArchiveService;
+
+    public ArchiveAdminController(WorkoutArchiveService workoutArchiveService) {
+        this.workoutArchiveService = workoutArchiveService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getArchiveStats() {
+        return ResponseEntity.ok(workoutArchiveService.getTotals());
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<?> runArchive() {
+        logger.info("Archivado de sesiones lanzado manualmente");
+        try {
+            int archived = workoutArchiveService.archiveOldSessions();
+            return ResponseEntity.ok(Map.of("archivedSessions", archived));
+        } catch (Exception e) {
+            logger.error("Error en el archivado manual de sesiones", e);
+            return ResponseEntity.status(500).body(Map.of("error", "Error archivando sesiones"));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.dto.BootstrapResponse;
+import com.example.stayrpe.model.Macrocycle;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.MacrocycleRepository;
+import com.example.stayrpe.repository.UsuarioRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Todo lo que la app pide al arrancar en una sola petición: perfil, macrociclo activo, resumen
+ * del dashboard, rutinas y si ya se entrenó hoy. Cada parte la calcula su propio endpoint en paralelo
+ * (mismo cuerpo que si se pidiera por separado); si una falla o tarda más de
+ * {@code stayrpe.bootstrap.part-timeout-ms}, el resto se devuelve igualmente.
+ * <p>
+ * Las partes corren en un pool propio y acotado ({@code stayrpe.bootstrap.threads}, por debajo del
+ * máximo de Hikari) para que una ráfaga de arranques no se quede con todas las conexiones; checkDay
+ * se calcula en el hilo de la petición, que de otro modo solo esperaría. Con la cola llena la parte
+ * también corre en el hilo de la petición. Una parte que expira antes de empezar ya no se calcula;
+ * la que ya está en marcha termina (interrumpirla a mitad de una consulta descartaría la conexión).
+ */
+@RestController
+@RequestMapping("/bootstrap")
+public class BootstrapController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BootstrapController.class);
+
+    private final UserProfileController userProfileController;
+    private final MacrocycleController macrocycleController;
+    private final WorkoutHistoryController workoutHistoryController;
+    private final RoutineController routineController;
+    private final UsuarioRepository usuarioRepository;
+    private final MacrocycleRepository macrocycleRepository;
+    private final ThreadPoolExecutor workers;
+    private final Executor executor;
+    private final long partTimeoutMs;
+
+    public BootstrapController(
+            UserProfileController userProfileController,
+            MacrocycleController macrocycleController,
+            WorkoutHistoryController workoutHistoryController,
+            RoutineController routineController,
+            UsuarioRepository usuarioRepository,
+            MacrocycleRepository macrocycleRepository,
+            @Value("${stayrpe.bootstrap.threads:4}") int threads,
+            @Value("${stayrpe.bootstrap.queue-capacity:64}") int queueCapacity,
+            @Value("${stayrpe.bootstrap.part-timeout-ms:5000}") long partTimeoutMs
+    ) {
+        this.userProfileController = userProfileController;
+        this.macrocycleController = macrocycleController;
+        this.workoutHistoryController = workoutHistoryController;
+        this.routineController = routineController;
+        this.usuarioRepository = usuarioRepository;
+        this.macrocycleRepository = macrocycleRepository;
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new CustomizableThreadFactory("bootstrap-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // Las partes leen el usuario autenticado del SecurityContext, que no pasa solo a otro hilo
+        this.executor = new DelegatingSecurityContextExecutor(workers);
+        this.partTimeoutMs = partTimeoutMs;
+    }
+
+    /**
+     * macrocycleId y absoluteDay son los de /workout-history/check-day; sin ellos se comprueba
+     * el día de hoy del macrociclo activo.
+     */
+    @GetMapping
+    public ResponseEntity<?> bootstrap(
+            @RequestParam(required = false) Long macrocycleId,
+            @RequestParam(required = false) Integer absoluteDay) {
+
+        logger.info("Solicitando arranque de la app");
+        long start = System.nanoTime();
+
+        Usuario usuario = getCurrentUser();
+        if (usuario == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Usuario no encontrado"));
+        }
+
+        CompletableFuture<ResponseEntity<?>> profile = part(userProfileController::getProfile);
+        CompletableFuture<ResponseEntity<?>> activeMacrocycle = part(macrocycleController::getActiveMacrocycle);
+        CompletableFuture<ResponseEntity<?>> summary = part(workoutHistoryController::getWorkoutSummary);
+        CompletableFuture<ResponseEntity<?>> routines = part(routineController::getUserRoutines);
+        CompletableFuture<ResponseEntity<?>> checkDay = inline(() -> checkToday(usuario, macrocycleId, absoluteDay));
+
+        Map<String, Object> errors = new LinkedHashMap<>();
+        BootstrapResponse response = BootstrapResponse.builder()
+                .profile(join("profile", profile, errors))
+                .activeMacrocycle(join("activeMacrocycle", activeMacrocycle, errors))
+                .summary(join("summary", summary, errors))
+                .routines(join("routines", routines, errors))
+                .checkDay(join("checkDay", checkDay, errors))
+                .errors(errors)
+                .build();
+
+        logger.info("Arranque servido para usuario {} en {} ms ({} partes con error)",
+                usuario.getUsername(), (System.nanoTime() - start) / 1_000_000, errors.size());
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> checkToday(Usuario usuario, Long macrocycleId, Integer absoluteDay) {
+        if (macrocycleId == null || absoluteDay == null) {
+            Optional<Macrocycle> active = macrocycleRepository.findByCreatedByAndIsCurrentlyActiveTrue(usuario);
+            if (active.isPresent() && active.get().getStartDate() != null) {
+                macrocycleId = active.get().getId();
+                absoluteDay = (int) ChronoUnit.DAYS.between(active.get().getStartDate(), LocalDate.now()) + 1;
+            }
+        }
+        return workoutHistoryController.checkDayTrained(macrocycleId, absoluteDay);
+    }
+
+    private CompletableFuture<ResponseEntity<?>> part(Supplier<ResponseEntity<?>> endpoint) {
+        CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            // orTimeout ya la completó mientras esperaba en la cola: nadie va a leerla
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(endpoint.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result.orTimeout(partTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private CompletableFuture<ResponseEntity<?>> inline(Supplier<ResponseEntity<?>> endpoint) {
+        try {
+            return CompletableFuture.completedFuture(endpoint.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Cuerpo de la parte, o null si falló; en ese caso deja el motivo en errors
+     */
+    private Object join(String name, CompletableFuture<ResponseEntity<?>> part, Map<String, Object> errors) {
+        try {
+            ResponseEntity<?> response = part.join();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                return response.getBody();
+            }
+            errors.put(name, response.getBody() != null
+                    ? response.getBody()
+                    : Map.of("error", "Estado " + response.getStatusCode().value()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                logger.warn("Parte {} del arranque sin respuesta en {} ms", name, partTimeoutMs);
+                errors.put(name, Map.of("error", "Tiempo de espera agotado"));
+            } else {
+                logger.error("Error en la parte {} del arranque", name, e.getCause());
+                errors.put(name, Map.of("error", "Error interno del servidor"));
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private Usuario getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
+        return usuarioRepository.findByUsername(username).orElse(null);
+    }
+}
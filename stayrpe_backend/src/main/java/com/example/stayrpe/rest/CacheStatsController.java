@@ -0,0 +1,94 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.dto.CacheStatsResponse;
+import com.example.stayrpe.service.WorkoutStatsCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estadísticas de la caché de segundo nivel de Hibernate: aciertos, fallos y ratio por región,
+ * y de las cachés de resultados de la aplicación (estadísticas de entrenamiento por usuario).
+ * Los contadores son acumulados desde el arranque (o desde el último reset, solo Hibernate).
+ */
+@RestController
+@RequestMapping("/admin/cache-stats")
+public class CacheStatsController {
+
+    private final Statistics statistics;
+    private final WorkoutStatsCache workoutStatsCache;
+
+    public CacheStatsController(EntityManagerFactory entityManagerFactory, WorkoutStatsCache workoutStatsCache) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.workoutStatsCache = workoutStatsCache;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getCacheStats() {
+        if (!statistics.isStatisticsEnabled()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Estadísticas de Hibernate desactivadas"));
+        }
+
+        List<CacheStatsResponse.RegionStats> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats == null) {
+                continue;
+            }
+            regions.add(CacheStatsResponse.RegionStats.builder()
+                    .region(region)
+                    .hits(regionStats.getHitCount())
+                    .misses(regionStats.getMissCount())
+                    .puts(regionStats.getPutCount())
+                    .hitRatio(ratio(regionStats.getHitCount(), regionStats.getMissCount()))
+                    // JCache no expone el tamaño de la región: -1
+                    .entriesInMemory(Math.max(regionStats.getElementCountInMemory(), -1))
+                    .build());
+        }
+        regions.sort(Comparator.comparing(CacheStatsResponse.RegionStats::getRegion));
+
+        CacheStats workoutStats = workoutStatsCache.stats();
+        List<CacheStatsResponse.ApplicationCacheStats> applicationCaches = List.of(
+                CacheStatsResponse.ApplicationCacheStats.builder()
+                        .name(WorkoutStatsCache.CACHE_NAME)
+                        .hits(workoutStats.hitCount())
+                        .misses(workoutStats.missCount())
+                        .hitRatio(ratio(workoutStats.hitCount(), workoutStats.missCount()))
+                        .evictions(workoutStats.evictionCount())
+                        .size(workoutStatsCache.estimatedSize())
+                        .build());
+
+        return ResponseEntity.ok(CacheStatsResponse.builder()
+                .secondLevelHits(statistics.getSecondLevelCacheHitCount())
+                .secondLevelMisses(statistics.getSecondLevelCacheMissCount())
+                .secondLevelPuts(statistics.getSecondLevelCachePutCount())
+                .secondLevelHitRatio(ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()))
+                .queryCacheHits(statistics.getQueryCacheHitCount())
+                .queryCacheMisses(statistics.getQueryCacheMissCount())
+                .queryCacheHitRatio(ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()))
+                .regions(regions)
+                .applicationCaches(applicationCaches)
+                .build());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> resetCacheStats() {
+        statistics.clear();
+        return ResponseEntity.ok(Map.of("message", "Estadísticas reiniciadas"));
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
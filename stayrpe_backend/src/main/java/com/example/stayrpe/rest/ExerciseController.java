@@ -1,11 +1,13 @@
 package com.example.stayrpe.rest;
 
 import com.example.stayrpe.dto.ExerciseDTO;
+import com.example.stayrpe.dto.ExerciseFacetsResponse;
 import com.example.stayrpe.dto.ExerciseResponse;
 import com.example.stayrpe.model.Exercise;
 import com.example.stayrpe.model.Usuario;
 import com.example.stayrpe.repository.ExerciseRepository;
 import com.example.stayrpe.repository.UsuarioRepository;
+import com.example.stayrpe.service.ExerciseCatalogService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,13 +29,16 @@ public class ExerciseController {
 
     private final ExerciseRepository exerciseRepository;
     private final UsuarioRepository usuarioRepository;
+    private final ExerciseCatalogService exerciseCatalogService;
 
     public ExerciseController(
             ExerciseRepository exerciseRepository,
-            UsuarioRepository usuarioRepository
+            UsuarioRepository usuarioRepository,
+            ExerciseCatalogService exerciseCatalogService
     ) {
         this.exerciseRepository = exerciseRepository;
         this.usuarioRepository = usuarioRepository;
+        this.exerciseCatalogService = exerciseCatalogService;
     }
 
     @GetMapping
@@ -43,17 +48,7 @@ public class ExerciseController {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
 
-        Optional<Usuario> usuarioOpt = usuarioRepository.findByUsername(username);
-        if (usuarioOpt.isEmpty()) {
-            return ResponseEntity.badRequest().build();
-        }
-
-        Usuario usuario = usuarioOpt.get();
-        List<Exercise> exercises = exerciseRepository.findAvailableExercisesForUser(usuario);
-
-        List<ExerciseResponse> response = exercises.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<ExerciseResponse> response = exerciseCatalogService.getAvailableExercises(username);
 
         logger.info("Devolviendo {} ejercicios", response.size());
         return ResponseEntity.ok(response);
@@ -66,31 +61,32 @@ public class ExerciseController {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
 
-        Optional<Usuario> usuarioOpt = usuarioRepository.findByUsername(username);
-        if (usuarioOpt.isEmpty()) {
-            return ResponseEntity.badRequest().build();
-        }
+        return ResponseEntity.ok(exerciseCatalogService.getByMuscle(username, muscle));
+    }
 
-        Usuario usuario = usuarioOpt.get();
-        List<Exercise> exercises = exerciseRepository.findByMuscleAndAvailableForUser(muscle, usuario);
+    @GetMapping("/muscle-group/{muscleGroup}")
+    public ResponseEntity<List<ExerciseResponse>> getExercisesByMuscleGroup(@PathVariable String muscleGroup) {
+        logger.info("Solicitando ejercicios para grupo muscular: {}", muscleGroup);
 
-        List<ExerciseResponse> response = exercises.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(exerciseCatalogService.getByMuscleGroup(username, muscleGroup));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ExerciseFacetsResponse> getExerciseFacets() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
+
+        return ResponseEntity.ok(exerciseCatalogService.getFacets(username));
     }
 
     @GetMapping("/predefined")
     public ResponseEntity<List<ExerciseResponse>> getPredefinedExercises() {
         logger.info("Solicitando ejercicios predefinidos");
 
-        List<Exercise> exercises = exerciseRepository.findByIsCustomFalse();
-        List<ExerciseResponse> response = exercises.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(exerciseCatalogService.getPredefinedExercises());
     }
 
     @GetMapping("/custom")
@@ -140,6 +136,7 @@ public class ExerciseController {
                     .build();
 
             Exercise savedExercise = exerciseRepository.save(exercise);
+            exerciseCatalogService.invalidateUser(username);
             ExerciseResponse response = convertToResponse(savedExercise);
 
             logger.info("Ejercicio personalizado creado con ID: {}", savedExercise.getId());
@@ -152,30 +149,20 @@ public class ExerciseController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ExerciseResponse>> searchExercises(@RequestParam String name) {
-        logger.info("Buscando ejercicios con nombre: {}", name);
+    public ResponseEntity<List<ExerciseResponse>> searchExercises(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "true") boolean fuzzy,
+            @RequestParam(required = false) Integer maxDistance) {
+        logger.debug("Buscando ejercicios con nombre: {}", name);
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
 
-        Optional<Usuario> usuarioOpt = usuarioRepository.findByUsername(username);
-        if (usuarioOpt.isEmpty()) {
-            return ResponseEntity.badRequest().build();
-        }
-
-        Usuario usuario = usuarioOpt.get();
-
-        List<Exercise> allExercises = exerciseRepository.findAvailableExercisesForUser(usuario);
-
-        List<Exercise> filteredExercises = allExercises.stream()
-                .filter(exercise -> exercise.getName().toLowerCase().contains(name.toLowerCase()))
-                .collect(Collectors.toList());
-
-        List<ExerciseResponse> response = filteredExercises.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+        // Se resuelve en memoria (sin tildes y por relevancia): no consulta MySQL en cada pulsación.
+        // Con fuzzy, las erratas ("sentadila") completan los resultados tras las coincidencias exactas.
+        int distance = !fuzzy ? 0 : maxDistance != null ? maxDistance : exerciseCatalogService.getMaxEditDistance();
+        return ResponseEntity.ok(exerciseCatalogService.search(username, name, limit, distance));
     }
 
     @DeleteMapping("/custom/{id}")
@@ -205,6 +192,7 @@ public class ExerciseController {
 
         try {
             exerciseRepository.delete(exercise);
+            exerciseCatalogService.invalidateUser(username);
             logger.info("Ejercicio personalizado eliminado correctamente");
             return ResponseEntity.ok(Map.of("mensaje", "Ejercicio eliminado correctamente"));
         } catch (Exception e) {
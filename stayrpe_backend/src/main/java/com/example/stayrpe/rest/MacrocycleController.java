@@ -1,17 +1,25 @@
 package com.example.stayrpe.rest;
 
+import com.example.stayrpe.config.FieldSelection;
 import com.example.stayrpe.dto.CreateMacrocycleDTO;
 import com.example.stayrpe.dto.DayCustomizationRequest;
 import com.example.stayrpe.dto.DayCustomizationResponse;
+import com.example.stayrpe.dto.ScopedCustomizationRequest;
+import com.example.stayrpe.model.CustomizationScope;
 import com.example.stayrpe.model.Macrocycle;
 import com.example.stayrpe.model.MacrocycleDayPlan;
+import com.example.stayrpe.model.MacrocycleScopedCustomization;
 import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.model.SyncEntityType;
+import com.example.stayrpe.model.SyncTombstone;
 import com.example.stayrpe.model.Usuario;
 import com.example.stayrpe.repository.*;
 import com.example.stayrpe.service.MacrocycleCustomizationService;
+import com.example.stayrpe.service.WorkoutSessionsChangedEvent;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -35,6 +44,8 @@ public class MacrocycleController {
     private final MacrocycleCustomizationService macrocycleCustomizationService;
     private final MacrocycleDayCustomizationRepository macrocycleDayCustomizationRepository;
     private final WorkoutSessionRepository workoutSessionRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public MacrocycleController(
             MacrocycleRepository macrocycleRepository,
@@ -43,7 +54,9 @@ public class MacrocycleController {
             UsuarioRepository usuarioRepository,
             MacrocycleCustomizationService macrocycleCustomizationService,
             MacrocycleDayCustomizationRepository macrocycleDayCustomizationRepository,
-            WorkoutSessionRepository workoutSessionRepository
+            WorkoutSessionRepository workoutSessionRepository,
+            SyncTombstoneRepository tombstoneRepository,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.macrocycleRepository = macrocycleRepository;
         this.dayPlanRepository = dayPlanRepository;
@@ -52,6 +65,8 @@ public class MacrocycleController {
         this.macrocycleCustomizationService = macrocycleCustomizationService;
         this.macrocycleDayCustomizationRepository = macrocycleDayCustomizationRepository;
         this.workoutSessionRepository = workoutSessionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping
@@ -140,7 +155,7 @@ public class MacrocycleController {
                 ));
             }
 
-            macrocycleRepository.deactivateAllMacrocycles(usuario);
+            macrocycleRepository.deactivateAllMacrocycles(usuario, LocalDateTime.now());
 
             macrocycle.setCurrentlyActive(true);
             Macrocycle activatedMacrocycle = macrocycleRepository.save(macrocycle);
@@ -177,18 +192,11 @@ public class MacrocycleController {
 
             Macrocycle macrocycle = activeMacrocycle.get();
 
-            long customizationCount = macrocycleDayCustomizationRepository.countByMacrocycle(macrocycle);
-            long workoutSessionsCount = workoutSessionRepository.countByMacrocycle(macrocycle);
+            int customizationCount = macrocycleCustomizationService.resetAllCustomizations(macrocycle);
+            int workoutSessionsCount = workoutSessionRepository.dissociateMacrocycleFromUserSessions(usuario, macrocycle, LocalDateTime.now());
 
-            if (customizationCount > 0) {
-                macrocycleCustomizationService.resetAllCustomizations(macrocycle);
-                logger.info("Eliminadas {} customizaciones", customizationCount);
-            }
-
-            if (workoutSessionsCount > 0) {
-                workoutSessionRepository.dissociateMacrocycleFromUserSessions(usuario, macrocycle);
-                logger.info("Desasociados {} entrenamientos", workoutSessionsCount);
-            }
+            logger.info("Eliminadas {} customizaciones y desasociados {} entrenamientos",
+                    customizationCount, workoutSessionsCount);
 
             macrocycle.setCurrentlyActive(false);
             macrocycleRepository.save(macrocycle);
@@ -268,19 +276,13 @@ public class MacrocycleController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Formato de fecha inválido (usar YYYY-MM-DD)"));
             }
 
-            long customizationCount = macrocycleDayCustomizationRepository.countByMacrocycle(macrocycle);
-
-            long workoutCount = workoutSessionRepository.countByMacrocycle(macrocycle);
-
-            if (customizationCount > 0) {
-                macrocycleCustomizationService.resetAllCustomizations(macrocycle);
-                logger.info("Eliminadas {} customizaciones durante reset", customizationCount);
-            }
+            int customizationCount = macrocycleCustomizationService.resetAllCustomizations(macrocycle);
+            int workoutCount = workoutSessionRepository.dissociateMacrocycleFromUserSessions(usuario, macrocycle, LocalDateTime.now());
+            eventPublisher.publishEvent(new WorkoutSessionsChangedEvent(
+                    usuario.getId(), WorkoutSessionsChangedEvent.Reason.MACROCYCLE_RESET));
 
-            if (workoutCount > 0) {
-                workoutSessionRepository.dissociateMacrocycleFromUserSessions(usuario, macrocycle);
-                logger.info("Desasociados {} entrenamientos durante reset", workoutCount);
-            }
+            logger.info("Eliminadas {} customizaciones y desasociados {} entrenamientos durante reset",
+                    customizationCount, workoutCount);
 
             LocalDate oldStartDate = macrocycle.getStartDate();
             macrocycle.setStartDate(newStartDate);
@@ -633,54 +635,22 @@ public class MacrocycleController {
 
             String macrocycleName = macrocycle.getName();
 
+            // Limpieza con sentencias DELETE/UPDATE masivas: el número de sentencias no depende
+            // de cuántas customizaciones o entrenamientos tenga el macrociclo
+            int customizationCount = macrocycleCustomizationService.resetAllCustomizations(macrocycle);
+            int workoutSessionsCount = workoutSessionRepository.dissociateMacrocycleFromUserSessions(usuario, macrocycle, LocalDateTime.now());
+            int dayPlanCount = dayPlanRepository.deleteByMacrocycle(macrocycle);
 
-            long customizationCount = 0;
-            long workoutSessionsCount = 0;
-
-            if (macrocycle.isCurrentlyActive()) {
-                logger.info("Macrociclo activo detectado, realizando limpieza como en deactivate...");
-
-                // Contar customizaciones antes de eliminar
-                customizationCount = macrocycleDayCustomizationRepository.countByMacrocycle(macrocycle);
-                workoutSessionsCount = workoutSessionRepository.countByMacrocycle(macrocycle);
-
-                // Eliminar customizaciones (igual que en deactivate)
-                if (customizationCount > 0) {
-                    macrocycleCustomizationService.resetAllCustomizations(macrocycle);
-                    logger.info("Eliminadas {} customizaciones", customizationCount);
-                }
-
-                // Desasociar entrenamientos (igual que en deactivate)
-                if (workoutSessionsCount > 0) {
-                    workoutSessionRepository.dissociateMacrocycleFromUserSessions(usuario, macrocycle);
-                    logger.info("Desasociados {} entrenamientos", workoutSessionsCount);
-                }
-
-                // Desactivar el macrociclo
-                macrocycle.setCurrentlyActive(false);
-                macrocycleRepository.save(macrocycle);
-                logger.info("Macrociclo desactivado antes de eliminar");
-            } else {
-                // Si no está activo, aún puede tener customizaciones antiguas
-                customizationCount = macrocycleDayCustomizationRepository.countByMacrocycle(macrocycle);
-                workoutSessionsCount = workoutSessionRepository.countByMacrocycle(macrocycle);
-
-                if (customizationCount > 0) {
-                    macrocycleCustomizationService.resetAllCustomizations(macrocycle);
-                    logger.info("Eliminadas {} customizaciones residuales", customizationCount);
-                }
-
-                if (workoutSessionsCount > 0) {
-                    workoutSessionRepository.dissociateMacrocycleFromUserSessions(usuario, macrocycle);
-                    logger.info("Desasociados {} entrenamientos residuales", workoutSessionsCount);
-                }
-            }
-
-
-            dayPlanRepository.deleteByMacrocycle(macrocycle);
-
+            logger.info("Eliminadas {} customizaciones y {} planes diarios, desasociados {} entrenamientos",
+                    customizationCount, dayPlanCount, workoutSessionsCount);
 
             macrocycleRepository.delete(macrocycle);
+            tombstoneRepository.save(SyncTombstone.builder()
+                    .userId(usuario.getId())
+                    .entityType(SyncEntityType.MACROCYCLE)
+                    .entityId(id)
+                    .deletedAt(LocalDateTime.now())
+                    .build());
             logger.info("Macrociclo '{}' eliminado exitosamente", macrocycleName);
 
             // Construir mensaje informativo para el usuario
@@ -700,7 +670,8 @@ public class MacrocycleController {
     @GetMapping("/{id}/days/{absoluteDay}")
     public ResponseEntity<?> getDayCustomization(
             @PathVariable Long id,
-            @PathVariable Integer absoluteDay) {
+            @PathVariable Integer absoluteDay,
+            @RequestParam(required = false) String fields) {
 
         logger.info("Solicitando customización del día {} del macrociclo {}", absoluteDay, id);
 
@@ -731,7 +702,7 @@ public class MacrocycleController {
             logger.info("Día {} obtenido: {} - {} customizaciones",
                     absoluteDay, response.getRoutineName(), response.getTotalCustomizations());
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(FieldSelection.parse(fields).apply(response));
 
         } catch (IllegalArgumentException e) {
             logger.warn("Error de validación: {}", e.getMessage());
@@ -838,18 +809,15 @@ public class MacrocycleController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Solo se pueden resetear customizaciones de macrociclos actualmente activos"));
             }
 
-            boolean hadCustomizations = macrocycleDayCustomizationRepository
-                    .existsByMacrocycleAndAbsoluteDay(macrocycle, absoluteDay);
+            int deletedCount = macrocycleCustomizationService.resetDayCustomizations(macrocycle, absoluteDay);
 
-            if (!hadCustomizations) {
+            if (deletedCount == 0) {
                 return ResponseEntity.ok(Map.of(
                         "message", "El día no tenía customizaciones",
                         "hadCustomizations", false
                 ));
             }
 
-            macrocycleCustomizationService.resetDayCustomizations(macrocycle, absoluteDay);
-
             DayCustomizationResponse updatedResponse = macrocycleCustomizationService
                     .getDayCustomization(macrocycle, absoluteDay);
 
@@ -966,6 +934,187 @@ public class MacrocycleController {
         }
     }
 
+    @GetMapping("/{id}/overrides")
+    public ResponseEntity<?> getScopedCustomizations(@PathVariable Long id) {
+        logger.info("Solicitando customizaciones de macrociclo/microciclo del macrociclo {}", id);
+
+        Usuario usuario = getCurrentUser();
+        if (usuario == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Usuario no encontrado"));
+        }
+
+        try {
+            Optional<Macrocycle> macrocycleOpt = macrocycleRepository.findById(id);
+            if (macrocycleOpt.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Macrociclo no encontrado"));
+            }
+
+            Macrocycle macrocycle = macrocycleOpt.get();
+
+            if (!macrocycle.getCreatedBy().getId().equals(usuario.getId())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "No tienes permisos para ver este macrociclo"));
+            }
+
+            List<Map<String, Object>> overrides = macrocycleCustomizationService.getScopedCustomizations(macrocycle)
+                    .stream()
+                    .map(this::convertScopedCustomization)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(Map.of(
+                    "macrocycleId", id,
+                    "overrides", overrides,
+                    "totalOverrides", overrides.size()
+            ));
+
+        } catch (Exception e) {
+            logger.error("Error obteniendo customizaciones de macrociclo/microciclo", e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    @PutMapping("/{id}/customize")
+    public ResponseEntity<?> customizeMacrocycle(
+            @PathVariable Long id,
+            @RequestBody ScopedCustomizationRequest request) {
+
+        logger.info("Customizando todo el macrociclo {} - {} series", id, request.getCustomizationCount());
+        return saveScopedCustomizations(id, CustomizationScope.MACROCYCLE, null, request);
+    }
+
+    @DeleteMapping("/{id}/customize")
+    public ResponseEntity<?> resetMacrocycleCustomizations(@PathVariable Long id) {
+        logger.info("Reseteando customizaciones de ámbito macrociclo del macrociclo {}", id);
+        return resetScopedCustomizations(id, CustomizationScope.MACROCYCLE, null);
+    }
+
+    @PutMapping("/{id}/microcycles/{microcycleNumber}/customize")
+    public ResponseEntity<?> customizeMicrocycle(
+            @PathVariable Long id,
+            @PathVariable Integer microcycleNumber,
+            @RequestBody ScopedCustomizationRequest request) {
+
+        logger.info("Customizando microciclo {} del macrociclo {} - {} series",
+                microcycleNumber, id, request.getCustomizationCount());
+        return saveScopedCustomizations(id, CustomizationScope.MICROCYCLE, microcycleNumber, request);
+    }
+
+    @DeleteMapping("/{id}/microcycles/{microcycleNumber}/customize")
+    public ResponseEntity<?> resetMicrocycleCustomizations(
+            @PathVariable Long id,
+            @PathVariable Integer microcycleNumber) {
+
+        logger.info("Reseteando customizaciones del microciclo {} del macrociclo {}", microcycleNumber, id);
+        return resetScopedCustomizations(id, CustomizationScope.MICROCYCLE, microcycleNumber);
+    }
+
+    private ResponseEntity<?> saveScopedCustomizations(Long id, CustomizationScope scope, Integer microcycleNumber,
+                                                       ScopedCustomizationRequest request) {
+        Usuario usuario = getCurrentUser();
+        if (usuario == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Usuario no encontrado"));
+        }
+
+        try {
+            Optional<Macrocycle> macrocycleOpt = macrocycleRepository.findById(id);
+            if (macrocycleOpt.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Macrociclo no encontrado"));
+            }
+
+            Macrocycle macrocycle = macrocycleOpt.get();
+
+            if (!macrocycle.getCreatedBy().getId().equals(usuario.getId())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "No tienes permisos para modificar este macrociclo"));
+            }
+
+            if (macrocycle.isArchived()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "No se puede modificar un macrociclo archivado"));
+            }
+
+            if (!macrocycle.isCurrentlyActive()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Solo se pueden customizar macrociclos actualmente activos"));
+            }
+
+            if (!request.isValid()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Datos de customización inválidos"));
+            }
+
+            macrocycleCustomizationService.saveScopedCustomizations(macrocycle, scope, microcycleNumber, request);
+
+            List<Map<String, Object>> overrides = macrocycleCustomizationService.getScopedCustomizations(macrocycle)
+                    .stream()
+                    .map(this::convertScopedCustomization)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(Map.of(
+                    "message", "Customizaciones guardadas exitosamente",
+                    "overrides", overrides
+            ));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Error de validación: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error guardando customizaciones de ámbito {}", scope, e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    private ResponseEntity<?> resetScopedCustomizations(Long id, CustomizationScope scope, Integer microcycleNumber) {
+        Usuario usuario = getCurrentUser();
+        if (usuario == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Usuario no encontrado"));
+        }
+
+        try {
+            Optional<Macrocycle> macrocycleOpt = macrocycleRepository.findById(id);
+            if (macrocycleOpt.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Macrociclo no encontrado"));
+            }
+
+            Macrocycle macrocycle = macrocycleOpt.get();
+
+            if (!macrocycle.getCreatedBy().getId().equals(usuario.getId())) {
+                return ResponseEntity.badRequest().body(Map.of("error", "No tienes permisos para modificar este macrociclo"));
+            }
+
+            if (macrocycle.isArchived()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "No se puede modificar un macrociclo archivado"));
+            }
+
+            int deletedCount = macrocycleCustomizationService.resetScopedCustomizations(macrocycle, scope, microcycleNumber);
+
+            return ResponseEntity.ok(Map.of(
+                    "message", "Customizaciones reseteadas exitosamente",
+                    "hadCustomizations", deletedCount > 0,
+                    "customizationsDeleted", deletedCount
+            ));
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Error de validación: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error reseteando customizaciones de ámbito {}", scope, e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    private Map<String, Object> convertScopedCustomization(MacrocycleScopedCustomization customization) {
+        Map<String, Object> dto = new HashMap<>();
+        dto.put("id", customization.getId());
+        dto.put("scope", customization.getScope().name());
+        dto.put("microcycleNumber", customization.getScope() == CustomizationScope.MICROCYCLE
+                ? customization.getMicrocycleNumber() : null);
+        dto.put("routineExerciseId", customization.getRoutineExercise().getId());
+        dto.put("exerciseSetId", customization.getExerciseSet().getId());
+        dto.put("customRepsMin", customization.getCustomRepsMin());
+        dto.put("customRepsMax", customization.getCustomRepsMax());
+        dto.put("customWeight", customization.getCustomWeight());
+        dto.put("customRir", customization.getCustomRir());
+        dto.put("customRpe", customization.getCustomRpe());
+        dto.put("customNotes", customization.getCustomNotes());
+        return dto;
+    }
+
     private Usuario getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -0,0 +1,61 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.dto.PartitionStatusResponse;
+import com.example.stayrpe.service.WorkoutSessionPartitionService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Particiones trimestrales de workout_sessions: límites y filas aproximadas de cada una, creación
+ * manual de los trimestres siguientes y comprobación con EXPLAIN de que las consultas por rango
+ * solo leen las particiones que les tocan.
+ */
+@RestController
+@RequestMapping("/admin/partitions")
+public class PartitionAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionAdminController.class);
+
+    private final WorkoutSessionPartitionService partitionService;
+
+    public PartitionAdminController(WorkoutSessionPartitionService partitionService) {
+        this.partitionService = partitionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getPartitions() {
+        return ResponseEntity.ok(partitionService.getStatus());
+    }
+
+    @PostMapping("/maintain")
+    public ResponseEntity<?> maintainPartitions() {
+        logger.info("Mantenimiento de particiones lanzado manualmente");
+        try {
+            List<String> created = partitionService.ensureFuturePartitions();
+            return ResponseEntity.ok(Map.of("createdPartitions", created));
+        } catch (Exception e) {
+            logger.error("Error en el mantenimiento manual de particiones", e);
+            return ResponseEntity.status(500).body(Map.of("error", "Error creando particiones"));
+        }
+    }
+
+    /**
+     * 200 si todas las consultas podan particiones; 409 con el mismo cuerpo si alguna no lo hace
+     */
+    @GetMapping("/pruning")
+    public ResponseEntity<?> checkPruning(@RequestParam(required = false) Long userId) {
+        PartitionStatusResponse status = partitionService.getStatus();
+        if (!status.isPartitioned()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "La tabla " + status.getTable() + " no está particionada"));
+        }
+        status.setPruning(partitionService.checkPruning(userId));
+        boolean allPruned = status.getPruning().stream().allMatch(PartitionStatusResponse.PruningCheck::isPruned);
+        return ResponseEntity.status(allPruned ? 200 : 409).body(status);
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.stayrpe.rest;
 
+import com.example.stayrpe.config.FieldSelection;
 import com.example.stayrpe.dto.*;
 import com.example.stayrpe.model.*;
 import com.example.stayrpe.repository.*;
+import com.example.stayrpe.service.RoutineUpdateService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,12 +12,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,6 +36,7 @@ public class RoutineController {
     private final ExerciseRepository exerciseRepository;
     private final UsuarioRepository usuarioRepository;
     private final MacrocycleDayPlanRepository macrocycleDayPlanRepository;
+    private final RoutineUpdateService routineUpdateService;
 
     public RoutineController(
             RoutineRepository routineRepository,
@@ -37,7 +44,8 @@ public class RoutineController {
             ExerciseSetRepository exerciseSetRepository,
             ExerciseRepository exerciseRepository,
             UsuarioRepository usuarioRepository,
-            MacrocycleDayPlanRepository macrocycleDayPlanRepository
+            MacrocycleDayPlanRepository macrocycleDayPlanRepository,
+            RoutineUpdateService routineUpdateService
     ) {
         this.routineRepository = routineRepository;
         this.routineExerciseRepository = routineExerciseRepository;
@@ -45,6 +53,7 @@ public class RoutineController {
         this.exerciseRepository = exerciseRepository;
         this.usuarioRepository = usuarioRepository;
         this.macrocycleDayPlanRepository = macrocycleDayPlanRepository;
+        this.routineUpdateService = routineUpdateService;
     }
 
     @GetMapping
@@ -56,9 +65,7 @@ public class RoutineController {
             return ResponseEntity.badRequest().build();
         }
 
-        List<Routine> routines = routineRepository.findByCreatedByAndIsActiveTrue(usuario);
-
-        List<RoutineListResponse> response = routines.stream()
+        List<RoutineListResponse> response = routineRepository.findRoutineSummariesByUser(usuario).stream()
                 .map(this::convertToListResponse)
                 .collect(Collectors.toList());
 
@@ -67,8 +74,10 @@ public class RoutineController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RoutineResponse> getRoutineById(@PathVariable Long id) {
+    public ResponseEntity<?> getRoutineById(@PathVariable Long id,
+                                            @RequestParam(required = false) String fields) {
         logger.info("Solicitando rutina con ID: {}", id);
+        FieldSelection selection = FieldSelection.parse(fields);
 
         Usuario usuario = getCurrentUser();
         if (usuario == null) {
@@ -86,8 +95,8 @@ public class RoutineController {
             return ResponseEntity.status(403).build();
         }
 
-        RoutineResponse response = convertToFullResponse(routine);
-        return ResponseEntity.ok(response);
+        RoutineResponse response = convertToFullResponse(routine, selection);
+        return ResponseEntity.ok(selection.apply(response));
     }
 
     @PostMapping
@@ -233,14 +242,9 @@ public class RoutineController {
             routine.setName(trimmedName);
             routine.setDescription(routineDTO.getDescription());
 
-            // Como no está en macrociclos activos, podemos proceder normalmente
-            routineExerciseRepository.deleteByRoutineId(routine.getId());
-
-            if (routineDTO.getExercises() != null && !routineDTO.getExercises().isEmpty()) {
-                for (CreateRoutineExerciseDTO exerciseDTO : routineDTO.getExercises()) {
-                    createRoutineExercise(routine, exerciseDTO);
-                }
-            }
+            // Como no está en macrociclos activos, podemos proceder normalmente.
+            // Solo se escriben las filas que cambian y se conservan los ids de las series.
+            routineUpdateService.syncExercises(routine, routineDTO.getExercises());
 
             Routine savedRoutine = routineRepository.save(routine);
             logger.info("Rutina actualizada correctamente: {}", savedRoutine.getName());
@@ -252,9 +256,16 @@ public class RoutineController {
                     "updated", true
             ));
 
+        } catch (IllegalArgumentException e) {
+            // La transacción ya está marcada para rollback; marcarla aquí evita que el commit lance
+            // UnexpectedRollbackException y convierta el 400 en un 500
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            logger.warn("Edición de rutina {} rechazada: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             logger.error("Error al actualizar rutina", e);
-            return ResponseEntity.badRequest().body(Map.of("error", "Error al actualizar la rutina: " + e.getMessage()));
+            return ResponseEntity.status(500).body(Map.of("error", "Error al actualizar la rutina"));
         }
     }
 
@@ -446,18 +457,17 @@ public class RoutineController {
             String newName;
             if (request != null && request.containsKey("name") && !request.get("name").trim().isEmpty()) {
                 newName = request.get("name").trim();
+
+                boolean nameExists = routineRepository.existsByCreatedByAndNameIgnoreCaseAndIsActiveTrue(usuario, newName);
+                if (nameExists) {
+                    return ResponseEntity.badRequest().body(Map.of(
+                            "error", "Ya tienes una rutina con el nombre '" + newName + "'. Por favor, elige un nombre diferente."
+                    ));
+                }
             } else {
                 newName = generateDuplicateName(originalRoutine.getName(), usuario);
             }
 
-            // Verificar que el nombre no exista
-            boolean nameExists = routineRepository.existsByCreatedByAndNameIgnoreCaseAndIsActiveTrue(usuario, newName);
-            if (nameExists) {
-                return ResponseEntity.badRequest().body(Map.of(
-                        "error", "Ya tienes una rutina con el nombre '" + newName + "'. Por favor, elige un nombre diferente."
-                ));
-            }
-
             // Crear la rutina duplicada
             Routine duplicatedRoutine = Routine.builder()
                     .name(newName)
@@ -468,39 +478,15 @@ public class RoutineController {
 
             Routine savedDuplicatedRoutine = routineRepository.save(duplicatedRoutine);
 
-            // Duplicar los ejercicios y series
-            List<RoutineExercise> originalExercises = routineExerciseRepository.findByRoutineIdOrderByOrder(originalRoutine.getId());
-
-            for (RoutineExercise originalExercise : originalExercises) {
-                RoutineExercise duplicatedExercise = RoutineExercise.builder()
-                        .routine(savedDuplicatedRoutine)
-                        .exercise(originalExercise.getExercise())
-                        .order(originalExercise.getOrder())
-                        .numberOfSets(originalExercise.getNumberOfSets())
-                        .restBetweenSets(originalExercise.getRestBetweenSets())
-                        .notes(originalExercise.getNotes())
-                        .build();
-
-                RoutineExercise savedDuplicatedExercise = routineExerciseRepository.save(duplicatedExercise);
+            // Duplicar ejercicios y series con INSERT ... SELECT: coste fijo sea cual sea el tamaño de la rutina
+            LocalDateTime copiedAt = LocalDateTime.now();
+            int copiedExercises = routineExerciseRepository
+                    .copyExercisesToRoutine(originalRoutine.getId(), savedDuplicatedRoutine.getId(), copiedAt);
+            int copiedSets = exerciseSetRepository
+                    .copySetsToRoutine(originalRoutine.getId(), savedDuplicatedRoutine.getId(), copiedAt);
 
-                // Duplicar las series
-                List<ExerciseSet> originalSets = exerciseSetRepository.findByRoutineExerciseIdOrderBySetNumber(originalExercise.getId());
-
-                for (ExerciseSet originalSet : originalSets) {
-                    ExerciseSet duplicatedSet = ExerciseSet.builder()
-                            .routineExercise(savedDuplicatedExercise)
-                            .setNumber(originalSet.getSetNumber())
-                            .targetRepsMin(originalSet.getTargetRepsMin())
-                            .targetRepsMax(originalSet.getTargetRepsMax())
-                            .targetWeight(originalSet.getTargetWeight())
-                            .rir(originalSet.getRir())
-                            .rpe(originalSet.getRpe())
-                            .notes(originalSet.getNotes())
-                            .build();
-
-                    exerciseSetRepository.save(duplicatedSet);
-                }
-            }
+            logger.info("Copiados {} ejercicios y {} series a la rutina {}",
+                    copiedExercises, copiedSets, savedDuplicatedRoutine.getId());
 
             logger.info("Rutina duplicada exitosamente: {} → {}", originalRoutine.getName(), newName);
 
@@ -526,16 +512,26 @@ public class RoutineController {
     }
 
     private String generateDuplicateName(String originalName, Usuario usuario) {
-        String baseName = originalName;
-        int counter = 1;
-        String newName;
+        String prefix = originalName + " (Copia ";
+        String pattern = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%)";
+
+        // Una sola consulta para todos los sufijos "(Copia n)" ya usados
+        Set<Integer> usedNumbers = new HashSet<>();
+        for (String name : routineRepository.findActiveNamesLike(usuario, pattern)) {
+            String suffix = name.substring(prefix.length(), name.length() - 1);
+            try {
+                usedNumbers.add(Integer.parseInt(suffix));
+            } catch (NumberFormatException ignored) {
+                // "(Copia abc)" no ocupa ningún número
+            }
+        }
 
-        do {
-            newName = String.format("%s (Copia %d)", baseName, counter);
+        int counter = 1;
+        while (usedNumbers.contains(counter)) {
             counter++;
-        } while (routineRepository.existsByCreatedByAndNameIgnoreCaseAndIsActiveTrue(usuario, newName));
+        }
 
-        return newName;
+        return String.format("%s (Copia %d)", originalName, counter);
     }
 
     private void createRoutineExercise(Routine routine, CreateRoutineExerciseDTO exerciseDTO) {
@@ -575,31 +571,38 @@ public class RoutineController {
         }
     }
 
-    private RoutineListResponse convertToListResponse(Routine routine) {
-        int totalExercises = routine.getRoutineExercises() != null ? routine.getRoutineExercises().size() : 0;
-        int totalSets = routine.getRoutineExercises() != null ?
-                routine.getRoutineExercises().stream()
-                        .mapToInt(re -> re.getSets() != null ? re.getSets().size() : 0)
-                        .sum() : 0;
-
+    private RoutineListResponse convertToListResponse(Object[] row) {
         return RoutineListResponse.builder()
-                .id(routine.getId())
-                .name(routine.getName())
-                .description(routine.getDescription())
-                .createdAt(routine.getCreatedAt())
-                .updatedAt(routine.getUpdatedAt())
-                .isActive(routine.isActive())
-                .totalExercises(totalExercises)
-                .totalSets(totalSets)
+                .id((Long) row[0])
+                .name((String) row[1])
+                .description((String) row[2])
+                .createdAt((LocalDateTime) row[3])
+                .updatedAt((LocalDateTime) row[4])
+                .isActive((Boolean) row[5])
+                .totalExercises(((Number) row[6]).intValue())
+                .totalSets(((Number) row[7]).intValue())
                 .build();
     }
 
     private RoutineResponse convertToFullResponse(Routine routine) {
-        List<RoutineExerciseResponse> exercises = routineExerciseRepository
-                .findByRoutineIdOrderByOrder(routine.getId())
-                .stream()
-                .map(this::convertToExerciseResponse)
-                .collect(Collectors.toList());
+        return convertToFullResponse(routine, FieldSelection.parse(null));
+    }
+
+    private RoutineResponse convertToFullResponse(Routine routine, FieldSelection selection) {
+        // Dos consultas para toda la rutina: ejercicios (con su Exercise) y todas sus series.
+        // Las que no hacen falta para los campos pedidos no se lanzan
+        Map<Long, List<ExerciseSet>> setsByExercise = selection.includes("exercises.sets")
+                ? exerciseSetRepository.findByRoutineIdOrderBySetNumber(routine.getId())
+                        .stream()
+                        .collect(Collectors.groupingBy(es -> es.getRoutineExercise().getId()))
+                : Map.of();
+
+        List<RoutineExerciseResponse> exercises = selection.includes("exercises")
+                ? routineExerciseRepository.findByRoutineIdOrderByOrder(routine.getId())
+                        .stream()
+                        .map(re -> convertToExerciseResponse(re, setsByExercise.getOrDefault(re.getId(), List.of())))
+                        .collect(Collectors.toList())
+                : null;
 
         return RoutineResponse.builder()
                 .id(routine.getId())
@@ -613,10 +616,8 @@ public class RoutineController {
                 .build();
     }
 
-    private RoutineExerciseResponse convertToExerciseResponse(RoutineExercise routineExercise) {
-        List<ExerciseSetResponse> sets = exerciseSetRepository
-                .findByRoutineExerciseIdOrderBySetNumber(routineExercise.getId())
-                .stream()
+    private RoutineExerciseResponse convertToExerciseResponse(RoutineExercise routineExercise, List<ExerciseSet> exerciseSets) {
+        List<ExerciseSetResponse> sets = exerciseSets.stream()
                 .map(this::convertToSetResponse)
                 .collect(Collectors.toList());
 
@@ -0,0 +1,71 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.config.SqlEndpointStats;
+import com.example.stayrpe.dto.SqlStatsResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sentencias SQL y tiempo JDBC por endpoint, ordenados por número total de sentencias:
+ * los primeros son los candidatos a N+1.
+ */
+@RestController
+@RequestMapping("/admin/sql-stats")
+public class SqlStatsController {
+
+    private final SqlEndpointStats sqlEndpointStats;
+    private final int warnStatements;
+    private final long warnJdbcMs;
+
+    public SqlStatsController(
+            SqlEndpointStats sqlEndpointStats,
+            @Value("${stayrpe.sql.warn-statements:30}") int warnStatements,
+            @Value("${stayrpe.sql.warn-jdbc-ms:500}") long warnJdbcMs
+    ) {
+        this.sqlEndpointStats = sqlEndpointStats;
+        this.warnStatements = warnStatements;
+        this.warnJdbcMs = warnJdbcMs;
+    }
+
+    @GetMapping
+    public ResponseEntity<SqlStatsResponse> getSqlStats() {
+        List<SqlStatsResponse.EndpointStats> endpoints = new ArrayList<>();
+
+        for (Map.Entry<String, SqlEndpointStats.EndpointTotals> entry : sqlEndpointStats.getTotalsByEndpoint().entrySet()) {
+            SqlEndpointStats.EndpointTotals totals = entry.getValue();
+            long requests = Math.max(totals.getRequests(), 1);
+            double totalJdbcMs = totals.getJdbcNanos() / 1_000_000.0;
+
+            endpoints.add(SqlStatsResponse.EndpointStats.builder()
+                    .endpoint(entry.getKey())
+                    .requests(totals.getRequests())
+                    .avgStatements((double) totals.getStatements() / requests)
+                    .maxStatements(totals.getMaxStatements())
+                    .avgJdbcMs(totalJdbcMs / requests)
+                    .totalJdbcMs(totalJdbcMs)
+                    .overThreshold(totals.getOverThreshold())
+                    .build());
+        }
+        endpoints.sort(Comparator.comparingDouble(
+                (SqlStatsResponse.EndpointStats stats) -> stats.getAvgStatements() * stats.getRequests()).reversed());
+
+        return ResponseEntity.ok(SqlStatsResponse.builder()
+                .warnStatements(warnStatements)
+                .warnJdbcMs(warnJdbcMs)
+                .endpoints(endpoints)
+                .build());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> resetSqlStats() {
+        sqlEndpointStats.clear();
+        return ResponseEntity.ok(Map.of("message", "Estadísticas reiniciadas"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.dto.ChangeFeedResponse;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.UsuarioRepository;
+import com.example.stayrpe.service.ChangeFeedService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+
+    private final ChangeFeedService changeFeedService;
+    private final UsuarioRepository usuarioRepository;
+
+    public SyncController(
+            ChangeFeedService changeFeedService,
+            UsuarioRepository usuarioRepository
+    ) {
+        this.changeFeedService = changeFeedService;
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    /**
+     * Cambios desde el syncToken de la respuesta anterior; sin since devuelve todo (fullSync)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since) {
+        Usuario usuario = getCurrentUser();
+        if (usuario == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Usuario no encontrado"));
+        }
+
+        try {
+            ChangeFeedResponse changes = changeFeedService.getChanges(usuario, since);
+            return ResponseEntity.ok(changes);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Error de validación en sincronización: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error obteniendo cambios para sincronización", e);
+            return ResponseEntity.status(500).body(Map.of("error", "Error interno del servidor"));
+        }
+    }
+
+    private Usuario getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
+        return usuarioRepository.findByUsername(username).orElse(null);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.config.VirtualThreadPinningMonitor;
+import com.example.stayrpe.dto.ThreadingStatsResponse;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modo de ejecución de las peticiones (hilos de plataforma o virtuales) y, con hilos virtuales,
+ * los sitios donde se han anclado a su hilo portador, ordenados por tiempo total anclado.
+ */
+@RestController
+@RequestMapping("/admin/threading")
+public class ThreadingStatsController {
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    public ThreadingStatsController(VirtualThreadPinningMonitor pinningMonitor) {
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    @GetMapping
+    public ResponseEntity<ThreadingStatsResponse> getThreadingStats() {
+        List<ThreadingStatsResponse.PinnedSite> sites = new ArrayList<>();
+
+        for (Map.Entry<String, VirtualThreadPinningMonitor.PinnedSite> entry : pinningMonitor.getSites().entrySet()) {
+            VirtualThreadPinningMonitor.PinnedSite site = entry.getValue();
+            sites.add(ThreadingStatsResponse.PinnedSite.builder()
+                    .site(entry.getKey())
+                    .events(site.getEvents())
+                    .totalMs(site.getNanos() / 1_000_000.0)
+                    .maxMs(site.getMaxNanos() / 1_000_000.0)
+                    .stackTrace(site.getStackTrace())
+                    .build());
+        }
+        sites.sort(Comparator.comparingDouble(ThreadingStatsResponse.PinnedSite::getTotalMs).reversed());
+
+        return ResponseEntity.ok(ThreadingStatsResponse.builder()
+                .javaVersion(Runtime.version().feature())
+                .virtualThreadsEnabled(pinningMonitor.isVirtualThreadsEnabled())
+                .servingOnVirtualThreads(pinningMonitor.isVirtualThreadsEnabled()
+                        && VirtualThreadPinningMonitor.supportsVirtualThreads())
+                .pinningRecording(pinningMonitor.isRecording())
+                .pinningThresholdMs(pinningMonitor.getThresholdMs())
+                .pinnedSites(sites)
+                .build());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> resetThreadingStats() {
+        pinningMonitor.clear();
+        return ResponseEntity.ok(Map.of("message", "Estadísticas reiniciadas"));
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.stayrpe.rest;
 
+import com.example.stayrpe.config.FieldSelection;
 import com.example.stayrpe.dto.*;
 import com.example.stayrpe.model.Usuario;
 import com.example.stayrpe.model.WorkoutSession;
 import com.example.stayrpe.repository.UsuarioRepository;
 import com.example.stayrpe.service.WorkoutSessionService;
+import com.example.stayrpe.service.WorkoutStatsCache;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,13 +27,16 @@ public class WorkoutHistoryController {
     private static final Logger logger = LoggerFactory.getLogger(WorkoutHistoryController.class);
 
     private final WorkoutSessionService workoutSessionService;
+    private final WorkoutStatsCache workoutStatsCache;
     private final UsuarioRepository usuarioRepository;
 
     public WorkoutHistoryController(
             WorkoutSessionService workoutSessionService,
+            WorkoutStatsCache workoutStatsCache,
             UsuarioRepository usuarioRepository
     ) {
         this.workoutSessionService = workoutSessionService;
+        this.workoutStatsCache = workoutStatsCache;
         this.usuarioRepository = usuarioRepository;
     }
 
@@ -143,10 +148,12 @@ public class WorkoutHistoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<WorkoutHistoryResponse>> getWorkoutHistory(
-            @RequestParam(defaultValue = "20") int limit) {
+    public ResponseEntity<?> getWorkoutHistory(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String fields) {
 
         logger.info("Solicitando historial de entrenamientos (límite: {})", limit);
+        FieldSelection selection = FieldSelection.parse(fields);
 
         Usuario usuario = getCurrentUser();
         if (usuario == null) {
@@ -154,12 +161,15 @@ public class WorkoutHistoryController {
         }
 
         try {
-            List<WorkoutHistoryResponse> history = workoutSessionService.getWorkoutHistory(usuario, limit);
+            // Si la lista no muestra notas ni descripción basta con la consulta de proyección
+            List<WorkoutHistoryResponse> history = selection.includes("notes") || selection.includes("routineDescription")
+                    ? workoutSessionService.getWorkoutHistory(usuario, limit)
+                    : workoutSessionService.getWorkoutHistorySummaries(usuario, limit);
 
             logger.info("Devolviendo {} entrenamientos del historial para usuario: {}",
                     history.size(), usuario.getUsername());
 
-            return ResponseEntity.ok(history);
+            return ResponseEntity.ok(selection.apply(history));
 
         } catch (Exception e) {
             logger.error("Error obteniendo historial de entrenamientos", e);
@@ -168,8 +178,10 @@ public class WorkoutHistoryController {
     }
 
     @GetMapping("/{sessionId}")
-    public ResponseEntity<?> getWorkoutDetails(@PathVariable Long sessionId) {
+    public ResponseEntity<?> getWorkoutDetails(@PathVariable Long sessionId,
+                                               @RequestParam(required = false) String fields) {
         logger.info("Solicitando detalles de sesión: {}", sessionId);
+        FieldSelection selection = FieldSelection.parse(fields);
 
         Usuario usuario = getCurrentUser();
         if (usuario == null) {
@@ -177,14 +189,15 @@ public class WorkoutHistoryController {
         }
 
         try {
-            Optional<WorkoutHistoryResponse> details = workoutSessionService.getWorkoutDetails(usuario, sessionId);
+            Optional<WorkoutHistoryResponse> details = workoutSessionService.getWorkoutDetails(usuario, sessionId,
+                    selection.includes("exercises"));
 
             if (details.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
             logger.info("Devolviendo detalles de sesión {} para usuario: {}", sessionId, usuario.getUsername());
-            return ResponseEntity.ok(details.get());
+            return ResponseEntity.ok(selection.apply(details.get()));
 
         } catch (Exception e) {
             logger.error("Error obteniendo detalles de sesión", e);
@@ -202,7 +215,7 @@ public class WorkoutHistoryController {
         }
 
         try {
-            WorkoutStatsResponse stats = workoutSessionService.getWorkoutStats(usuario);
+            WorkoutStatsResponse stats = workoutStatsCache.getStats(usuario);
 
             logger.info("Devolviendo estadísticas para usuario: {} - {} entrenamientos totales",
                     usuario.getUsername(), stats.getTotalWorkouts());
@@ -225,7 +238,7 @@ public class WorkoutHistoryController {
         }
 
         try {
-            WorkoutStatsResponse stats = workoutSessionService.getWorkoutStats(usuario);
+            WorkoutStatsResponse stats = workoutStatsCache.getStats(usuario);
 
             Map<String, Object> summary = new HashMap<>();
 
@@ -298,7 +311,17 @@ public class WorkoutHistoryController {
             return ResponseEntity.badRequest().body(Map.of("error", "Usuario no encontrado"));
         }
 
-        return ResponseEntity.badRequest().body(Map.of("error", "Funcionalidad no implementada"));
+        try {
+            if (!workoutSessionService.deleteWorkoutSession(usuario, sessionId)) {
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok(Map.of("message", "Entrenamiento eliminado correctamente"));
+
+        } catch (Exception e) {
+            logger.error("Error eliminando sesión {}", sessionId, e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Error interno del servidor"));
+        }
     }
 
     private Usuario getCurrentUser() {
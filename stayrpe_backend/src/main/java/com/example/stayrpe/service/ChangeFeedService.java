@@ -0,0 +1,271 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.ChangeFeedResponse;
+import com.example.stayrpe.model.*;
+import com.example.stayrpe.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed para la sincronización incremental de la app: devuelve lo creado o modificado
+ * (columna updated_at) desde el último token y los borrados registrados en sync_tombstones.
+ *
+ * El token son los milisegundos epoch del inicio de la consulta anterior. Se consulta desde
+ * token - overlap-seconds para no perder filas escritas por transacciones que aún no habían
+ * confirmado; el cliente recibe alguna fila repetida y la aplica de forma idempotente por id.
+ * Sin token, o con uno anterior a la retención de las lápidas, se devuelve todo (fullSync).
+ *
+ * Transacción de lectura-escritura a propósito: las de solo lectura van a la réplica, y un
+ * retraso de replicación haría que el token avanzase sobre cambios que aún no se ven.
+ */
+@Service
+@Transactional
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final RoutineRepository routineRepository;
+    private final RoutineExerciseRepository routineExerciseRepository;
+    private final ExerciseSetRepository exerciseSetRepository;
+    private final MacrocycleRepository macrocycleRepository;
+    private final MacrocycleDayPlanRepository dayPlanRepository;
+    private final MacrocycleDayCustomizationRepository customizationRepository;
+    private final MacrocycleScopedCustomizationRepository scopedCustomizationRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final WorkoutSessionService workoutSessionService;
+    private final long overlapSeconds;
+    private final int tombstoneRetentionDays;
+
+    public ChangeFeedService(
+            RoutineRepository routineRepository,
+            RoutineExerciseRepository routineExerciseRepository,
+            ExerciseSetRepository exerciseSetRepository,
+            MacrocycleRepository macrocycleRepository,
+            MacrocycleDayPlanRepository dayPlanRepository,
+            MacrocycleDayCustomizationRepository customizationRepository,
+            MacrocycleScopedCustomizationRepository scopedCustomizationRepository,
+            SyncTombstoneRepository tombstoneRepository,
+            WorkoutSessionService workoutSessionService,
+            @Value("${stayrpe.sync.overlap-seconds:10}") long overlapSeconds,
+            @Value("${stayrpe.sync.tombstone-retention-days:90}") int tombstoneRetentionDays
+    ) {
+        this.routineRepository = routineRepository;
+        this.routineExerciseRepository = routineExerciseRepository;
+        this.exerciseSetRepository = exerciseSetRepository;
+        this.macrocycleRepository = macrocycleRepository;
+        this.dayPlanRepository = dayPlanRepository;
+        this.customizationRepository = customizationRepository;
+        this.scopedCustomizationRepository = scopedCustomizationRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.workoutSessionService = workoutSessionService;
+        this.overlapSeconds = overlapSeconds;
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    /**
+     * @param syncToken token devuelto por la llamada anterior, o null para una sincronización completa
+     * @throws IllegalArgumentException si el token no tiene el formato esperado
+     */
+    public ChangeFeedResponse getChanges(Usuario usuario, String syncToken) {
+        long queryStart = System.currentTimeMillis();
+        LocalDateTime since = resolveSince(syncToken, queryStart);
+        boolean fullSync = since == null;
+
+        List<ChangeFeedResponse.Deletion> deleted = new ArrayList<>();
+        List<ChangeFeedResponse.RoutineChange> routines = new ArrayList<>();
+        for (Routine routine : routineRepository.findChangedByUser(usuario, since)) {
+            if (routine.isActive()) {
+                routines.add(ChangeFeedResponse.RoutineChange.builder()
+                        .id(routine.getId())
+                        .name(routine.getName())
+                        .description(routine.getDescription())
+                        .updatedAt(routine.getUpdatedAt())
+                        .build());
+            } else if (!fullSync) {
+                // Las rutinas se borran de forma lógica: para el cliente es un borrado
+                deleted.add(deletion(SyncEntityType.ROUTINE, routine.getId(), routine.getUpdatedAt()));
+            }
+        }
+
+        List<ChangeFeedResponse.RoutineExerciseChange> routineExercises = routineExerciseRepository
+                .findChangedByUser(usuario, since).stream()
+                .map(re -> ChangeFeedResponse.RoutineExerciseChange.builder()
+                        .id(re.getId())
+                        .routineId(re.getRoutine().getId())
+                        .exerciseId(re.getExercise() != null ? re.getExercise().getId() : null)
+                        .exerciseName(re.getExercise() != null ? re.getExercise().getName() : null)
+                        .exerciseMuscle(re.getExercise() != null ? re.getExercise().getMuscle() : null)
+                        .order(re.getOrder())
+                        .numberOfSets(re.getNumberOfSets())
+                        .restBetweenSets(re.getRestBetweenSets())
+                        .notes(re.getNotes())
+                        .updatedAt(re.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<ChangeFeedResponse.ExerciseSetChange> exerciseSets = exerciseSetRepository
+                .findChangedByUser(usuario, since).stream()
+                .map(es -> ChangeFeedResponse.ExerciseSetChange.builder()
+                        .id(es.getId())
+                        .routineExerciseId(es.getRoutineExercise().getId())
+                        .setNumber(es.getSetNumber())
+                        .targetRepsMin(es.getTargetRepsMin())
+                        .targetRepsMax(es.getTargetRepsMax())
+                        .targetWeight(es.getTargetWeight())
+                        .rir(es.getRir())
+                        .rpe(es.getRpe())
+                        .notes(es.getNotes())
+                        .updatedAt(es.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<ChangeFeedResponse.MacrocycleChange> macrocycles = macrocycleRepository
+                .findChangedByUser(usuario, since).stream()
+                .map(m -> ChangeFeedResponse.MacrocycleChange.builder()
+                        .id(m.getId())
+                        .name(m.getName())
+                        .description(m.getDescription())
+                        .startDate(m.getStartDate())
+                        .microcycleDurationDays(m.getMicrocycleDurationDays())
+                        .totalMicrocycles(m.getTotalMicrocycles())
+                        .archived(m.isArchived())
+                        .currentlyActive(m.isCurrentlyActive())
+                        .updatedAt(m.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<ChangeFeedResponse.DayPlanChange> dayPlans = dayPlanRepository
+                .findChangedByUser(usuario, since).stream()
+                .map(dp -> ChangeFeedResponse.DayPlanChange.builder()
+                        .id(dp.getId())
+                        .macrocycleId(dp.getMacrocycle().getId())
+                        .dayNumber(dp.getDayNumber())
+                        .routineId(dp.getRoutine() != null ? dp.getRoutine().getId() : null)
+                        .routineName(dp.getRoutine() != null ? dp.getRoutine().getName() : null)
+                        .restDay(dp.getIsRestDay())
+                        .updatedAt(dp.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<ChangeFeedResponse.DayCustomizationChange> dayCustomizations = customizationRepository
+                .findChangedByUser(usuario, since).stream()
+                .map(c -> ChangeFeedResponse.DayCustomizationChange.builder()
+                        .id(c.getId())
+                        .macrocycleId(c.getMacrocycle().getId())
+                        .absoluteDay(c.getAbsoluteDay())
+                        .routineExerciseId(c.getRoutineExercise().getId())
+                        .exerciseSetId(c.getExerciseSet().getId())
+                        .customRepsMin(c.getCustomRepsMin())
+                        .customRepsMax(c.getCustomRepsMax())
+                        .customWeight(c.getCustomWeight())
+                        .customRir(c.getCustomRir())
+                        .customRpe(c.getCustomRpe())
+                        .customNotes(c.getCustomNotes())
+                        .updatedAt(c.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<ChangeFeedResponse.ScopedCustomizationChange> scopedCustomizations = scopedCustomizationRepository
+                .findChangedByUser(usuario, since).stream()
+                .map(sc -> ChangeFeedResponse.ScopedCustomizationChange.builder()
+                        .id(sc.getId())
+                        .macrocycleId(sc.getMacrocycle().getId())
+                        .scope(sc.getScope().name())
+                        .microcycleNumber(sc.getScope() == CustomizationScope.MICROCYCLE ? sc.getMicrocycleNumber() : null)
+                        .routineExerciseId(sc.getRoutineExercise().getId())
+                        .exerciseSetId(sc.getExerciseSet().getId())
+                        .customRepsMin(sc.getCustomRepsMin())
+                        .customRepsMax(sc.getCustomRepsMax())
+                        .customWeight(sc.getCustomWeight())
+                        .customRir(sc.getCustomRir())
+                        .customRpe(sc.getCustomRpe())
+                        .customNotes(sc.getCustomNotes())
+                        .updatedAt(sc.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        if (!fullSync) {
+            tombstoneRepository.findByUserIdSince(usuario.getId(), since)
+                    .forEach(t -> deleted.add(deletion(t.getEntityType(), t.getEntityId(), t.getDeletedAt())));
+            deleted.sort(Comparator.comparing(ChangeFeedResponse.Deletion::getDeletedAt));
+        }
+
+        ChangeFeedResponse response = ChangeFeedResponse.builder()
+                .syncToken(String.valueOf(queryStart))
+                .fullSync(fullSync)
+                .routines(routines)
+                .routineExercises(routineExercises)
+                .exerciseSets(exerciseSets)
+                .macrocycles(macrocycles)
+                .dayPlans(dayPlans)
+                .dayCustomizations(dayCustomizations)
+                .scopedCustomizations(scopedCustomizations)
+                .workoutSessions(workoutSessionService.getWorkoutHistorySummariesChangedSince(usuario, since))
+                .deleted(deleted)
+                .build();
+
+        logger.info("Change feed del usuario {} desde {}: {} rutinas, {} ejercicios, {} series, {} macrociclos, " +
+                        "{} planes, {} customizaciones por día, {} por ámbito, {} entrenamientos, {} borrados",
+                usuario.getId(), fullSync ? "el inicio" : since, routines.size(), routineExercises.size(),
+                exerciseSets.size(), macrocycles.size(), dayPlans.size(), dayCustomizations.size(),
+                scopedCustomizations.size(), response.getWorkoutSessions().size(), deleted.size());
+        return response;
+    }
+
+    @Scheduled(cron = "${stayrpe.sync.tombstone-cleanup-cron:0 30 4 * * *}")
+    public void purgeExpiredTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (purged > 0) {
+            logger.info("Eliminadas {} lápidas de sincronización de más de {} días", purged, tombstoneRetentionDays);
+        }
+    }
+
+    // null = sincronización completa
+    private LocalDateTime resolveSince(String syncToken, long queryStart) {
+        if (syncToken == null || syncToken.isBlank()) {
+            return null;
+        }
+
+        long tokenMillis;
+        try {
+            tokenMillis = Long.parseLong(syncToken.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Token de sincronización no válido: " + syncToken);
+        }
+        if (tokenMillis <= 0 || tokenMillis > queryStart) {
+            throw new IllegalArgumentException("Token de sincronización no válido: " + syncToken);
+        }
+
+        LocalDateTime since = toLocalDateTime(tokenMillis - overlapSeconds * 1000);
+        if (since.isBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays))) {
+            logger.info("Token de sincronización anterior a la retención de {} días: sincronización completa",
+                    tombstoneRetentionDays);
+            return null;
+        }
+        return since;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static ChangeFeedResponse.Deletion deletion(SyncEntityType type, Long id, LocalDateTime deletedAt) {
+        return ChangeFeedResponse.Deletion.builder()
+                .type(type.name())
+                .id(id)
+                .deletedAt(deletedAt)
+                .build();
+    }
+}
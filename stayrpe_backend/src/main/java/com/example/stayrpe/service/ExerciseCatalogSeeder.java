@@ -0,0 +1,198 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.model.CatalogSeedState;
+import com.example.stayrpe.model.Exercise;
+import com.example.stayrpe.repository.CatalogSeedStateRepository;
+import com.example.stayrpe.repository.ExerciseRepository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Aplica el catálogo de ejercicios predefinidos incluido en la aplicación
+ * ({@code stayrpe.exercises.seed.location}) sobre la base de datos.
+ * Si el checksum del recurso ya está aplicado no se hace nada más; si no, se compara con los
+ * predefinidos existentes por nombre normalizado y solo se insertan o actualizan los que difieren,
+ * en lotes JDBC. Los predefinidos que ya no están en el recurso se conservan porque pueden estar
+ * referenciados por rutinas.
+ */
+@Service
+@Transactional
+public class ExerciseCatalogSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExerciseCatalogSeeder.class);
+
+    static final String CATALOG_NAME = "exercises";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ExerciseRepository exerciseRepository;
+    private final CatalogSeedStateRepository catalogSeedStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String location;
+
+    public ExerciseCatalogSeeder(
+            ExerciseRepository exerciseRepository,
+            CatalogSeedStateRepository catalogSeedStateRepository,
+            JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory,
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            @Value("${stayrpe.exercises.seed.location:classpath:catalog/exercises.json}") String location
+    ) {
+        this.exerciseRepository = exerciseRepository;
+        this.catalogSeedStateRepository = catalogSeedStateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.location = location;
+    }
+
+    public SeedResult seed() {
+        long start = System.nanoTime();
+        SeedResult result = new SeedResult();
+
+        byte[] content = readResource();
+        CatalogFile catalog;
+        try {
+            catalog = objectMapper.readValue(content, CatalogFile.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Catálogo de ejercicios ilegible: " + location, e);
+        }
+        String checksum = sha256(content);
+        result.setVersion(catalog.getVersion());
+
+        CatalogSeedState state = catalogSeedStateRepository.findById(CATALOG_NAME).orElse(null);
+        if (state != null && checksum.equals(state.getChecksum())
+                && exerciseRepository.countByIsCustomFalse() >= state.getEntryCount()) {
+            result.setUpToDate(true);
+            result.setDurationMs((System.nanoTime() - start) / 1_000_000);
+            return result;
+        }
+
+        Map<String, Exercise> existing = new HashMap<>();
+        for (Exercise exercise : exerciseRepository.findByIsCustomFalse()) {
+            existing.putIfAbsent(ExerciseSearchIndex.normalize(exercise.getName()), exercise);
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (CatalogEntry entry : catalog.getExercises()) {
+            String key = ExerciseSearchIndex.normalize(entry.getName());
+            if (key.isEmpty() || entry.getMuscle() == null || !seen.add(key)) {
+                logger.warn("Entrada del catálogo ignorada (vacía o repetida): '{}'", entry.getName());
+                continue;
+            }
+
+            Exercise current = existing.get(key);
+            if (current == null) {
+                inserts.add(new Object[]{entry.getName(), entry.getMuscle(), entry.getMuscleGroup(), entry.getDescription()});
+            } else if (!Objects.equals(current.getName(), entry.getName())
+                    || !Objects.equals(current.getMuscle(), entry.getMuscle())
+                    || !Objects.equals(current.getMuscleGroup(), entry.getMuscleGroup())
+                    || !Objects.equals(current.getDescription(), entry.getDescription())) {
+                updates.add(new Object[]{entry.getName(), entry.getMuscle(), entry.getMuscleGroup(), entry.getDescription(), current.getId()});
+            }
+        }
+
+        // JDBC directo: con IDENTITY Hibernate no agrupa los INSERT
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO exercises (name, muscle, muscle_group, description, is_custom) VALUES (?, ?, ?, ?, false)",
+                inserts, BATCH_SIZE, ExerciseCatalogSeeder::bind);
+        jdbcTemplate.batchUpdate(
+                "UPDATE exercises SET name = ?, muscle = ?, muscle_group = ?, description = ? WHERE id = ?",
+                updates, BATCH_SIZE, ExerciseCatalogSeeder::bind);
+        if (!inserts.isEmpty() || !updates.isEmpty()) {
+            // Las escrituras JDBC no pasan por Hibernate: la caché de segundo nivel no se entera
+            entityManagerFactory.getCache().evict(Exercise.class);
+        }
+
+        catalogSeedStateRepository.save(CatalogSeedState.builder()
+                .catalog(CATALOG_NAME)
+                .version(catalog.getVersion())
+                .checksum(checksum)
+                .entryCount(seen.size())
+                .appliedAt(LocalDateTime.now())
+                .build());
+
+        result.setInserted(inserts.size());
+        result.setUpdated(updates.size());
+        result.setUnchanged(seen.size() - inserts.size() - updates.size());
+        result.setDurationMs((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private static void bind(PreparedStatement ps, Object[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            ps.setObject(i + 1, values[i]);
+        }
+    }
+
+    private byte[] readResource() {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer el catálogo de ejercicios: " + location, e);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class SeedResult {
+        private String version;
+        private boolean upToDate;
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private long durationMs;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class CatalogFile {
+        private String version;
+        private List<CatalogEntry> exercises = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class CatalogEntry {
+        private String name;
+        private String muscle;
+        private String muscleGroup;
+        private String description;
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.ExerciseFacetsResponse;
+import com.example.stayrpe.dto.ExerciseResponse;
+import com.example.stayrpe.model.Exercise;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.ExerciseRepository;
+import com.example.stayrpe.repository.RoutineExerciseRepository;
+import com.example.stayrpe.repository.UsuarioRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de ejercicios en memoria para búsqueda y listados.
+ * Los predefinidos (isCustom = false) se cargan una vez en un {@link ExerciseSearchIndex};
+ * los personalizados de cada usuario se superponen desde una caché pequeña por usuario
+ * que se invalida al crear o borrar un ejercicio personalizado. La invalidación es local: con
+ * varias instancias, las demás ven el cambio cuando expira su entrada
+ * ({@code stayrpe.exercises.custom-cache.ttl-seconds}).
+ * La búsqueda aproximada tolera erratas hasta {@code stayrpe.exercises.search.max-edit-distance}
+ * y desempata por popularidad (en cuántas rutinas aparece cada ejercicio).
+ */
+@Service
+public class ExerciseCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExerciseCatalogService.class);
+
+    private final ExerciseRepository exerciseRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final RoutineExerciseRepository routineExerciseRepository;
+    private final int maxEditDistance;
+
+    private volatile ExerciseSearchIndex predefinedIndex;
+    private volatile Map<Long, Long> popularity = Map.of();
+    private final Cache<String, ExerciseSearchIndex> customIndexByUsername;
+    // ReentrantLock y no synchronized: con hilos virtuales, la carga bloquea en JDBC sin anclar el portador
+    private final ReentrantLock predefinedLoadLock = new ReentrantLock();
+
+    public ExerciseCatalogService(
+            ExerciseRepository exerciseRepository,
+            UsuarioRepository usuarioRepository,
+            RoutineExerciseRepository routineExerciseRepository,
+            @Value("${stayrpe.exercises.search.max-edit-distance:2}") int maxEditDistance,
+            @Value("${stayrpe.exercises.custom-cache.max-users:1000}") long maxCachedUsers,
+            @Value("${stayrpe.exercises.custom-cache.ttl-seconds:60}") long customCacheTtlSeconds
+    ) {
+        this.exerciseRepository = exerciseRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.routineExerciseRepository = routineExerciseRepository;
+        this.maxEditDistance = maxEditDistance;
+        this.customIndexByUsername = Caffeine.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .expireAfterWrite(Duration.ofSeconds(customCacheTtlSeconds))
+                .build();
+    }
+
+    public List<ExerciseResponse> search(String username, String query, int limit) {
+        return search(username, query, limit, 0);
+    }
+
+    /**
+     * Busca por nombre sin distinguir mayúsculas ni tildes.
+     * Orden: empieza por la consulta > alguna palabra empieza por ella > la contiene > coincidencia
+     * aproximada (menor distancia primero); a igualdad, los ejercicios más usados.
+     *
+     * @param maxDistance distancia de edición por palabra para la búsqueda aproximada; 0 la desactiva
+     *                    y nunca supera la configurada
+     */
+    public List<ExerciseResponse> search(String username, String query, int limit, int maxDistance) {
+        String normalizedQuery = ExerciseSearchIndex.normalize(query);
+        if (normalizedQuery.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        ExerciseSearchIndex predefined = getPredefinedIndex();
+        ExerciseSearchIndex custom = getCustomIndex(username);
+
+        List<ExerciseSearchIndex.Match> matches = new ArrayList<>(predefined.search(normalizedQuery));
+        matches.addAll(custom.search(normalizedQuery));
+
+        int distance = Math.min(Math.max(maxDistance, 0), maxEditDistance);
+        if (distance > 0 && matches.size() < limit) {
+            // Las coincidencias exactas ya encontradas conservan su rango mejor
+            Set<Long> found = new HashSet<>();
+            matches.forEach(match -> found.add(match.exercise().getId()));
+
+            List<ExerciseSearchIndex.Match> fuzzy = new ArrayList<>(predefined.fuzzySearch(normalizedQuery, distance));
+            fuzzy.addAll(custom.fuzzySearch(normalizedQuery, distance));
+            for (ExerciseSearchIndex.Match match : fuzzy) {
+                if (found.add(match.exercise().getId())) {
+                    matches.add(match);
+                }
+            }
+        }
+
+        return ExerciseSearchIndex.top(matches, limit).stream()
+                .map(ExerciseSearchIndex.Match::exercise)
+                .collect(Collectors.toList());
+    }
+
+    public int getMaxEditDistance() {
+        return maxEditDistance;
+    }
+
+    public List<ExerciseResponse> getPredefinedExercises() {
+        return getPredefinedIndex().getExercises();
+    }
+
+    /**
+     * Predefinidos seguidos de los personalizados del usuario
+     */
+    public List<ExerciseResponse> getAvailableExercises(String username) {
+        List<ExerciseResponse> exercises = getPredefinedIndex().getExercises();
+        exercises.addAll(getCustomIndex(username).getExercises());
+        return exercises;
+    }
+
+    /**
+     * Ejercicios de un músculo (predefinidos y personalizados), sin distinguir mayúsculas ni tildes
+     */
+    public List<ExerciseResponse> getByMuscle(String username, String muscle) {
+        List<ExerciseResponse> exercises = getPredefinedIndex().getByMuscle(muscle);
+        exercises.addAll(getCustomIndex(username).getByMuscle(muscle));
+        return exercises;
+    }
+
+    public List<ExerciseResponse> getByMuscleGroup(String username, String muscleGroup) {
+        List<ExerciseResponse> exercises = getPredefinedIndex().getByMuscleGroup(muscleGroup);
+        exercises.addAll(getCustomIndex(username).getByMuscleGroup(muscleGroup));
+        return exercises;
+    }
+
+    /**
+     * Recuento de ejercicios disponibles por músculo y por grupo muscular, para construir los filtros
+     */
+    public ExerciseFacetsResponse getFacets(String username) {
+        ExerciseSearchIndex predefined = getPredefinedIndex();
+        ExerciseSearchIndex custom = getCustomIndex(username);
+
+        return ExerciseFacetsResponse.builder()
+                .totalExercises(predefined.size() + custom.size())
+                .muscles(mergeFacets(predefined.getMuscleFacets(), custom.getMuscleFacets()))
+                .muscleGroups(mergeFacets(predefined.getMuscleGroupFacets(), custom.getMuscleGroupFacets()))
+                .build();
+    }
+
+    private static List<ExerciseFacetsResponse.FacetCount> mergeFacets(
+            Map<String, ExerciseSearchIndex.Facet> predefined, Map<String, ExerciseSearchIndex.Facet> custom) {
+
+        Map<String, ExerciseFacetsResponse.FacetCount> merged = new HashMap<>();
+        predefined.forEach((key, facet) -> merged.put(key, new ExerciseFacetsResponse.FacetCount(facet.label(), facet.count())));
+        custom.forEach((key, facet) -> merged.merge(key,
+                new ExerciseFacetsResponse.FacetCount(facet.label(), facet.count()),
+                (a, b) -> new ExerciseFacetsResponse.FacetCount(a.getValue(), a.getCount() + b.getCount())));
+
+        List<ExerciseFacetsResponse.FacetCount> counts = new ArrayList<>(merged.values());
+        counts.sort(Comparator.comparingInt(ExerciseFacetsResponse.FacetCount::getCount).reversed()
+                .thenComparing(ExerciseFacetsResponse.FacetCount::getValue));
+        return counts;
+    }
+
+    public void invalidateUser(String username) {
+        customIndexByUsername.invalidate(username);
+    }
+
+    /**
+     * Reconstruye el índice de predefinidos desde la base de datos
+     */
+    public void reloadPredefined() {
+        long start = System.nanoTime();
+        List<ExerciseResponse> exercises = exerciseRepository.findByIsCustomFalse().stream()
+                .map(ExerciseCatalogService::toResponse)
+                .collect(Collectors.toList());
+
+        Map<Long, Long> usage = new HashMap<>();
+        for (Object[] row : routineExerciseRepository.countUsageByExercise()) {
+            usage.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        popularity = usage;
+
+        predefinedIndex = new ExerciseSearchIndex(exercises, usage);
+        logger.info("Catálogo de ejercicios predefinidos cargado: {} ejercicios en {} ms",
+                exercises.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private ExerciseSearchIndex getPredefinedIndex() {
+        ExerciseSearchIndex index = predefinedIndex;
+        if (index == null) {
+            // Solo la primera petición carga el catálogo; las concurrentes esperan a que termine
+            predefinedLoadLock.lock();
+            try {
+                index = predefinedIndex;
+                if (index == null) {
+                    reloadPredefined();
+                    index = predefinedIndex;
+                }
+            } finally {
+                predefinedLoadLock.unlock();
+            }
+        }
+        return index;
+    }
+
+    // La carga ocurre dentro de Cache#get: una invalidación concurrente espera a que termine y
+    // luego la descarta, así que un índice cargado antes del cambio no puede volver a quedar en caché
+    private ExerciseSearchIndex getCustomIndex(String username) {
+        return customIndexByUsername.get(username, this::loadCustomIndex);
+    }
+
+    private ExerciseSearchIndex loadCustomIndex(String username) {
+        Optional<Usuario> usuarioOpt = usuarioRepository.findByUsername(username);
+        List<ExerciseResponse> exercises = usuarioOpt
+                .map(usuario -> exerciseRepository.findByIsCustomTrueAndCreatedBy(usuario).stream()
+                        .map(ExerciseCatalogService::toResponse)
+                        .collect(Collectors.toList()))
+                .orElse(List.of());
+        return new ExerciseSearchIndex(exercises, popularity);
+    }
+
+    static ExerciseResponse toResponse(Exercise exercise) {
+        return ExerciseResponse.builder()
+                .id(exercise.getId())
+                .name(exercise.getName())
+                .muscle(exercise.getMuscle())
+                .muscleGroup(exercise.getMuscleGroup())
+                .description(exercise.getDescription())
+                .isCustom(exercise.isCustom())
+                .createdByUsername(exercise.isCustom() && exercise.getCreatedBy() != null ?
+                        exercise.getCreatedBy().getUsername() : null)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.stayrpe.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Al arrancar aplica el catálogo de ejercicios incluido y construye el índice de búsqueda.
+ * Se ejecuta antes de que la aplicación se declare lista, así que la primera búsqueda
+ * ya no paga la carga del catálogo. Las duraciones se publican en stayrpe.exercises.startup
+ * con phase=seed|index.
+ */
+@Component
+public class ExerciseCatalogWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExerciseCatalogWarmup.class);
+
+    private final ExerciseCatalogSeeder exerciseCatalogSeeder;
+    private final ExerciseCatalogService exerciseCatalogService;
+    private final boolean seedEnabled;
+    private final Timer seedTimer;
+    private final Timer indexTimer;
+
+    public ExerciseCatalogWarmup(
+            ExerciseCatalogSeeder exerciseCatalogSeeder,
+            ExerciseCatalogService exerciseCatalogService,
+            MeterRegistry meterRegistry,
+            @Value("${stayrpe.exercises.seed.enabled:true}") boolean seedEnabled
+    ) {
+        this.exerciseCatalogSeeder = exerciseCatalogSeeder;
+        this.exerciseCatalogService = exerciseCatalogService;
+        this.seedEnabled = seedEnabled;
+        this.seedTimer = startupTimer(meterRegistry, "seed");
+        this.indexTimer = startupTimer(meterRegistry, "index");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long seedMs = 0;
+        if (seedEnabled) {
+            ExerciseCatalogSeeder.SeedResult result = exerciseCatalogSeeder.seed();
+            seedMs = result.getDurationMs();
+            seedTimer.record(seedMs, TimeUnit.MILLISECONDS);
+            if (result.isUpToDate()) {
+                logger.info("Catálogo de ejercicios {} ya aplicado ({} ms)", result.getVersion(), seedMs);
+            } else {
+                logger.info("Catálogo de ejercicios {} aplicado: {} nuevos, {} actualizados, {} sin cambios ({} ms)",
+                        result.getVersion(), result.getInserted(), result.getUpdated(), result.getUnchanged(), seedMs);
+            }
+        }
+
+        long start = System.nanoTime();
+        exerciseCatalogService.reloadPredefined();
+        long indexNanos = System.nanoTime() - start;
+        indexTimer.record(indexNanos, TimeUnit.NANOSECONDS);
+        long indexMs = indexNanos / 1_000_000;
+
+        logger.info("Catálogo de ejercicios listo en {} ms (seed {} ms, índice {} ms)",
+                seedMs + indexMs, seedEnabled ? seedMs : "desactivado", indexMs);
+    }
+
+    private static Timer startupTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("stayrpe.exercises.startup")
+                .description("Duración de la carga del catálogo de ejercicios al arrancar")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
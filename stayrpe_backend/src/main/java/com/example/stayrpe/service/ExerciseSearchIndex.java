@@ -0,0 +1,449 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.ExerciseResponse;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice inmutable de búsqueda por nombre sobre un conjunto de ejercicios.
+ * Los nombres se normalizan (minúsculas, sin tildes ni signos) y se indexan por trigramas,
+ * de modo que una búsqueda solo verifica los ejercicios que comparten todos los trigramas de la consulta.
+ * Para la búsqueda tolerante a erratas, las palabras de los nombres se indexan además en un BK-tree.
+ * También agrupa los ejercicios por músculo y grupo muscular (facetas) para filtrar y contar sin consultas.
+ */
+public class ExerciseSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    static final int RANK_PREFIX = 0;
+    static final int RANK_WORD_START = 1;
+    static final int RANK_SUBSTRING = 2;
+    static final int RANK_FUZZY = 3;
+
+    private final List<Entry> entries;
+    private final Map<String, int[]> trigrams;
+
+    // Palabras distintas de los nombres, ordenadas, con los ejercicios que las contienen
+    private final String[] words;
+    private final int[][] wordPostings;
+    private final BkTree wordTree;
+
+    // Facetas por valor normalizado, como compara la colación de MySQL (sin mayúsculas ni tildes)
+    private final Map<String, Facet> muscles;
+    private final Map<String, Facet> muscleGroups;
+
+    public ExerciseSearchIndex(Collection<ExerciseResponse> exercises) {
+        this(exercises, Map.of());
+    }
+
+    /**
+     * @param popularity uso de cada ejercicio por id; desempata los resultados con la misma relevancia
+     */
+    public ExerciseSearchIndex(Collection<ExerciseResponse> exercises, Map<Long, Long> popularity) {
+        this.entries = new ArrayList<>(exercises.size());
+        for (ExerciseResponse exercise : exercises) {
+            entries.add(new Entry(exercise, normalize(exercise.getName()), popularity.getOrDefault(exercise.getId(), 0L)));
+        }
+
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            for (String trigram : trigramsOf(entries.get(i).normalizedName)) {
+                List<Integer> posting = postings.computeIfAbsent(trigram, k -> new ArrayList<>());
+                if (posting.isEmpty() || posting.get(posting.size() - 1) != i) {
+                    posting.add(i);
+                }
+            }
+        }
+
+        this.trigrams = new HashMap<>(postings.size() * 2);
+        postings.forEach((trigram, posting) ->
+                trigrams.put(trigram, posting.stream().mapToInt(Integer::intValue).toArray()));
+
+        TreeMap<String, List<Integer>> wordIndex = new TreeMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            for (String word : entries.get(i).normalizedName.split(" ")) {
+                if (word.isEmpty()) continue;
+                List<Integer> posting = wordIndex.computeIfAbsent(word, k -> new ArrayList<>());
+                if (posting.isEmpty() || posting.get(posting.size() - 1) != i) {
+                    posting.add(i);
+                }
+            }
+        }
+
+        this.words = wordIndex.keySet().toArray(new String[0]);
+        this.wordPostings = new int[words.length][];
+        this.wordTree = new BkTree();
+        for (int w = 0; w < words.length; w++) {
+            wordPostings[w] = wordIndex.get(words[w]).stream().mapToInt(Integer::intValue).toArray();
+            wordTree.add(words, w);
+        }
+
+        this.muscles = buildFacets(ExerciseResponse::getMuscle);
+        this.muscleGroups = buildFacets(ExerciseResponse::getMuscleGroup);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<ExerciseResponse> getExercises() {
+        List<ExerciseResponse> exercises = new ArrayList<>(entries.size());
+        entries.forEach(entry -> exercises.add(entry.exercise));
+        return exercises;
+    }
+
+    public List<ExerciseResponse> getByMuscle(String muscle) {
+        return facetExercises(muscles.get(normalize(muscle)));
+    }
+
+    public List<ExerciseResponse> getByMuscleGroup(String muscleGroup) {
+        return facetExercises(muscleGroups.get(normalize(muscleGroup)));
+    }
+
+    public Map<String, Facet> getMuscleFacets() {
+        return muscles;
+    }
+
+    public Map<String, Facet> getMuscleGroupFacets() {
+        return muscleGroups;
+    }
+
+    private List<ExerciseResponse> facetExercises(Facet facet) {
+        if (facet == null) {
+            return new ArrayList<>();
+        }
+        List<ExerciseResponse> exercises = new ArrayList<>(facet.entries().length);
+        for (int entry : facet.entries()) {
+            exercises.add(entries.get(entry).exercise);
+        }
+        return exercises;
+    }
+
+    private Map<String, Facet> buildFacets(Function<ExerciseResponse, String> value) {
+        Map<String, String> labels = new HashMap<>();
+        Map<String, List<Integer>> postings = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            String label = value.apply(entries.get(i).exercise);
+            String key = normalize(label);
+            if (key.isEmpty()) continue;
+            labels.putIfAbsent(key, label);
+            postings.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        Map<String, Facet> facets = new HashMap<>(postings.size() * 2);
+        postings.forEach((key, posting) ->
+                facets.put(key, new Facet(labels.get(key), posting.stream().mapToInt(Integer::intValue).toArray())));
+        return facets;
+    }
+
+    /**
+     * Ejercicios cuyo nombre normalizado contiene la consulta normalizada, con su rango de coincidencia
+     */
+    public List<Match> search(String normalizedQuery) {
+        if (normalizedQuery.isEmpty()) {
+            return List.of();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        if (normalizedQuery.length() < 3) {
+            for (Entry entry : entries) {
+                addIfMatches(entry, normalizedQuery, matches);
+            }
+            return matches;
+        }
+
+        int[] candidates = null;
+        for (String trigram : trigramsOf(normalizedQuery)) {
+            int[] posting = trigrams.get(trigram);
+            if (posting == null) {
+                return List.of();
+            }
+            candidates = candidates == null ? posting : intersect(candidates, posting);
+            if (candidates.length == 0) {
+                return List.of();
+            }
+        }
+
+        for (int candidate : candidates) {
+            addIfMatches(entries.get(candidate), normalizedQuery, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Búsqueda tolerante a erratas por palabras. Cada palabra de la consulta debe coincidir con alguna
+     * palabra del nombre exactamente o a distancia de edición ≤ {@link #allowedDistance}; la última,
+     * que puede estar a medio escribir, vale también como prefijo. La distancia del resultado es la
+     * suma de las distancias de cada palabra.
+     */
+    public List<Match> fuzzySearch(String normalizedQuery, int maxDistance) {
+        String[] tokens = normalizedQuery.split(" ");
+        if (normalizedQuery.isEmpty() || tokens.length == 0) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> distances = null;
+        for (int t = 0; t < tokens.length; t++) {
+            Map<Integer, Integer> tokenDistances = matchToken(tokens[t], t == tokens.length - 1, maxDistance);
+            if (distances == null) {
+                distances = tokenDistances;
+            } else {
+                Map<Integer, Integer> combined = new HashMap<>();
+                for (Map.Entry<Integer, Integer> candidate : distances.entrySet()) {
+                    Integer distance = tokenDistances.get(candidate.getKey());
+                    if (distance != null) {
+                        combined.put(candidate.getKey(), candidate.getValue() + distance);
+                    }
+                }
+                distances = combined;
+            }
+            if (distances.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(distances.size());
+        distances.forEach((index, distance) -> {
+            Entry entry = entries.get(index);
+            matches.add(new Match(entry.exercise, entry.normalizedName, RANK_FUZZY, distance, entry.popularity));
+        });
+        return matches;
+    }
+
+    /**
+     * Distancia de edición tolerada para una palabra: ninguna hasta 3 letras ("con", "de"),
+     * como mucho 1 hasta 6 letras y {@code maxDistance} en las más largas
+     */
+    static int allowedDistance(String token, int maxDistance) {
+        if (token.length() <= 3) return 0;
+        if (token.length() <= 6) return Math.min(1, maxDistance);
+        return maxDistance;
+    }
+
+    private Map<Integer, Integer> matchToken(String token, boolean allowPrefix, int maxDistance) {
+        Map<Integer, Integer> distances = new HashMap<>();
+
+        if (allowPrefix) {
+            int from = Arrays.binarySearch(words, token);
+            for (int w = from >= 0 ? from : -from - 1; w < words.length && words[w].startsWith(token); w++) {
+                addPostings(distances, w, 0);
+            }
+        }
+
+        int allowed = allowedDistance(token, maxDistance);
+        if (allowed == 0) {
+            int w = Arrays.binarySearch(words, token);
+            if (w >= 0) addPostings(distances, w, 0);
+        } else {
+            wordTree.search(words, token, allowed, (w, distance) -> addPostings(distances, w, distance));
+        }
+        return distances;
+    }
+
+    private void addPostings(Map<Integer, Integer> distances, int word, int distance) {
+        for (int entry : wordPostings[word]) {
+            distances.merge(entry, distance, Math::min);
+        }
+    }
+
+    /**
+     * Minúsculas, sin tildes y con cualquier separador reducido a un único espacio: "Press  Inclinado (Máquina)" → "press inclinado maquina"
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static void addIfMatches(Entry entry, String query, List<Match> matches) {
+        int position = entry.normalizedName.indexOf(query);
+        if (position < 0) {
+            return;
+        }
+
+        int rank = position == 0 ? RANK_PREFIX : RANK_SUBSTRING;
+        while (rank == RANK_SUBSTRING && position > 0) {
+            if (entry.normalizedName.charAt(position - 1) == ' ') {
+                rank = RANK_WORD_START;
+            } else {
+                position = entry.normalizedName.indexOf(query, position + 1);
+            }
+        }
+        matches.add(new Match(entry.exercise, entry.normalizedName, rank, 0, entry.popularity));
+    }
+
+    /**
+     * Distancia de Levenshtein, cortando en cuanto supera {@code limit} (devuelve limit + 1)
+     */
+    static int levenshtein(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Las {@code limit} mejores coincidencias, ordenadas, sin ordenar la lista completa
+     */
+    public static List<Match> top(List<Match> matches, int limit) {
+        if (matches.size() <= limit) {
+            List<Match> sorted = new ArrayList<>(matches);
+            sorted.sort(Match.BY_RELEVANCE);
+            return sorted;
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Match.BY_RELEVANCE.reversed());
+        for (Match match : matches) {
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (Match.BY_RELEVANCE.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        List<Match> sorted = new ArrayList<>(best);
+        sorted.sort(Match.BY_RELEVANCE);
+        return sorted;
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(text.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                result[k++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private record Entry(ExerciseResponse exercise, String normalizedName, long popularity) {
+    }
+
+    /**
+     * Valor de una faceta tal y como aparece en el primer ejercicio, y los ejercicios que la tienen
+     */
+    public record Facet(String label, int[] entries) {
+
+        public int count() {
+            return entries.length;
+        }
+    }
+
+    /**
+     * Resultado de búsqueda: cuanto menores {@code rank} y {@code distance}, mejor la coincidencia
+     */
+    public record Match(ExerciseResponse exercise, String normalizedName, int rank, int distance, long popularity) {
+
+        public static final Comparator<Match> BY_RELEVANCE = Comparator
+                .comparingInt(Match::rank)
+                .thenComparingInt(Match::distance)
+                .thenComparing(Comparator.comparingLong(Match::popularity).reversed())
+                .thenComparingInt(match -> match.normalizedName().length())
+                .thenComparing(Match::normalizedName);
+    }
+
+    /**
+     * BK-tree sobre índices de {@code words}: cada hijo cuelga de su distancia al padre, y la
+     * desigualdad triangular permite descartar ramas enteras durante la búsqueda.
+     */
+    private static final class BkTree {
+
+        private Node root;
+
+        void add(String[] words, int word) {
+            if (root == null) {
+                root = new Node(word);
+                return;
+            }
+            Node node = root;
+            while (true) {
+                int distance = levenshtein(words[node.word], words[word], Integer.MAX_VALUE - 1);
+                Node child = node.children.get(distance);
+                if (child == null) {
+                    node.children.put(distance, new Node(word));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        void search(String[] words, String query, int maxDistance, WordVisitor visitor) {
+            if (root == null) {
+                return;
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                // Sin límite exacto: la distancia real se necesita para elegir qué hijos visitar
+                int distance = levenshtein(words[node.word], query, Integer.MAX_VALUE - 1);
+                if (distance <= maxDistance) {
+                    visitor.visit(node.word, distance);
+                }
+                for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        pending.push(child.getValue());
+                    }
+                }
+            }
+        }
+
+        private static final class Node {
+            final int word;
+            final Map<Integer, Node> children = new HashMap<>(4);
+
+            Node(int word) {
+                this.word = word;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface WordVisitor {
+        void visit(int word, int distance);
+    }
+}
@@ -2,16 +2,24 @@ package com.example.stayrpe.service;
 
 import com.example.stayrpe.dto.DayCustomizationRequest;
 import com.example.stayrpe.dto.DayCustomizationResponse;
+import com.example.stayrpe.dto.ScopedCustomizationRequest;
 import com.example.stayrpe.model.*;
 import com.example.stayrpe.repository.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,20 +32,45 @@ public class MacrocycleCustomizationService {
     private final MacrocycleDayPlanRepository dayPlanRepository;
     private final RoutineExerciseRepository routineExerciseRepository;
     private final ExerciseSetRepository exerciseSetRepository;
+    private final MacrocycleScopedCustomizationRepository scopedCustomizationRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final MeterRegistry meterRegistry;
 
     public MacrocycleCustomizationService(
             MacrocycleDayCustomizationRepository customizationRepository,
             MacrocycleDayPlanRepository dayPlanRepository,
             RoutineExerciseRepository routineExerciseRepository,
-            ExerciseSetRepository exerciseSetRepository
+            ExerciseSetRepository exerciseSetRepository,
+            MacrocycleScopedCustomizationRepository scopedCustomizationRepository,
+            SyncTombstoneRepository tombstoneRepository,
+            MeterRegistry meterRegistry
     ) {
         this.customizationRepository = customizationRepository;
         this.dayPlanRepository = dayPlanRepository;
         this.routineExerciseRepository = routineExerciseRepository;
         this.exerciseSetRepository = exerciseSetRepository;
+        this.scopedCustomizationRepository = scopedCustomizationRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.meterRegistry = meterRegistry;
     }
 
+    @Transactional(readOnly = true)
     public DayCustomizationResponse getDayCustomization(Macrocycle macrocycle, Integer absoluteDay) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            DayCustomizationResponse response = buildDayCustomization(macrocycle, absoluteDay);
+            outcome = "success";
+            return response;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("stayrpe.macrocycle.day_customization", "outcome", outcome));
+        }
+    }
+
+    private DayCustomizationResponse buildDayCustomization(Macrocycle macrocycle, Integer absoluteDay) {
         logger.info("Obteniendo customización del día {} del macrociclo {}", absoluteDay, macrocycle.getId());
 
         validateAbsoluteDayInRange(macrocycle, absoluteDay);
@@ -60,7 +93,10 @@ public class MacrocycleCustomizationService {
         List<MacrocycleDayCustomization> customizations = customizationRepository
                 .findByMacrocycleAndAbsoluteDayWithDetails(macrocycle, absoluteDay);
 
-        return buildDayCustomizationResponse(macrocycle, absoluteDay, dayPlanInfo, routineExercises, customizations);
+        Map<Long, ResolvedCustomization> resolvedCustomizations =
+                resolveCustomizations(macrocycle, absoluteDay, customizations);
+
+        return buildDayCustomizationResponse(macrocycle, absoluteDay, dayPlanInfo, routineExercises, resolvedCustomizations);
     }
 
     public void saveCustomizationsSelective(Macrocycle macrocycle, DayCustomizationRequest request) {
@@ -80,45 +116,21 @@ public class MacrocycleCustomizationService {
             throw new IllegalArgumentException("No se puede customizar un día de descanso o sin rutina");
         }
 
-        int savedCount = 0;
-        int deletedCount = 0;
-
-        for (DayCustomizationRequest.SetCustomization setCustomization : request.getSetCustomizations()) {
-            try {
-                Optional<ExerciseSet> exerciseSetOpt = exerciseSetRepository.findById(setCustomization.getExerciseSetId());
-                if (exerciseSetOpt.isEmpty()) {
-                    logger.warn("Serie no encontrada: {}, omitiendo...", setCustomization.getExerciseSetId());
-                    continue;
-                }
-
-                ExerciseSet exerciseSet = exerciseSetOpt.get();
-
-                if (setCustomization.hasAnyCustomization()) {
-                    saveOrUpdateSetCustomization(macrocycle, request.getAbsoluteDay(), setCustomization);
-                    savedCount++;
-                    logger.debug("Guardada/actualizada customización para serie {}", setCustomization.getExerciseSetId());
-                } else {
-                    boolean existedBefore = customizationRepository.existsByMacrocycleAndAbsoluteDayAndExerciseSet(
-                            macrocycle, request.getAbsoluteDay(), exerciseSet);
-
-                    if (existedBefore) {
-                        customizationRepository.deleteByMacrocycleAndAbsoluteDayAndExerciseSet(
-                                macrocycle, request.getAbsoluteDay(), exerciseSet);
-                        deletedCount++;
-                        logger.debug("Eliminada customización para serie {} (RESET)", setCustomization.getExerciseSetId());
-                    } else {
-                        logger.debug("Serie {} sin customización previa - no acción requerida", setCustomization.getExerciseSetId());
-                    }
-                }
-
-            } catch (Exception e) {
-                logger.error("Error procesando customización para serie {}: {}",
-                        setCustomization.getExerciseSetId(), e.getMessage());
-            }
-        }
+        Integer absoluteDay = request.getAbsoluteDay();
+        SetCounts counts = applySetCustomizations(request.getSetCustomizations(), new SetCustomizationTarget<>(
+                exerciseSet -> true,
+                exerciseSet -> customizationRepository.findByMacrocycleAndAbsoluteDayAndExerciseSet(macrocycle, absoluteDay, exerciseSet),
+                exerciseSet -> MacrocycleDayCustomization.builder()
+                        .macrocycle(macrocycle)
+                        .absoluteDay(absoluteDay)
+                        .routineExercise(exerciseSet.getRoutineExercise())
+                        .exerciseSet(exerciseSet)
+                        .build(),
+                customizationRepository::save,
+                exerciseSet -> deleteSetCustomization(macrocycle, absoluteDay, exerciseSet)));
 
         logger.info("Customizaciones procesadas exitosamente para el día {}: {} guardadas/actualizadas, {} eliminadas (reset)",
-                request.getAbsoluteDay(), savedCount, deletedCount);
+                absoluteDay, counts.saved(), counts.deleted());
     }
 
     public void saveCustomizations(Macrocycle macrocycle, DayCustomizationRequest request) {
@@ -128,15 +140,16 @@ public class MacrocycleCustomizationService {
         saveCustomizationsSelective(macrocycle, request);
     }
 
-    public void resetDayCustomizations(Macrocycle macrocycle, Integer absoluteDay) {
+    public int resetDayCustomizations(Macrocycle macrocycle, Integer absoluteDay) {
         logger.info("Reseteando customizaciones del día {} del macrociclo {}", absoluteDay, macrocycle.getId());
 
         validateAbsoluteDayInRange(macrocycle, absoluteDay);
 
-        long deletedCount = customizationRepository.countByMacrocycleAndAbsoluteDay(macrocycle, absoluteDay);
-        customizationRepository.deleteByMacrocycleAndAbsoluteDay(macrocycle, absoluteDay);
+        tombstoneRepository.recordDayCustomizations(macrocycle, absoluteDay, LocalDateTime.now());
+        int deletedCount = customizationRepository.deleteByMacrocycleAndAbsoluteDay(macrocycle, absoluteDay);
 
         logger.info("Se eliminaron {} customizaciones del día {}", deletedCount, absoluteDay);
+        return deletedCount;
     }
 
     public void resetSetCustomization(Macrocycle macrocycle, Integer absoluteDay, Long exerciseSetId) {
@@ -152,31 +165,116 @@ public class MacrocycleCustomizationService {
 
         ExerciseSet exerciseSet = exerciseSetOpt.get();
 
-        boolean hasCustomization = customizationRepository.existsByMacrocycleAndAbsoluteDayAndExerciseSet(
-                macrocycle, absoluteDay, exerciseSet);
+        int deleted = deleteSetCustomization(macrocycle, absoluteDay, exerciseSet);
 
-        if (hasCustomization) {
-            customizationRepository.deleteByMacrocycleAndAbsoluteDayAndExerciseSet(
-                    macrocycle, absoluteDay, exerciseSet);
+        if (deleted > 0) {
             logger.info("Customización eliminada exitosamente para la serie {}", exerciseSetId);
         } else {
             logger.info("La serie {} no tenía customización en el día {}", exerciseSetId, absoluteDay);
         }
     }
 
-    public void resetAllCustomizations(Macrocycle macrocycle) {
+    /**
+     * Elimina todas las customizaciones (por día y por ámbito) del macrociclo con dos sentencias DELETE.
+     *
+     * @return número total de filas eliminadas
+     */
+    public int resetAllCustomizations(Macrocycle macrocycle) {
         logger.info("Reseteando TODAS las customizaciones del macrociclo {}", macrocycle.getId());
 
-        long deletedCount = customizationRepository.countByMacrocycle(macrocycle);
-        customizationRepository.deleteByMacrocycle(macrocycle);
+        LocalDateTime deletedAt = LocalDateTime.now();
+        tombstoneRepository.recordDayCustomizations(macrocycle, deletedAt);
+        tombstoneRepository.recordScopedCustomizations(macrocycle, deletedAt);
+        int deletedCount = customizationRepository.deleteByMacrocycle(macrocycle);
+        int deletedScopedCount = scopedCustomizationRepository.deleteAllByMacrocycle(macrocycle);
+
+        logger.info("Se eliminaron {} customizaciones por día y {} por macrociclo/microciclo del macrociclo {}",
+                deletedCount, deletedScopedCount, macrocycle.getId());
 
-        logger.info("Se eliminaron {} customizaciones del macrociclo {}", deletedCount, macrocycle.getId());
+        return deletedCount + deletedScopedCount;
     }
 
+    public void saveScopedCustomizations(Macrocycle macrocycle, CustomizationScope scope, Integer microcycleNumber,
+                                         ScopedCustomizationRequest request) {
+        logger.info("Guardando customizaciones de ámbito {} (microciclo {}) del macrociclo {}",
+                scope, microcycleNumber, macrocycle.getId());
+
+        validateScope(macrocycle, scope, microcycleNumber);
+
+        if (!request.isValid()) {
+            throw new IllegalArgumentException("Request de customización inválida");
+        }
+
+        if (request.getSetCustomizations() == null || request.getSetCustomizations().isEmpty()) {
+            return;
+        }
+
+        Set<Long> plannedRoutineIds = dayPlanRepository.findByMacrocycleOrderByDayNumber(macrocycle).stream()
+                .filter(plan -> plan.getRoutine() != null)
+                .map(plan -> plan.getRoutine().getId())
+                .collect(Collectors.toSet());
+
+        int storedMicrocycle = storedMicrocycleNumber(scope, microcycleNumber);
+        SetCounts counts = applySetCustomizations(request.getSetCustomizations(), new SetCustomizationTarget<>(
+                exerciseSet -> {
+                    if (plannedRoutineIds.contains(exerciseSet.getRoutineExercise().getRoutine().getId())) {
+                        return true;
+                    }
+                    logger.warn("La serie {} no pertenece a ninguna rutina del macrociclo {}, omitiendo...",
+                            exerciseSet.getId(), macrocycle.getId());
+                    return false;
+                },
+                exerciseSet -> scopedCustomizationRepository
+                        .findByScopeAndExerciseSet(macrocycle, scope, storedMicrocycle, exerciseSet),
+                exerciseSet -> MacrocycleScopedCustomization.builder()
+                        .macrocycle(macrocycle)
+                        .scope(scope)
+                        .microcycleNumber(storedMicrocycle)
+                        .routineExercise(exerciseSet.getRoutineExercise())
+                        .exerciseSet(exerciseSet)
+                        .build(),
+                scopedCustomizationRepository::save,
+                exerciseSet -> {
+                    tombstoneRepository.recordScopedCustomizations(macrocycle, scope, storedMicrocycle, exerciseSet,
+                            LocalDateTime.now());
+                    return scopedCustomizationRepository
+                            .deleteByScopeAndExerciseSet(macrocycle, scope, storedMicrocycle, exerciseSet);
+                }));
+
+        logger.info("Customizaciones de ámbito {} procesadas: {} guardadas/actualizadas, {} eliminadas",
+                scope, counts.saved(), counts.deleted());
+    }
+
+    public int resetScopedCustomizations(Macrocycle macrocycle, CustomizationScope scope, Integer microcycleNumber) {
+        logger.info("Reseteando customizaciones de ámbito {} (microciclo {}) del macrociclo {}",
+                scope, microcycleNumber, macrocycle.getId());
+
+        validateScope(macrocycle, scope, microcycleNumber);
+
+        int storedMicrocycle = storedMicrocycleNumber(scope, microcycleNumber);
+        tombstoneRepository.recordScopedCustomizations(macrocycle, scope, storedMicrocycle, LocalDateTime.now());
+        int deletedCount = scopedCustomizationRepository.deleteByScope(macrocycle, scope, storedMicrocycle);
+
+        logger.info("Se eliminaron {} customizaciones de ámbito {}", deletedCount, scope);
+        return deletedCount;
+    }
+
+    @Transactional(readOnly = true)
+    public List<MacrocycleScopedCustomization> getScopedCustomizations(Macrocycle macrocycle) {
+        return scopedCustomizationRepository.findByMacrocycleOrdered(macrocycle);
+    }
+
+    public int calculateMicrocycleNumber(Macrocycle macrocycle, Integer absoluteDay) {
+        return ((absoluteDay - 1) / macrocycle.getMicrocycleDurationDays()) + 1;
+    }
+
+    @Transactional(readOnly = true)
     public List<Integer> getCustomizedDays(Macrocycle macrocycle) {
         logger.info("Obteniendo días customizados del macrociclo {}", macrocycle.getId());
 
-        List<Integer> customizedDays = customizationRepository.findCustomizedDaysByMacrocycle(macrocycle);
+        TreeSet<Integer> days = new TreeSet<>(customizationRepository.findCustomizedDaysByMacrocycle(macrocycle));
+        days.addAll(findDaysWithScopedCustomizations(macrocycle));
+        List<Integer> customizedDays = new ArrayList<>(days);
 
         logger.info("Macrociclo {} tiene {} días customizados: {}",
                 macrocycle.getId(), customizedDays.size(), customizedDays);
@@ -184,6 +282,43 @@ public class MacrocycleCustomizationService {
         return customizedDays;
     }
 
+    /**
+     * Días absolutos a los que llega alguna customización de macrociclo o microciclo: los del plan cuya
+     * rutina contiene la serie, en todos los microciclos o solo en el indicado.
+     */
+    private Set<Integer> findDaysWithScopedCustomizations(Macrocycle macrocycle) {
+        List<Object[]> scopeRoutines = scopedCustomizationRepository.findScopeRoutinesByMacrocycle(macrocycle);
+        if (scopeRoutines.isEmpty()) {
+            return Set.of();
+        }
+
+        Map<Long, List<Integer>> planDaysByRoutine = new HashMap<>();
+        for (MacrocycleDayPlan plan : dayPlanRepository.findByMacrocycleOrderByDayNumber(macrocycle)) {
+            if (!Boolean.TRUE.equals(plan.getIsRestDay()) && plan.getRoutine() != null) {
+                planDaysByRoutine.computeIfAbsent(plan.getRoutine().getId(), id -> new ArrayList<>()).add(plan.getDayNumber());
+            }
+        }
+
+        int duration = macrocycle.getMicrocycleDurationDays();
+        int totalMicrocycles = macrocycle.getTotalMicrocycles() != null ? macrocycle.getTotalMicrocycles() : 0;
+        Set<Integer> days = new HashSet<>();
+        for (Object[] row : scopeRoutines) {
+            CustomizationScope scope = (CustomizationScope) row[0];
+            int microcycleNumber = (Integer) row[1];
+            for (Integer dayOfMicrocycle : planDaysByRoutine.getOrDefault((Long) row[2], List.of())) {
+                if (scope == CustomizationScope.MACROCYCLE) {
+                    for (int microcycle = 1; microcycle <= totalMicrocycles; microcycle++) {
+                        days.add((microcycle - 1) * duration + dayOfMicrocycle);
+                    }
+                } else {
+                    days.add((microcycleNumber - 1) * duration + dayOfMicrocycle);
+                }
+            }
+        }
+        return days;
+    }
+
+    @Transactional(readOnly = true)
     public DayPlanInfo calculateDayPlanInfo(Macrocycle macrocycle, Integer absoluteDay) {
         int dayOfMicrocycle = ((absoluteDay - 1) % macrocycle.getMicrocycleDurationDays()) + 1;
 
@@ -231,39 +366,118 @@ public class MacrocycleCustomizationService {
         }
     }
 
-    private void saveOrUpdateSetCustomization(Macrocycle macrocycle, Integer absoluteDay,
-                                              DayCustomizationRequest.SetCustomization setCustomization) {
+    private void validateScope(Macrocycle macrocycle, CustomizationScope scope, Integer microcycleNumber) {
+        if (scope == CustomizationScope.DAY) {
+            throw new IllegalArgumentException("Las customizaciones por día se gestionan por día absoluto");
+        }
 
-        if (!setCustomization.isValid()) {
-            logger.error("Customización inválida para serie {}: datos no válidos", setCustomization.getExerciseSetId());
-            throw new IllegalArgumentException("Customización inválida para serie " + setCustomization.getExerciseSetId());
+        if (scope == CustomizationScope.MACROCYCLE) {
+            if (microcycleNumber != null) {
+                throw new IllegalArgumentException("Una customización de macrociclo no admite número de microciclo");
+            }
+            return;
         }
 
-        Optional<ExerciseSet> exerciseSetOpt = exerciseSetRepository.findById(setCustomization.getExerciseSetId());
-        if (exerciseSetOpt.isEmpty()) {
-            throw new IllegalArgumentException("Serie no encontrada: " + setCustomization.getExerciseSetId());
+        if (microcycleNumber == null || microcycleNumber <= 0) {
+            throw new IllegalArgumentException("El número de microciclo debe ser mayor a 0");
         }
 
-        ExerciseSet exerciseSet = exerciseSetOpt.get();
+        Integer totalMicrocycles = macrocycle.getTotalMicrocycles();
+        if (totalMicrocycles != null && microcycleNumber > totalMicrocycles) {
+            throw new IllegalArgumentException(
+                    String.format("El microciclo %d está fuera del rango del macrociclo (1-%d)",
+                            microcycleNumber, totalMicrocycles));
+        }
+    }
 
-        Optional<MacrocycleDayCustomization> existingCustomization = customizationRepository
-                .findByMacrocycleAndAbsoluteDayAndExerciseSet(macrocycle, absoluteDay, exerciseSet);
+    // La API usa null como microciclo del ámbito MACROCYCLE; en la tabla es WHOLE_MACROCYCLE
+    private static int storedMicrocycleNumber(CustomizationScope scope, Integer microcycleNumber) {
+        return scope == CustomizationScope.MACROCYCLE ? MacrocycleScopedCustomization.WHOLE_MACROCYCLE : microcycleNumber;
+    }
 
-        MacrocycleDayCustomization customization;
+    /**
+     * Combina las customizaciones de macrociclo, microciclo y día para cada serie.
+     * Cada campo se toma del ámbito más específico que lo define (día > microciclo > macrociclo).
+     */
+    private Map<Long, ResolvedCustomization> resolveCustomizations(
+            Macrocycle macrocycle, Integer absoluteDay, List<MacrocycleDayCustomization> dayCustomizations) {
 
-        if (existingCustomization.isPresent()) {
-            customization = existingCustomization.get();
-            logger.debug("Actualizando customización existente para serie {}", setCustomization.getExerciseSetId());
-        } else {
-            customization = MacrocycleDayCustomization.builder()
-                    .macrocycle(macrocycle)
-                    .absoluteDay(absoluteDay)
-                    .routineExercise(exerciseSet.getRoutineExercise())
-                    .exerciseSet(exerciseSet)
-                    .build();
-            logger.debug("Creando nueva customización para serie {}", setCustomization.getExerciseSetId());
+        Map<Long, ResolvedCustomization> resolved = new HashMap<>();
+
+        List<MacrocycleScopedCustomization> scopedCustomizations = scopedCustomizationRepository
+                .findApplicableToMicrocycle(macrocycle, calculateMicrocycleNumber(macrocycle, absoluteDay));
+
+        scopedCustomizations.stream()
+                .sorted(Comparator.comparing(MacrocycleScopedCustomization::getScope))
+                .forEach(sc -> resolved
+                        .computeIfAbsent(sc.getExerciseSet().getId(), id -> new ResolvedCustomization())
+                        .apply(sc.getScope(), sc));
+
+        for (MacrocycleDayCustomization dc : dayCustomizations) {
+            resolved.computeIfAbsent(dc.getExerciseSet().getId(), id -> new ResolvedCustomization())
+                    .apply(CustomizationScope.DAY, dc);
         }
 
+        return resolved;
+    }
+
+    /**
+     * Aplica una lista de customizaciones por serie sobre un ámbito (día, microciclo o macrociclo):
+     * una serie sin valores borra su customización; con valores, se crea o se actualiza campo a campo.
+     * Un error en una serie se registra y no impide procesar las demás.
+     */
+    private <T extends SetCustomizationValues> SetCounts applySetCustomizations(
+            List<DayCustomizationRequest.SetCustomization> setCustomizations, SetCustomizationTarget<T> target) {
+
+        int savedCount = 0;
+        int deletedCount = 0;
+
+        for (DayCustomizationRequest.SetCustomization setCustomization : setCustomizations) {
+            try {
+                Optional<ExerciseSet> exerciseSetOpt = exerciseSetRepository.findById(setCustomization.getExerciseSetId());
+                if (exerciseSetOpt.isEmpty()) {
+                    logger.warn("Serie no encontrada: {}, omitiendo...", setCustomization.getExerciseSetId());
+                    continue;
+                }
+
+                ExerciseSet exerciseSet = exerciseSetOpt.get();
+                if (!target.accepts().test(exerciseSet)) {
+                    continue;
+                }
+
+                if (!setCustomization.hasAnyCustomization()) {
+                    int deleted = target.delete().applyAsInt(exerciseSet);
+                    deletedCount += deleted;
+                    logger.debug("Serie {}: {} customizaciones eliminadas (RESET)", exerciseSet.getId(), deleted);
+                    continue;
+                }
+
+                if (!setCustomization.isValid()) {
+                    throw new IllegalArgumentException("Customización inválida para serie " + exerciseSet.getId());
+                }
+
+                T customization = target.find().apply(exerciseSet).orElseGet(() -> target.create().apply(exerciseSet));
+                applySetValues(customization, setCustomization);
+
+                if (!customization.hasAnyCustomization()) {
+                    logger.warn("La customización para serie {} no tiene valores después de aplicar cambios", exerciseSet.getId());
+                    continue;
+                }
+
+                target.save().accept(customization);
+                savedCount++;
+            } catch (Exception e) {
+                logger.error("Error procesando customización para serie {}: {}",
+                        setCustomization.getExerciseSetId(), e.getMessage());
+            }
+        }
+
+        return new SetCounts(savedCount, deletedCount);
+    }
+
+    // Solo se sobrescriben los campos enviados; RIR y RPE son excluyentes
+    private static void applySetValues(SetCustomizationValues customization,
+                                       DayCustomizationRequest.SetCustomization setCustomization) {
         if (setCustomization.getCustomRepsMin() != null) {
             customization.setCustomRepsMin(setCustomization.getCustomRepsMin());
         }
@@ -284,38 +498,27 @@ public class MacrocycleCustomizationService {
         if (setCustomization.getCustomNotes() != null) {
             customization.setCustomNotes(setCustomization.getCustomNotes());
         }
-
-        if (!customization.hasAnyCustomization()) {
-            logger.warn("La customización para serie {} no tiene valores después de aplicar cambios",
-                    setCustomization.getExerciseSetId());
-            return;
-        }
-
-        customizationRepository.save(customization);
-        logger.debug("Customización guardada exitosamente para serie {}", setCustomization.getExerciseSetId());
     }
 
-    private void deleteSetCustomization(Macrocycle macrocycle, Integer absoluteDay, Long exerciseSetId) {
-        Optional<ExerciseSet> exerciseSetOpt = exerciseSetRepository.findById(exerciseSetId);
-        if (exerciseSetOpt.isPresent()) {
-            customizationRepository.deleteByMacrocycleAndAbsoluteDayAndExerciseSet(
-                    macrocycle, absoluteDay, exerciseSetOpt.get());
-            logger.debug("Eliminada customización para serie {}", exerciseSetId);
-        }
+    // Deja la lápida para /sync/changes antes del DELETE; el INSERT ... SELECT no inserta nada si no había fila
+    private int deleteSetCustomization(Macrocycle macrocycle, Integer absoluteDay, ExerciseSet exerciseSet) {
+        tombstoneRepository.recordDayCustomizations(macrocycle, absoluteDay, exerciseSet, LocalDateTime.now());
+        return customizationRepository.deleteByMacrocycleAndAbsoluteDayAndExerciseSet(macrocycle, absoluteDay, exerciseSet);
     }
 
-    private DayCustomizationResponse buildDayCustomizationResponse(
+    // Visibilidad de paquete para los benchmarks JMH (src/jmh)
+    DayCustomizationResponse buildDayCustomizationResponse(
             Macrocycle macrocycle, Integer absoluteDay, DayPlanInfo dayPlanInfo,
-            List<RoutineExercise> routineExercises, List<MacrocycleDayCustomization> customizations) {
+            List<RoutineExercise> routineExercises, Map<Long, ResolvedCustomization> customizationMap) {
 
-        Map<Long, MacrocycleDayCustomization> customizationMap = customizations.stream()
-                .collect(Collectors.toMap(
-                        c -> c.getExerciseSet().getId(),
-                        c -> c
-                ));
+        // Todas las series de la rutina en una consulta (cacheable), no una por ejercicio
+        Map<Long, List<ExerciseSet>> setsByExercise = exerciseSetRepository
+                .findByRoutineIdOrderBySetNumber(dayPlanInfo.getRoutine().getId()).stream()
+                .collect(Collectors.groupingBy(es -> es.getRoutineExercise().getId()));
 
         List<DayCustomizationResponse.ExerciseCustomization> exercises = routineExercises.stream()
-                .map(routineExercise -> buildExerciseCustomization(routineExercise, customizationMap))
+                .map(routineExercise -> buildExerciseCustomization(routineExercise,
+                        setsByExercise.getOrDefault(routineExercise.getId(), List.of()), customizationMap))
                 .collect(Collectors.toList());
 
         DayCustomizationResponse response = DayCustomizationResponse.builder()
@@ -332,10 +535,8 @@ public class MacrocycleCustomizationService {
     }
 
     private DayCustomizationResponse.ExerciseCustomization buildExerciseCustomization(
-            RoutineExercise routineExercise, Map<Long, MacrocycleDayCustomization> customizationMap) {
-
-        List<ExerciseSet> exerciseSets = exerciseSetRepository
-                .findByRoutineExerciseIdOrderBySetNumber(routineExercise.getId());
+            RoutineExercise routineExercise, List<ExerciseSet> exerciseSets,
+            Map<Long, ResolvedCustomization> customizationMap) {
 
         List<DayCustomizationResponse.SetInfo> sets = exerciseSets.stream()
                 .map(exerciseSet -> buildSetInfo(exerciseSet, customizationMap.get(exerciseSet.getId())))
@@ -354,7 +555,7 @@ public class MacrocycleCustomizationService {
                 .build();
     }
 
-    private DayCustomizationResponse.SetInfo buildSetInfo(ExerciseSet exerciseSet, MacrocycleDayCustomization customization) {
+    private DayCustomizationResponse.SetInfo buildSetInfo(ExerciseSet exerciseSet, ResolvedCustomization customization) {
         DayCustomizationResponse.SetInfo.SetInfoBuilder builder = DayCustomizationResponse.SetInfo.builder()
                 .setId(exerciseSet.getId())
                 .setNumber(exerciseSet.getSetNumber())
@@ -371,7 +572,8 @@ public class MacrocycleCustomizationService {
                     .customWeight(customization.getCustomWeight())
                     .customRir(customization.getCustomRir())
                     .customRpe(customization.getCustomRpe())
-                    .customNotes(customization.getCustomNotes());
+                    .customNotes(customization.getCustomNotes())
+                    .customizationScope(customization.getScope() != null ? customization.getScope().name() : null);
         }
 
         DayCustomizationResponse.SetInfo setInfo = builder.build();
@@ -415,4 +617,70 @@ public class MacrocycleCustomizationService {
         private boolean isRestDay;
         private Routine routine;
     }
+
+    /**
+     * Cómo buscar, crear, guardar y borrar la customización de una serie en un ámbito concreto
+     */
+    private record SetCustomizationTarget<T extends SetCustomizationValues>(
+            Predicate<ExerciseSet> accepts,
+            Function<ExerciseSet, Optional<T>> find,
+            Function<ExerciseSet, T> create,
+            Consumer<T> save,
+            ToIntFunction<ExerciseSet> delete) {
+    }
+
+    private record SetCounts(int saved, int deleted) {
+    }
+
+    /**
+     * Valores efectivos de customización de una serie tras combinar todos los ámbitos.
+     * {@code scope} es el ámbito más específico que ha aportado algún valor.
+     */
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    public static class ResolvedCustomization {
+        private Integer customRepsMin;
+        private Integer customRepsMax;
+        private Double customWeight;
+        private Integer customRir;
+        private Integer customRpe;
+        private String customNotes;
+        private CustomizationScope scope;
+
+        public void apply(CustomizationScope layerScope, SetCustomizationValues values) {
+            apply(layerScope, values.getCustomRepsMin(), values.getCustomRepsMax(), values.getCustomWeight(),
+                    values.getCustomRir(), values.getCustomRpe(), values.getCustomNotes());
+        }
+
+        public void apply(CustomizationScope layerScope, Integer repsMin, Integer repsMax, Double weight,
+                          Integer rir, Integer rpe, String notes) {
+            boolean applied = false;
+
+            if (repsMin != null) {
+                customRepsMin = repsMin;
+                applied = true;
+            }
+            if (repsMax != null) {
+                customRepsMax = repsMax;
+                applied = true;
+            }
+            if (weight != null) {
+                customWeight = weight;
+                applied = true;
+            }
+            if (rir != null || rpe != null) {
+                customRir = rir;
+                customRpe = rpe;
+                applied = true;
+            }
+            if (notes != null && !notes.trim().isEmpty()) {
+                customNotes = notes;
+                applied = true;
+            }
+
+            if (applied) {
+                scope = layerScope;
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.model.OutboxEvent;
+import com.example.stayrpe.model.OutboxEventStatus;
+import com.example.stayrpe.model.OutboxHandlerReceipt;
+import com.example.stayrpe.repository.OutboxEventRepository;
+import com.example.stayrpe.repository.OutboxHandlerReceiptRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Procesa los eventos del outbox en un pool acotado de workers.
+ *
+ * Cada poll reclama como mucho tantos eventos vencidos como huecos libres tenga el pool
+ * (workers + queue-capacity) con un UPDATE condicional que les da una concesión de lease-seconds:
+ * dos instancias no procesan el mismo evento, y si un worker cae el evento vuelve a vencer.
+ * Cada handler corre en su propia transacción con su constancia (idempotencia); si alguno falla
+ * el evento se reintenta con espera exponencial hasta max-attempts y después queda FAILED.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final OutboxEventRepository eventRepository;
+    private final OutboxHandlerReceiptRepository receiptRepository;
+    private final Map<String, List<OutboxEventHandler>> handlersByType;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor workers;
+    private final Semaphore slots;
+    private final int slotCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+    private final long retryBaseSeconds;
+    private final int retentionDays;
+
+    public OutboxDispatcher(
+            OutboxEventRepository eventRepository,
+            OutboxHandlerReceiptRepository receiptRepository,
+            List<OutboxEventHandler> handlers,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${stayrpe.outbox.workers:2}") int workerCount,
+            @Value("${stayrpe.outbox.queue-capacity:50}") int queueCapacity,
+            @Value("${stayrpe.outbox.batch-size:50}") int batchSize,
+            @Value("${stayrpe.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${stayrpe.outbox.lease-seconds:60}") long leaseSeconds,
+            @Value("${stayrpe.outbox.retry-base-seconds:5}") long retryBaseSeconds,
+            @Value("${stayrpe.outbox.retention-days:7}") int retentionDays
+    ) {
+        this.eventRepository = eventRepository;
+        this.receiptRepository = receiptRepository;
+        this.handlersByType = handlers.stream()
+                .sorted(Comparator.comparing(OutboxEventHandler::name))
+                .collect(Collectors.groupingBy(OutboxEventHandler::eventType));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new CustomizableThreadFactory("outbox-"));
+        this.slotCount = workerCount + Math.max(1, queueCapacity);
+        this.slots = new Semaphore(slotCount);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.retryBaseSeconds = retryBaseSeconds;
+        this.retentionDays = retentionDays;
+
+        meterRegistry.gauge("stayrpe.outbox.in.flight", slots, s -> slotCount - s.availablePermits());
+        logger.info("Outbox: {} workers, handlers {}", workerCount, handlersByType.values().stream()
+                .flatMap(List::stream).map(OutboxEventHandler::name).collect(Collectors.toList()));
+    }
+
+    @Scheduled(initialDelayString = "${stayrpe.outbox.poll-interval-ms:1000}",
+            fixedDelayString = "${stayrpe.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        int free = slots.availablePermits();
+        if (free == 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = transactionTemplate.execute(status ->
+                eventRepository.findDueIds(now, PageRequest.of(0, Math.min(free, batchSize))));
+
+        for (Long id : dueIds) {
+            if (!slots.tryAcquire()) {
+                break;
+            }
+            Boolean claimed = transactionTemplate.execute(status ->
+                    eventRepository.claim(id, now, now.plusSeconds(leaseSeconds)) == 1);
+            if (!Boolean.TRUE.equals(claimed)) {
+                slots.release();
+                continue;
+            }
+
+            try {
+                workers.execute(() -> {
+                    try {
+                        process(id);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Apagando: la concesión vence y el evento se procesa en el siguiente arranque
+                slots.release();
+            }
+        }
+    }
+
+    void process(Long eventId) {
+        OutboxEvent event = transactionTemplate.execute(status -> eventRepository.findById(eventId).orElse(null));
+        if (event == null) {
+            return;
+        }
+
+        String error = null;
+        for (OutboxEventHandler handler : handlersByType.getOrDefault(event.getEventType(), List.of())) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "success";
+            try {
+                Boolean ran = transactionTemplate.execute(status -> {
+                    if (receiptRepository.existsByEventIdAndHandler(eventId, handler.name())) {
+                        return false;
+                    }
+                    handler.handle(event);
+                    receiptRepository.save(OutboxHandlerReceipt.builder()
+                            .eventId(eventId)
+                            .handler(handler.name())
+                            .processedAt(LocalDateTime.now())
+                            .build());
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(ran)) {
+                    outcome = "skipped";
+                }
+            } catch (Exception e) {
+                outcome = "error";
+                error = handler.name() + ": " + e.getMessage();
+                logger.warn("Handler {} falló con el evento {} (intento {}): {}",
+                        handler.name(), eventId, event.getAttempts(), e.getMessage());
+            } finally {
+                sample.stop(meterRegistry.timer("stayrpe.outbox.handler", "handler", handler.name(), "outcome", outcome));
+            }
+        }
+
+        finish(eventId, error);
+    }
+
+    private void finish(Long eventId, String error) {
+        String outcome = transactionTemplate.execute(status -> {
+            OutboxEvent event = eventRepository.findById(eventId).orElse(null);
+            if (event == null) {
+                return "missing";
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            if (error == null) {
+                event.setStatus(OutboxEventStatus.DONE);
+                event.setProcessedAt(now);
+                event.setLastError(null);
+                meterRegistry.timer("stayrpe.outbox.lag", "type", event.getEventType())
+                        .record(Duration.between(event.getCreatedAt(), now));
+            } else {
+                event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setStatus(OutboxEventStatus.FAILED);
+                    logger.error("Evento {} ({}) descartado tras {} intentos: {}",
+                            eventId, event.getEventType(), event.getAttempts(), error);
+                } else {
+                    event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                }
+            }
+            eventRepository.save(event);
+            return event.getStatus() == OutboxEventStatus.PENDING ? "retry" : event.getStatus().name().toLowerCase();
+        });
+
+        meterRegistry.counter("stayrpe.outbox.events", "outcome", outcome).increment();
+    }
+
+    // retry-base-seconds, el doble en cada intento, con un máximo de una hora
+    private Duration backoff(int attempts) {
+        long seconds = retryBaseSeconds << Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = Duration.ofSeconds(seconds);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    @Scheduled(cron = "${stayrpe.outbox.cleanup-cron:0 45 4 * * *}")
+    public void purgeProcessed() {
+        Integer purged = transactionTemplate.execute(status -> {
+            int events = eventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays));
+            receiptRepository.deleteOrphaned();
+            return events;
+        });
+        if (purged != null && purged > 0) {
+            logger.info("Eliminados {} eventos del outbox procesados hace más de {} días", purged, retentionDays);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.model.OutboxEvent;
+
+/**
+ * Procesamiento diferido de un tipo de evento del outbox (datos derivados de un entrenamiento:
+ * agregados, récords, progresión...). OutboxDispatcher ejecuta cada handler en su propia
+ * transacción junto con su constancia, así que un handler que ya terminó no se repite al
+ * reintentar el evento por el fallo de otro. Aun así debe tolerar ejecutarse dos veces si
+ * el proceso cae entre su trabajo fuera de la base de datos y el commit.
+ */
+public interface OutboxEventHandler {
+
+    /** Tipo de evento que atiende, p. ej. {@link OutboxEvent#WORKOUT_COMPLETED} */
+    String eventType();
+
+    /** Nombre estable: se guarda en outbox_handler_receipts */
+    String name();
+
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,310 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.CreateExerciseSetDTO;
+import com.example.stayrpe.dto.CreateRoutineExerciseDTO;
+import com.example.stayrpe.model.*;
+import com.example.stayrpe.repository.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica una edición de rutina como diff sobre las filas existentes en lugar de borrar y recrear.
+ * Los ejercicios se emparejan por id y, si no viene, por posición entre los del mismo ejercicio;
+ * las series por id y, si no viene, por posición dentro del ejercicio. Así se conservan los ids
+ * de ExerciseSet a los que apuntan las customizaciones de macrociclo.
+ *
+ * Un id que no pertenece a la rutina o un ejercicio inexistente lanzan IllegalArgumentException:
+ * son errores del cliente, y quien llama debe responder 400 y deshacer lo ya escrito.
+ */
+@Service
+@Transactional
+public class RoutineUpdateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutineUpdateService.class);
+
+    private final RoutineExerciseRepository routineExerciseRepository;
+    private final ExerciseSetRepository exerciseSetRepository;
+    private final ExerciseRepository exerciseRepository;
+    private final MacrocycleDayCustomizationRepository customizationRepository;
+    private final MacrocycleScopedCustomizationRepository scopedCustomizationRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+
+    public RoutineUpdateService(
+            RoutineExerciseRepository routineExerciseRepository,
+            ExerciseSetRepository exerciseSetRepository,
+            ExerciseRepository exerciseRepository,
+            MacrocycleDayCustomizationRepository customizationRepository,
+            MacrocycleScopedCustomizationRepository scopedCustomizationRepository,
+            SyncTombstoneRepository tombstoneRepository
+    ) {
+        this.routineExerciseRepository = routineExerciseRepository;
+        this.exerciseSetRepository = exerciseSetRepository;
+        this.exerciseRepository = exerciseRepository;
+        this.customizationRepository = customizationRepository;
+        this.scopedCustomizationRepository = scopedCustomizationRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    public SyncResult syncExercises(Routine routine, List<CreateRoutineExerciseDTO> exerciseDTOs) {
+        List<CreateRoutineExerciseDTO> incoming = exerciseDTOs != null ? exerciseDTOs : List.of();
+        SyncResult result = new SyncResult();
+
+        // Estado actual: dos consultas para toda la rutina
+        List<RoutineExercise> existingExercises = routineExerciseRepository.findByRoutineIdOrderByOrder(routine.getId());
+        Map<Long, List<ExerciseSet>> existingSets = exerciseSetRepository
+                .findByRoutineIdOrderBySetNumber(routine.getId())
+                .stream()
+                .collect(Collectors.groupingBy(es -> es.getRoutineExercise().getId()));
+
+        Map<Long, Exercise> exercises = loadExercises(incoming);
+
+        Map<CreateRoutineExerciseDTO, RoutineExercise> matches = matchExercises(existingExercises, incoming);
+
+        List<ExerciseSet> setsToInsert = new ArrayList<>();
+        List<Long> setsToDelete = new ArrayList<>();
+
+        for (CreateRoutineExerciseDTO exerciseDTO : incoming) {
+            Exercise exercise = exercises.get(exerciseDTO.getExerciseId());
+            RoutineExercise routineExercise = matches.get(exerciseDTO);
+
+            if (routineExercise == null) {
+                routineExercise = routineExerciseRepository.save(RoutineExercise.builder()
+                        .routine(routine)
+                        .exercise(exercise)
+                        .order(exerciseDTO.getOrder())
+                        .numberOfSets(exerciseDTO.getNumberOfSets())
+                        .restBetweenSets(exerciseDTO.getRestBetweenSets())
+                        .notes(exerciseDTO.getNotes())
+                        .build());
+                result.exercisesInserted++;
+            } else if (applyExerciseChanges(routineExercise, exercise, exerciseDTO)) {
+                result.exercisesUpdated++;
+            }
+
+            List<ExerciseSet> currentSets = existingSets.getOrDefault(routineExercise.getId(), List.of());
+            syncSets(routineExercise, currentSets, exerciseDTO.getSets(), setsToInsert, setsToDelete, result);
+        }
+
+        List<Long> exercisesToDelete = new ArrayList<>();
+        Set<RoutineExercise> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(matches.values());
+        for (RoutineExercise routineExercise : existingExercises) {
+            if (!kept.contains(routineExercise)) {
+                exercisesToDelete.add(routineExercise.getId());
+                existingSets.getOrDefault(routineExercise.getId(), List.of())
+                        .forEach(es -> setsToDelete.add(es.getId()));
+            }
+        }
+
+        if (!setsToInsert.isEmpty()) {
+            exerciseSetRepository.saveAll(setsToInsert);
+        }
+
+        // Los borrados van al final: cada DELETE masivo vuelca antes los UPDATE pendientes en lote
+        LocalDateTime deletedAt = LocalDateTime.now();
+        if (!setsToDelete.isEmpty()) {
+            tombstoneRepository.recordExerciseSets(setsToDelete, deletedAt);
+            tombstoneRepository.recordDayCustomizationsOfExerciseSets(setsToDelete, deletedAt);
+            tombstoneRepository.recordScopedCustomizationsOfExerciseSets(setsToDelete, deletedAt);
+            result.customizationsDeleted += customizationRepository.deleteByExerciseSetIdIn(setsToDelete);
+            result.customizationsDeleted += scopedCustomizationRepository.deleteByExerciseSetIdIn(setsToDelete);
+            result.setsDeleted = exerciseSetRepository.deleteByIdIn(setsToDelete);
+        }
+        if (!exercisesToDelete.isEmpty()) {
+            tombstoneRepository.recordRoutineExercises(exercisesToDelete, deletedAt);
+            result.exercisesDeleted = routineExerciseRepository.deleteByIdIn(exercisesToDelete);
+        }
+
+        logger.info("Rutina {} sincronizada: {}", routine.getId(), result);
+        return result;
+    }
+
+    private Map<Long, Exercise> loadExercises(List<CreateRoutineExerciseDTO> incoming) {
+        Set<Long> exerciseIds = incoming.stream()
+                .map(CreateRoutineExerciseDTO::getExerciseId)
+                .collect(Collectors.toSet());
+
+        if (exerciseIds.contains(null)) {
+            throw new IllegalArgumentException("Ejercicio no encontrado: null");
+        }
+
+        Map<Long, Exercise> exercises = exerciseRepository.findAllById(exerciseIds).stream()
+                .collect(Collectors.toMap(Exercise::getId, Function.identity()));
+
+        for (Long exerciseId : exerciseIds) {
+            if (!exercises.containsKey(exerciseId)) {
+                throw new IllegalArgumentException("Ejercicio no encontrado: " + exerciseId);
+            }
+        }
+        return exercises;
+    }
+
+    /**
+     * Primero se reservan los emparejamientos explícitos por id; el resto se empareja
+     * con el primer ejercicio existente libre que tenga el mismo exerciseId, en orden.
+     */
+    private Map<CreateRoutineExerciseDTO, RoutineExercise> matchExercises(
+            List<RoutineExercise> existingExercises, List<CreateRoutineExerciseDTO> incoming) {
+
+        Map<CreateRoutineExerciseDTO, RoutineExercise> matches = new IdentityHashMap<>();
+        Map<Long, RoutineExercise> available = new LinkedHashMap<>();
+        existingExercises.forEach(re -> available.put(re.getId(), re));
+
+        for (CreateRoutineExerciseDTO exerciseDTO : incoming) {
+            if (exerciseDTO.getId() != null) {
+                RoutineExercise routineExercise = available.remove(exerciseDTO.getId());
+                if (routineExercise == null) {
+                    throw new IllegalArgumentException("El ejercicio " + exerciseDTO.getId() + " no pertenece a esta rutina");
+                }
+                matches.put(exerciseDTO, routineExercise);
+            }
+        }
+
+        for (CreateRoutineExerciseDTO exerciseDTO : incoming) {
+            if (exerciseDTO.getId() != null) {
+                continue;
+            }
+            Iterator<RoutineExercise> candidates = available.values().iterator();
+            while (candidates.hasNext()) {
+                RoutineExercise candidate = candidates.next();
+                if (candidate.getExercise() != null
+                        && candidate.getExercise().getId().equals(exerciseDTO.getExerciseId())) {
+                    matches.put(exerciseDTO, candidate);
+                    candidates.remove();
+                    break;
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    private void syncSets(RoutineExercise routineExercise, List<ExerciseSet> currentSets,
+                          List<CreateExerciseSetDTO> setDTOs, List<ExerciseSet> setsToInsert,
+                          List<Long> setsToDelete, SyncResult result) {
+
+        List<CreateExerciseSetDTO> incoming = setDTOs != null ? setDTOs : List.of();
+        Map<Long, ExerciseSet> available = new LinkedHashMap<>();
+        currentSets.forEach(es -> available.put(es.getId(), es));
+
+        Map<CreateExerciseSetDTO, ExerciseSet> matches = new IdentityHashMap<>();
+        for (CreateExerciseSetDTO setDTO : incoming) {
+            if (setDTO.getId() != null) {
+                ExerciseSet exerciseSet = available.remove(setDTO.getId());
+                if (exerciseSet == null) {
+                    throw new IllegalArgumentException("La serie " + setDTO.getId() + " no pertenece al ejercicio " + routineExercise.getId());
+                }
+                matches.put(setDTO, exerciseSet);
+            }
+        }
+
+        Iterator<ExerciseSet> byPosition = available.values().iterator();
+        for (CreateExerciseSetDTO setDTO : incoming) {
+            if (setDTO.getId() == null && byPosition.hasNext()) {
+                matches.put(setDTO, byPosition.next());
+                byPosition.remove();
+            }
+        }
+
+        for (CreateExerciseSetDTO setDTO : incoming) {
+            ExerciseSet exerciseSet = matches.get(setDTO);
+            if (exerciseSet == null) {
+                setsToInsert.add(ExerciseSet.builder()
+                        .routineExercise(routineExercise)
+                        .setNumber(setDTO.getSetNumber())
+                        .targetRepsMin(setDTO.getTargetRepsMin())
+                        .targetRepsMax(setDTO.getTargetRepsMax())
+                        .targetWeight(setDTO.getTargetWeight())
+                        .rir(setDTO.getRir())
+                        .rpe(setDTO.getRpe())
+                        .notes(setDTO.getNotes())
+                        .build());
+                result.setsInserted++;
+            } else if (applySetChanges(exerciseSet, setDTO)) {
+                result.setsUpdated++;
+            }
+        }
+
+        available.values().forEach(es -> setsToDelete.add(es.getId()));
+    }
+
+    // Solo se tocan los campos que cambian: el dirty checking de Hibernate omite el UPDATE si no hay cambios
+
+    private boolean applyExerciseChanges(RoutineExercise routineExercise, Exercise exercise, CreateRoutineExerciseDTO dto) {
+        boolean changed = false;
+        if (routineExercise.getExercise() == null || !routineExercise.getExercise().getId().equals(exercise.getId())) {
+            routineExercise.setExercise(exercise);
+            changed = true;
+        }
+        if (!Objects.equals(routineExercise.getOrder(), dto.getOrder())) {
+            routineExercise.setOrder(dto.getOrder());
+            changed = true;
+        }
+        if (!Objects.equals(routineExercise.getNumberOfSets(), dto.getNumberOfSets())) {
+            routineExercise.setNumberOfSets(dto.getNumberOfSets());
+            changed = true;
+        }
+        if (!Objects.equals(routineExercise.getRestBetweenSets(), dto.getRestBetweenSets())) {
+            routineExercise.setRestBetweenSets(dto.getRestBetweenSets());
+            changed = true;
+        }
+        if (!Objects.equals(routineExercise.getNotes(), dto.getNotes())) {
+            routineExercise.setNotes(dto.getNotes());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private boolean applySetChanges(ExerciseSet exerciseSet, CreateExerciseSetDTO dto) {
+        boolean changed = false;
+        if (!Objects.equals(exerciseSet.getSetNumber(), dto.getSetNumber())) {
+            exerciseSet.setSetNumber(dto.getSetNumber());
+            changed = true;
+        }
+        if (!Objects.equals(exerciseSet.getTargetRepsMin(), dto.getTargetRepsMin())) {
+            exerciseSet.setTargetRepsMin(dto.getTargetRepsMin());
+            changed = true;
+        }
+        if (!Objects.equals(exerciseSet.getTargetRepsMax(), dto.getTargetRepsMax())) {
+            exerciseSet.setTargetRepsMax(dto.getTargetRepsMax());
+            changed = true;
+        }
+        if (!Objects.equals(exerciseSet.getTargetWeight(), dto.getTargetWeight())) {
+            exerciseSet.setTargetWeight(dto.getTargetWeight());
+            changed = true;
+        }
+        if (!Objects.equals(exerciseSet.getRir(), dto.getRir())) {
+            exerciseSet.setRir(dto.getRir());
+            changed = true;
+        }
+        if (!Objects.equals(exerciseSet.getRpe(), dto.getRpe())) {
+            exerciseSet.setRpe(dto.getRpe());
+            changed = true;
+        }
+        if (!Objects.equals(exerciseSet.getNotes(), dto.getNotes())) {
+            exerciseSet.setNotes(dto.getNotes());
+            changed = true;
+        }
+        return changed;
+    }
+
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    public static class SyncResult {
+        private int exercisesInserted;
+        private int exercisesUpdated;
+        private int exercisesDeleted;
+        private int setsInserted;
+        private int setsUpdated;
+        private int setsDeleted;
+        private int customizationsDeleted;
+    }
+}
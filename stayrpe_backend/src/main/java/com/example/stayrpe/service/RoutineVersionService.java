@@ -0,0 +1,182 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.CompleteWorkoutRequest;
+import com.example.stayrpe.model.RoutineSnapshot;
+import com.example.stayrpe.model.RoutineVersion;
+import com.example.stayrpe.repository.RoutineVersionRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Gestiona las versiones inmutables de rutina que referencian las sesiones de entrenamiento.
+ * Como una versión nunca cambia, su contenido ya parseado se cachea por id (LRU acotada).
+ */
+@Service
+@Transactional
+public class RoutineVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutineVersionService.class);
+
+    private static final int MAX_CACHED_SNAPSHOTS = 1000;
+
+    // JSON canónico: propiedades ordenadas para que el mismo contenido dé siempre el mismo hash
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    private final RoutineVersionRepository routineVersionRepository;
+    private final Cache<Long, RoutineSnapshot> snapshotCache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_SNAPSHOTS)
+            .build();
+
+    public RoutineVersionService(RoutineVersionRepository routineVersionRepository) {
+        this.routineVersionRepository = routineVersionRepository;
+    }
+
+    /**
+     * Devuelve la versión correspondiente a la plantilla del entrenamiento, creándola si no existe.
+     * Devuelve null si la plantilla no se puede versionar (sin ejercicios, o con exerciseOrder/setNumber
+     * ausentes o repetidos); en ese caso la sesión conserva sus copias en línea como hasta ahora.
+     */
+    public RoutineVersion resolveVersion(CompleteWorkoutRequest request) {
+        RoutineSnapshot snapshot = buildSnapshot(request);
+        if (snapshot == null) {
+            return null;
+        }
+
+        String content;
+        try {
+            content = CANONICAL_MAPPER.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            logger.warn("No se pudo serializar la versión de la rutina '{}'", request.getRoutineName(), e);
+            return null;
+        }
+
+        String contentHash = sha256(content);
+        RoutineVersion version = routineVersionRepository.findByContentHash(contentHash).orElse(null);
+        if (version == null) {
+            routineVersionRepository.insertIfAbsent(contentHash, snapshot.getRoutineName(), content, LocalDateTime.now());
+            version = routineVersionRepository.findByContentHashLocking(contentHash)
+                    .orElseThrow(() -> new IllegalStateException("Versión de rutina no encontrada tras insertarla: " + contentHash));
+            logger.info("Nueva versión de rutina {} para '{}'", version.getId(), snapshot.getRoutineName());
+        }
+
+        snapshotCache.asMap().putIfAbsent(version.getId(), snapshot);
+        return version;
+    }
+
+    /**
+     * Contenido de una versión. Solo consulta la base de datos si no está en caché.
+     */
+    @Transactional(readOnly = true)
+    public RoutineSnapshot getSnapshot(Long versionId) {
+        RoutineSnapshot cached = snapshotCache.getIfPresent(versionId);
+        if (cached != null) {
+            return cached;
+        }
+
+        RoutineVersion version = routineVersionRepository.findById(versionId).orElse(null);
+        if (version == null) {
+            return null;
+        }
+
+        RoutineSnapshot snapshot;
+        try {
+            snapshot = CANONICAL_MAPPER.readValue(version.getContent(), RoutineSnapshot.class);
+        } catch (JsonProcessingException e) {
+            logger.error("Contenido corrupto en la versión de rutina {}", versionId, e);
+            return null;
+        }
+
+        snapshotCache.put(versionId, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Indica si un ejercicio o serie forma parte de la plantilla (y por tanto de la versión)
+     */
+    public static boolean isTemplate(Boolean wasAddedDuringWorkout) {
+        return !Boolean.TRUE.equals(wasAddedDuringWorkout);
+    }
+
+    private RoutineSnapshot buildSnapshot(CompleteWorkoutRequest request) {
+        if (request.getRoutineName() == null || request.getExercises() == null) {
+            return null;
+        }
+
+        RoutineSnapshot snapshot = RoutineSnapshot.builder()
+                .routineName(request.getRoutineName())
+                .routineDescription(request.getRoutineDescription())
+                .build();
+
+        Set<Integer> exerciseOrders = new HashSet<>();
+        for (CompleteWorkoutRequest.CompletedExercise exercise : request.getExercises()) {
+            if (!isTemplate(exercise.getWasAddedDuringWorkout())) {
+                continue;
+            }
+            if (exercise.getExerciseOrder() == null || !exerciseOrders.add(exercise.getExerciseOrder())) {
+                return null;
+            }
+
+            RoutineSnapshot.ExerciseSnapshot exerciseSnapshot = RoutineSnapshot.ExerciseSnapshot.builder()
+                    .exerciseId(exercise.getExerciseId())
+                    .exerciseName(exercise.getExerciseName())
+                    .exerciseMuscle(exercise.getExerciseMuscle())
+                    .exerciseOrder(exercise.getExerciseOrder())
+                    .restBetweenSets(exercise.getRestBetweenSets())
+                    .notes(exercise.getNotes())
+                    .build();
+
+            Set<Integer> setNumbers = new HashSet<>();
+            if (exercise.getSets() != null) {
+                for (CompleteWorkoutRequest.CompletedSet set : exercise.getSets()) {
+                    if (!isTemplate(set.getWasAddedDuringWorkout())) {
+                        continue;
+                    }
+                    if (set.getSetNumber() == null || !setNumbers.add(set.getSetNumber())) {
+                        return null;
+                    }
+                    exerciseSnapshot.getSets().add(RoutineSnapshot.SetSnapshot.builder()
+                            .setNumber(set.getSetNumber())
+                            .targetRepsMin(set.getTargetRepsMin())
+                            .targetRepsMax(set.getTargetRepsMax())
+                            .targetWeight(set.getTargetWeight())
+                            .targetRir(set.getTargetRir())
+                            .targetRpe(set.getTargetRpe())
+                            .targetNotes(set.getTargetNotes())
+                            .build());
+                }
+            }
+
+            snapshot.getExercises().add(exerciseSnapshot);
+        }
+
+        return snapshot.getExercises().isEmpty() ? null : snapshot;
+    }
+
+    private static String sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
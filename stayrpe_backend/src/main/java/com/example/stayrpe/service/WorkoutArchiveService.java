@@ -0,0 +1,248 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.model.*;
+import com.example.stayrpe.repository.WorkoutSessionArchiveRepository;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Archivo frío de sesiones antiguas: los ejercicios y series de cada sesión completada hace más de
+ * stayrpe.archive.after-days se empaquetan en un blob (Smile + deflate) en workout_session_archives y
+ * se borran de las tablas calientes. La cabecera de la sesión no se mueve, así que historial,
+ * estadísticas y change feed no cambian; getWorkoutDetails descomprime el blob de forma transparente.
+ *
+ * Cada sesión se archiva en su propia transacción: marcar, leer, escribir el blob y borrar las filas
+ * ocurre a la vez o no ocurre.
+ */
+@Service
+public class WorkoutArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkoutArchiveService.class);
+
+    private static final SmileMapper SMILE_MAPPER = new SmileMapper();
+
+    private final WorkoutSessionArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int batchSize;
+    private final int maxSessionsPerRun;
+
+    public WorkoutArchiveService(
+            WorkoutSessionArchiveRepository archiveRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${stayrpe.archive.enabled:true}") boolean enabled,
+            @Value("${stayrpe.archive.after-days:365}") int afterDays,
+            @Value("${stayrpe.archive.batch-size:200}") int batchSize,
+            @Value("${stayrpe.archive.max-sessions-per-run:50000}") int maxSessionsPerRun
+    ) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+        this.maxSessionsPerRun = maxSessionsPerRun;
+    }
+
+    @Scheduled(cron = "${stayrpe.archive.cron:0 15 3 * * *}")
+    public void archiveScheduled() {
+        if (enabled) {
+            archiveOldSessions();
+        }
+    }
+
+    /**
+     * @return número de sesiones archivadas en esta ejecución
+     */
+    public int archiveOldSessions() {
+        LocalDateTime before = LocalDateTime.now().minusDays(afterDays);
+        int archived = 0;
+        int failed = 0;
+
+        while (archived < maxSessionsPerRun) {
+            int limit = Math.min(batchSize, maxSessionsPerRun - archived);
+            List<Long> sessionIds = transactionTemplate.execute(status ->
+                    archiveRepository.findSessionIdsToArchive(before, PageRequest.of(0, limit)));
+            if (sessionIds.isEmpty()) {
+                break;
+            }
+
+            int batchArchived = 0;
+            for (Long sessionId : sessionIds) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> archiveSession(sessionId)))) {
+                        batchArchived++;
+                    }
+                } catch (Exception e) {
+                    failed++;
+                    logger.error("Error archivando la sesión {}", sessionId, e);
+                }
+            }
+            archived += batchArchived;
+
+            // Un lote sin ninguna sesión archivada se repetiría igual en la siguiente vuelta
+            if (batchArchived == 0) {
+                break;
+            }
+        }
+
+        logger.info("Archivo de sesiones anteriores a {}: {} archivadas, {} con error", before, archived, failed);
+        return archived;
+    }
+
+    // Dentro de la transacción de archiveOldSessions; false si otra ejecución se adelantó
+    private boolean archiveSession(Long sessionId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (archiveRepository.markArchived(sessionId, now) == 0) {
+            return false;
+        }
+
+        List<WorkoutSessionExercise> exercises = archiveRepository.findSessionExercises(sessionId);
+        Map<Long, List<ArchivedWorkoutContent.ArchivedSet>> setsByExercise = new HashMap<>();
+        int setCount = 0;
+        for (WorkoutSessionSet set : archiveRepository.findSessionSets(sessionId)) {
+            setsByExercise.computeIfAbsent(set.getWorkoutSessionExercise().getId(), id -> new ArrayList<>())
+                    .add(ArchivedWorkoutContent.ArchivedSet.builder()
+                            .setNumber(set.getSetNumber())
+                            .targetRepsMin(set.getTargetRepsMin())
+                            .targetRepsMax(set.getTargetRepsMax())
+                            .targetWeight(set.getTargetWeight())
+                            .targetRir(set.getTargetRir())
+                            .targetRpe(set.getTargetRpe())
+                            .targetNotes(set.getTargetNotes())
+                            .actualReps(set.getActualReps())
+                            .actualWeight(set.getActualWeight())
+                            .actualRir(set.getActualRir())
+                            .actualRpe(set.getActualRpe())
+                            .actualNotes(set.getActualNotes())
+                            .completed(set.getCompleted())
+                            .wasAddedDuringWorkout(set.getWasAddedDuringWorkout())
+                            .build());
+            setCount++;
+        }
+
+        ArchivedWorkoutContent content = new ArchivedWorkoutContent();
+        for (WorkoutSessionExercise exercise : exercises) {
+            content.getExercises().add(ArchivedWorkoutContent.ArchivedExercise.builder()
+                    .exerciseId(exercise.getExercise() != null ? exercise.getExercise().getId() : null)
+                    .exerciseName(exercise.getExerciseName())
+                    .exerciseMuscle(exercise.getExerciseMuscle())
+                    .exerciseOrder(exercise.getExerciseOrder())
+                    .plannedSets(exercise.getPlannedSets())
+                    .completedSets(exercise.getCompletedSets())
+                    .restBetweenSets(exercise.getRestBetweenSets())
+                    .notes(exercise.getNotes())
+                    .wasAddedDuringWorkout(exercise.getWasAddedDuringWorkout())
+                    .totalVolume(exercise.getTotalVolume())
+                    .sets(setsByExercise.getOrDefault(exercise.getId(), new ArrayList<>()))
+                    .build());
+        }
+
+        byte[] raw;
+        byte[] compressed;
+        try {
+            raw = SMILE_MAPPER.writeValueAsBytes(content);
+            compressed = deflate(raw);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo serializar la sesión " + sessionId, e);
+        }
+
+        archiveRepository.save(WorkoutSessionArchive.builder()
+                .sessionId(sessionId)
+                .format(WorkoutSessionArchive.FORMAT_SMILE_DEFLATE)
+                .payload(compressed)
+                .exerciseCount(exercises.size())
+                .setCount(setCount)
+                .uncompressedBytes(raw.length)
+                .compressedBytes(compressed.length)
+                .archivedAt(now)
+                .build());
+        archiveRepository.flush();
+
+        archiveRepository.deleteSessionSets(sessionId);
+        archiveRepository.deleteSessionExercises(sessionId);
+
+        meterRegistry.counter("stayrpe.archive.sessions").increment();
+        meterRegistry.counter("stayrpe.archive.sets").increment(setCount);
+        return true;
+    }
+
+    /**
+     * Ejercicios y series de una sesión archivada como entidades no persistidas
+     *
+     * @throws IllegalStateException si falta el archivo o no se puede leer
+     */
+    public List<WorkoutSessionExercise> loadArchivedExercises(Long sessionId) {
+        WorkoutSessionArchive archive = archiveRepository.findById(sessionId)
+                .orElseThrow(() -> new IllegalStateException("Falta el archivo de la sesión " + sessionId));
+        if (!WorkoutSessionArchive.FORMAT_SMILE_DEFLATE.equals(archive.getFormat())) {
+            throw new IllegalStateException("Formato de archivo desconocido: " + archive.getFormat());
+        }
+
+        try {
+            ArchivedWorkoutContent content = SMILE_MAPPER.readValue(inflate(archive.getPayload()), ArchivedWorkoutContent.class);
+            meterRegistry.counter("stayrpe.archive.reads").increment();
+            return content.toSessionExercises();
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer el archivo de la sesión " + sessionId, e);
+        }
+    }
+
+    public void deleteArchive(Long sessionId) {
+        if (archiveRepository.existsById(sessionId)) {
+            archiveRepository.deleteById(sessionId);
+        }
+    }
+
+    /**
+     * Totales para /admin/archive
+     */
+    public Map<String, Object> getTotals() {
+        return transactionTemplate.execute(status -> {
+            Object[] totals = archiveRepository.getArchiveTotals().get(0);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("archivedSessions", totals[0]);
+            result.put("archivedSets", totals[1]);
+            result.put("uncompressedBytes", totals[2]);
+            result.put("compressedBytes", totals[3]);
+            result.put("hotSets", archiveRepository.countHotSets());
+            result.put("afterDays", afterDays);
+            return result;
+        });
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 3));
+        try (OutputStream out = new DeflaterOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.config.SqlStatementCounter;
+import com.example.stayrpe.dto.PartitionStatusResponse;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.UsuarioRepository;
+import com.example.stayrpe.repository.WorkoutSessionArchiveRepository;
+import com.example.stayrpe.repository.WorkoutSessionRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Mantenimiento de las particiones trimestrales de workout_sessions (db/migration/mysql/V2).
+ * La última partición, p_future, recoge lo que aún no tiene trimestre propio; al arrancar y cada
+ * noche se parte para que siempre haya stayrpe.partitions.quarters-ahead trimestres creados por
+ * delante del actual. Partir p_future cuando está vacía es inmediato; si ya tiene filas, MySQL las
+ * reparte copiándolas. Las particiones antiguas no se eliminan: son el historial del usuario, y sus
+ * ejercicios y series ya los compacta {@link WorkoutArchiveService}.
+ *
+ * {@link #checkPruning} lanza las consultas por rango de completed_at de los repositorios, recoge el
+ * SQL que genera Hibernate (con {@link SqlStatementCounter#capture}) y ejecuta EXPLAIN sobre ese mismo
+ * SQL con los mismos parámetros, para comprobar que solo toca las particiones que solapan con el rango.
+ * Las estadísticas de toda la vida del usuario (getDashboardStats, countFullyCompletedWorkouts,
+ * getAverageCompletionPercentage, getTotalVolumeByUser, getAverageWorkoutDuration) no filtran por
+ * completed_at y leen todas las particiones a propósito, por el índice (user_id, completed_at) de cada
+ * una; no se comprueban aquí y WorkoutStatsCache las mantiene fuera del camino de cada petición.
+ *
+ * Fuera de MySQL (H2 en local) la tabla no está particionada y todo es un no-op.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class WorkoutSessionPartitionService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkoutSessionPartitionService.class);
+
+    public static final String TABLE = "workout_sessions";
+    public static final String FUTURE_PARTITION = "p_future";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WorkoutSessionRepository workoutSessionRepository;
+    private final WorkoutSessionArchiveRepository archiveRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int quartersAhead;
+    private final int archiveAfterDays;
+
+    private volatile Boolean mysql;
+
+    public WorkoutSessionPartitionService(
+            JdbcTemplate jdbcTemplate,
+            WorkoutSessionRepository workoutSessionRepository,
+            WorkoutSessionArchiveRepository archiveRepository,
+            UsuarioRepository usuarioRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${stayrpe.partitions.enabled:true}") boolean enabled,
+            @Value("${stayrpe.partitions.quarters-ahead:2}") int quartersAhead,
+            @Value("${stayrpe.archive.after-days:365}") int archiveAfterDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.workoutSessionRepository = workoutSessionRepository;
+        this.archiveRepository = archiveRepository;
+        this.usuarioRepository = usuarioRepository;
+        // Lectura-escritura: las consultas van al primario, el mismo sobre el que se hace el EXPLAIN
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.quartersAhead = quartersAhead;
+        this.archiveAfterDays = archiveAfterDays;
+    }
+
+    /**
+     * Después de SchemaMigrationRunner, que es quien particiona la tabla la primera vez
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        maintainScheduled();
+    }
+
+    @Scheduled(cron = "${stayrpe.partitions.cron:0 45 3 * * *}")
+    public void maintainScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ensureFuturePartitions();
+        } catch (Exception e) {
+            logger.error("Error creando las particiones futuras de {}", TABLE, e);
+        }
+    }
+
+    /**
+     * @return nombres de las particiones creadas (vacío si ya estaban o la tabla no está particionada)
+     */
+    public List<String> ensureFuturePartitions() {
+        List<PartitionStatusResponse.PartitionInfo> partitions = getPartitions();
+        if (partitions.size() < 2) {
+            return List.of();
+        }
+
+        PartitionStatusResponse.PartitionInfo last = partitions.get(partitions.size() - 1);
+        LocalDate lastBound = partitions.get(partitions.size() - 2).getTo();
+        if (!FUTURE_PARTITION.equals(last.getName()) || last.getTo() != null || lastBound == null) {
+            logger.warn("{} no termina en {} VALUES LESS THAN (MAXVALUE); no se crean particiones", TABLE, FUTURE_PARTITION);
+            return List.of();
+        }
+
+        LocalDate target = quarterStart(LocalDate.now()).plusMonths(3L * (quartersAhead + 1));
+        List<String> names = new ArrayList<>();
+        StringJoiner definitions = new StringJoiner(", ");
+        for (LocalDate bound = lastBound.plusMonths(3); !bound.isAfter(target); bound = bound.plusMonths(3)) {
+            String name = partitionName(bound);
+            names.add(name);
+            definitions.add("PARTITION " + name + " VALUES LESS THAN ('" + bound + "')");
+        }
+        if (names.isEmpty()) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                + definitions + ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+        logger.info("Particiones {} creadas en {} ({} ms, {} filas en {} antes de partir)", names, TABLE,
+                (System.nanoTime() - start) / 1_000_000, last.getApproximateRows(), FUTURE_PARTITION);
+        return names;
+    }
+
+    public PartitionStatusResponse getStatus() {
+        List<PartitionStatusResponse.PartitionInfo> partitions = getPartitions();
+        return PartitionStatusResponse.builder()
+                .table(TABLE)
+                .partitioned(!partitions.isEmpty())
+                .partitions(partitions)
+                .build();
+    }
+
+    /**
+     * Particiones en orden, con sus límites [from, to). Vacío si la tabla no está particionada.
+     */
+    public List<PartitionStatusResponse.PartitionInfo> getPartitions() {
+        if (!isMysql()) {
+            return List.of();
+        }
+
+        List<PartitionStatusResponse.PartitionInfo> partitions = new ArrayList<>();
+        LocalDate[] previousBound = {null};
+        jdbcTemplate.query(
+                "SELECT partition_name, partition_description, table_rows, data_length + index_length " +
+                        "FROM information_schema.partitions " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL " +
+                        "ORDER BY partition_ordinal_position",
+                rs -> {
+                    LocalDate to = parseBound(rs.getString(2));
+                    partitions.add(PartitionStatusResponse.PartitionInfo.builder()
+                            .name(rs.getString(1))
+                            .from(previousBound[0])
+                            .to(to)
+                            .approximateRows(rs.getLong(3))
+                            .bytes(rs.getLong(4))
+                            .build());
+                    previousBound[0] = to;
+                },
+                TABLE);
+        return partitions;
+    }
+
+    /**
+     * EXPLAIN de las consultas por rango de completed_at con las ventanas que usa la aplicación.
+     * Una comprobación falla si el plan no lee ninguna partición o lee alguna que no solapa con el rango.
+     *
+     * @param userId usuario con el que se filtra; si es null, el de la última sesión guardada
+     */
+    public List<PartitionStatusResponse.PruningCheck> checkPruning(Long userId) {
+        List<PartitionStatusResponse.PartitionInfo> partitions = getPartitions();
+        if (partitions.isEmpty()) {
+            return List.of();
+        }
+        if (userId == null) {
+            userId = jdbcTemplate.query("SELECT user_id FROM " + TABLE + " ORDER BY id DESC LIMIT 1",
+                    rs -> rs.next() ? rs.getLong(1) : 0L);
+        }
+
+        List<PartitionStatusResponse.PruningCheck> checks = new ArrayList<>();
+        for (RangeQuery query : captureRangeQueries(userId, LocalDateTime.now())) {
+            checks.add(explain(partitions, query));
+        }
+        return checks;
+    }
+
+    /**
+     * Ejecuta las consultas por rango de los repositorios y devuelve el SQL que generó Hibernate para
+     * cada una, con los valores de sus parámetros en el orden de los '?'
+     */
+    List<RangeQuery> captureRangeQueries(long userId, LocalDateTime now) {
+        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
+        LocalDateTime endOfDay = startOfDay.plusDays(1);
+        LocalDateTime lastWeek = now.minusDays(7);
+        LocalDateTime lastMonth = now.minusDays(30);
+        LocalDateTime archiveBefore = now.minusDays(archiveAfterDays);
+
+        List<RangeQuery> queries = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            Usuario user = usuarioRepository.getReferenceById(userId);
+            queries.add(capture("findThisWeekWorkouts", lastWeek, null,
+                    () -> workoutSessionRepository.findThisWeekWorkouts(user, lastWeek),
+                    userId, lastWeek));
+            queries.add(capture("getThisWeekVolumeByUser", lastWeek, null,
+                    () -> workoutSessionRepository.getThisWeekVolumeByUser(user, lastWeek),
+                    userId, lastWeek));
+            queries.add(capture("findByUserAndDateRange", lastMonth, now,
+                    () -> workoutSessionRepository.findByUserAndDateRange(user, lastMonth, now),
+                    userId, lastMonth, now));
+            queries.add(capture("findTodayWorkouts", startOfDay, endOfDay,
+                    () -> workoutSessionRepository.findTodayWorkouts(user, startOfDay, endOfDay),
+                    userId, startOfDay, endOfDay));
+            queries.add(capture("findSessionIdsToArchive", null, archiveBefore,
+                    () -> archiveRepository.findSessionIdsToArchive(archiveBefore, PageRequest.of(0, 1)),
+                    archiveBefore, 1));
+        });
+        return queries;
+    }
+
+    private static RangeQuery capture(String query, LocalDateTime from, LocalDateTime to,
+                                      Runnable call, Object... args) {
+        String sql = SqlStatementCounter.capture(call).stream()
+                .filter(statement -> statement.contains(TABLE))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(query + " no lanzó ninguna consulta sobre " + TABLE));
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        if (placeholders != args.length) {
+            throw new IllegalStateException(String.format("%s genera %d parámetros y se esperaban %d: %s",
+                    query, placeholders, args.length, sql));
+        }
+        return new RangeQuery(query, sql, from, to, List.of(args));
+    }
+
+    private PartitionStatusResponse.PruningCheck explain(List<PartitionStatusResponse.PartitionInfo> partitions,
+                                                         RangeQuery query) {
+        // Solo la tabla particionada informa la columna partitions; en las demás filas del plan es NULL
+        List<String> scanned = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + query.sql(), query.args().toArray())) {
+            Object used = row.get("partitions");
+            if (used != null) {
+                scanned.addAll(Arrays.asList(used.toString().split(",")));
+            }
+        }
+
+        List<String> expected = expectedPartitions(partitions, query.from(), query.to());
+        return PartitionStatusResponse.PruningCheck.builder()
+                .query(query.query())
+                .sql(query.sql())
+                .partitionsScanned(scanned)
+                .partitionsExpected(expected)
+                .totalPartitions(partitions.size())
+                .pruned(isPruned(scanned, expected))
+                .build();
+    }
+
+    /**
+     * Particiones que solapan con [from, to]; un extremo null deja el rango abierto por ese lado
+     */
+    static List<String> expectedPartitions(List<PartitionStatusResponse.PartitionInfo> partitions,
+                                           LocalDateTime from, LocalDateTime to) {
+        List<String> expected = new ArrayList<>();
+        for (PartitionStatusResponse.PartitionInfo partition : partitions) {
+            boolean afterStart = from == null || partition.getTo() == null || from.isBefore(partition.getTo().atStartOfDay());
+            boolean beforeEnd = to == null || partition.getFrom() == null || !to.isBefore(partition.getFrom().atStartOfDay());
+            if (afterStart && beforeEnd) {
+                expected.add(partition.getName());
+            }
+        }
+        return expected;
+    }
+
+    // Un plan sin particiones no demuestra nada (no es la tabla, o MySQL no la llegó a leer)
+    static boolean isPruned(List<String> scanned, List<String> expected) {
+        return !scanned.isEmpty() && expected.containsAll(scanned);
+    }
+
+    /**
+     * Consulta de un repositorio tal como la lanza Hibernate, con el rango de completed_at que cubre
+     */
+    record RangeQuery(String query, String sql, LocalDateTime from, LocalDateTime to, List<Object> args) {
+    }
+
+    private boolean isMysql() {
+        Boolean result = mysql;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase(Locale.ROOT).contains("mysql");
+            mysql = result;
+        }
+        return result;
+    }
+
+    // partition_description de RANGE COLUMNS: '2025-04-01' o '2025-04-01 00:00:00', o MAXVALUE
+    private static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").trim().substring(0, 10));
+    }
+
+    private static LocalDate quarterStart(LocalDate date) {
+        return LocalDate.of(date.getYear(), ((date.getMonthValue() - 1) / 3) * 3 + 1, 1);
+    }
+
+    // La partición con límite superior 2025-04-01 es la del primer trimestre de 2025: p_2025q1
+    static String partitionName(LocalDate upperBound) {
+        LocalDate quarter = upperBound.minusMonths(3);
+        return String.format("p_%dq%d", quarter.getYear(), (quarter.getMonthValue() - 1) / 3 + 1);
+    }
+}
@@ -6,6 +6,9 @@ import com.example.stayrpe.repository.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,19 +27,38 @@ public class WorkoutSessionService {
     private final RoutineRepository routineRepository;
     private final ExerciseRepository exerciseRepository;
     private final MacrocycleRepository macrocycleRepository;
+    private final RoutineVersionService routineVersionService;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final WorkoutArchiveService workoutArchiveService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     public WorkoutSessionService(
             WorkoutSessionRepository workoutSessionRepository,
             RoutineRepository routineRepository,
             ExerciseRepository exerciseRepository,
-            MacrocycleRepository macrocycleRepository
+            MacrocycleRepository macrocycleRepository,
+            RoutineVersionService routineVersionService,
+            SyncTombstoneRepository tombstoneRepository,
+            OutboxEventRepository outboxEventRepository,
+            WorkoutArchiveService workoutArchiveService,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
     ) {
         this.workoutSessionRepository = workoutSessionRepository;
         this.routineRepository = routineRepository;
         this.exerciseRepository = exerciseRepository;
         this.macrocycleRepository = macrocycleRepository;
+        this.routineVersionService = routineVersionService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.workoutArchiveService = workoutArchiveService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
     }
 
+    @Transactional(readOnly = true)
     public boolean hasAlreadyTrainedToday(Usuario user, Long macrocycleId, Integer absoluteDay) {
         logger.info("Verificando si el usuario {} ya entrenó - Macrociclo: {}, Día: {}",
                 user.getUsername(), macrocycleId, absoluteDay);
@@ -68,6 +90,7 @@ public class WorkoutSessionService {
         return alreadyTrained;
     }
 
+    @Transactional(readOnly = true)
     public Optional<WorkoutSession> getTodaysWorkout(Usuario user, Long macrocycleId, Integer absoluteDay) {
         if (macrocycleId == null || absoluteDay == null) {
             return Optional.empty();
@@ -82,6 +105,7 @@ public class WorkoutSessionService {
                 user, macrocycleOpt.get(), absoluteDay);
     }
 
+    @Transactional(readOnly = true)
     public List<Integer> getCompletedDaysForMacrocycle(Usuario user, Macrocycle macrocycle) {
         logger.info("Obteniendo días completados para macrociclo: {}", macrocycle.getName());
 
@@ -93,6 +117,24 @@ public class WorkoutSessionService {
     }
 
     public WorkoutSession saveCompletedWorkout(Usuario user, CompleteWorkoutRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            WorkoutSession savedSession = doSaveCompletedWorkout(user, request);
+            eventPublisher.publishEvent(new WorkoutSessionsChangedEvent(user.getId(), WorkoutSessionsChangedEvent.Reason.SAVED));
+            outcome = "success";
+            meterRegistry.counter("stayrpe.workouts.completed",
+                    "type", savedSession.getMacrocycle() != null ? "macrocycle" : "free").increment();
+            return savedSession;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("stayrpe.workout.save", "outcome", outcome));
+        }
+    }
+
+    private WorkoutSession doSaveCompletedWorkout(Usuario user, CompleteWorkoutRequest request) {
         logger.info("Guardando entrenamiento completado para usuario: {}", user.getUsername());
 
         validateCompleteWorkoutRequest(request);
@@ -120,11 +162,15 @@ public class WorkoutSessionService {
             }
         }
 
+        // La plantilla se guarda una sola vez como versión inmutable; sin versión, copias en línea
+        RoutineVersion routineVersion = routineVersionService.resolveVersion(request);
+
         WorkoutSession session = WorkoutSession.builder()
                 .user(user)
                 .routine(routine)
+                .routineVersion(routineVersion)
                 .routineName(request.getRoutineName())
-                .routineDescription(request.getRoutineDescription())
+                .routineDescription(routineVersion == null ? request.getRoutineDescription() : null)
                 .startedAt(request.getStartedAt())
                 .completedAt(request.getCompletedAt())
                 .totalExercises(request.getExercises().size())
@@ -138,10 +184,20 @@ public class WorkoutSessionService {
 
         WorkoutSession savedSession = workoutSessionRepository.save(session);
 
-        createSessionExercises(savedSession, request.getExercises());
+        createSessionExercises(savedSession, request.getExercises(), routineVersion != null);
 
         recalculateSessionVolume(savedSession);
 
+        // Los datos derivados se calculan fuera de la petición (OutboxDispatcher) a partir de este evento
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEvent.WORKOUT_COMPLETED)
+                .aggregateId(savedSession.getId())
+                .userId(user.getId())
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+
         logger.info("Entrenamiento guardado con ID: {} - {} ejercicios, {} series completadas - Macrociclo: {}, Día: {}",
                 savedSession.getId(), savedSession.getTotalExercises(), savedSession.getCompletedSets(),
                 macrocycleName != null ? macrocycleName : "Libre", savedSession.getAbsoluteDay());
@@ -149,6 +205,34 @@ public class WorkoutSessionService {
         return savedSession;
     }
 
+    /**
+     * Elimina una sesión del usuario con sus ejercicios y series (cascada).
+     *
+     * @return false si la sesión no existe o es de otro usuario
+     */
+    public boolean deleteWorkoutSession(Usuario user, Long sessionId) {
+        Optional<WorkoutSession> sessionOpt = workoutSessionRepository.findById(sessionId);
+        if (sessionOpt.isEmpty() || !sessionOpt.get().getUser().getId().equals(user.getId())) {
+            return false;
+        }
+
+        if (sessionOpt.get().getArchivedAt() != null) {
+            workoutArchiveService.deleteArchive(sessionId);
+        }
+        workoutSessionRepository.delete(sessionOpt.get());
+        tombstoneRepository.save(SyncTombstone.builder()
+                .userId(user.getId())
+                .entityType(SyncEntityType.WORKOUT_SESSION)
+                .entityId(sessionId)
+                .deletedAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new WorkoutSessionsChangedEvent(user.getId(), WorkoutSessionsChangedEvent.Reason.DELETED));
+
+        logger.info("Sesión {} eliminada para usuario: {}", sessionId, user.getUsername());
+        return true;
+    }
+
+    @Transactional(readOnly = true)
     public List<WorkoutHistoryResponse> getWorkoutHistory(Usuario user, int limit) {
         logger.info("Obteniendo historial de entrenamientos para usuario: {} (límite: {})",
                 user.getUsername(), limit);
@@ -166,7 +250,58 @@ public class WorkoutSessionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Historial solo con las columnas resumen, para listas que no muestran notas ni descripción:
+     * una consulta de proyección que no lee las columnas TEXT ni resuelve la versión de rutina
+     */
+    @Transactional(readOnly = true)
+    public List<WorkoutHistoryResponse> getWorkoutHistorySummaries(Usuario user, int limit) {
+        org.springframework.data.domain.Pageable page = limit > 0
+                ? org.springframework.data.domain.PageRequest.of(0, limit)
+                : org.springframework.data.domain.Pageable.unpaged();
+
+        return workoutSessionRepository.findHistorySummariesByUser(user, page).stream()
+                .map(this::toHistorySummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resúmenes de las sesiones creadas o modificadas después de since (todas si es null).
+     * Sin readOnly: lo usa /sync/changes dentro de su transacción sobre la primaria
+     */
+    public List<WorkoutHistoryResponse> getWorkoutHistorySummariesChangedSince(Usuario user, LocalDateTime since) {
+        return workoutSessionRepository.findHistorySummariesChangedByUser(user, since).stream()
+                .map(this::toHistorySummary)
+                .collect(Collectors.toList());
+    }
+
+    private WorkoutHistoryResponse toHistorySummary(Object[] row) {
+        return WorkoutHistoryResponse.builder()
+                .id((Long) row[0])
+                .routineName((String) row[1])
+                .startedAt((LocalDateTime) row[2])
+                .completedAt((LocalDateTime) row[3])
+                .durationMinutes((Integer) row[4])
+                .totalExercises((Integer) row[5])
+                .totalSets((Integer) row[6])
+                .completedSets((Integer) row[7])
+                .completionPercentage((Integer) row[8])
+                .totalVolume((Double) row[9])
+                .macrocycleName(row[10] != null && row[11] != null ? (String) row[10] : null)
+                .absoluteDay(row[10] != null && row[11] != null ? (Integer) row[11] : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
     public Optional<WorkoutHistoryResponse> getWorkoutDetails(Usuario user, Long sessionId) {
+        return getWorkoutDetails(user, sessionId, true);
+    }
+
+    /**
+     * Con includeExercises = false devuelve solo la cabecera de la sesión, sin cargar sus ejercicios y series
+     */
+    @Transactional(readOnly = true)
+    public Optional<WorkoutHistoryResponse> getWorkoutDetails(Usuario user, Long sessionId, boolean includeExercises) {
         logger.info("Obteniendo detalles de sesión {} para usuario: {}", sessionId, user.getUsername());
 
         Optional<WorkoutSession> sessionOpt = workoutSessionRepository.findById(sessionId);
@@ -183,10 +318,17 @@ public class WorkoutSessionService {
             return Optional.empty();
         }
 
-        return Optional.of(convertToHistoryResponseWithDetails(session));
+        return Optional.of(includeExercises
+                ? convertToHistoryResponseWithDetails(session)
+                : convertToHistoryResponse(session));
     }
 
+    @Transactional(readOnly = true)
     public WorkoutStatsResponse getWorkoutStats(Usuario user) {
+        return meterRegistry.timer("stayrpe.workout.stats").record(() -> buildWorkoutStats(user));
+    }
+
+    private WorkoutStatsResponse buildWorkoutStats(Usuario user) {
         logger.info("Obteniendo estadísticas de entrenamientos para usuario: {}", user.getUsername());
 
         try {
@@ -196,7 +338,9 @@ public class WorkoutSessionService {
             Double avgCompletion = 0.0;
 
             try {
-                Object[] dashboardStats = workoutSessionRepository.getDashboardStats(user);
+                // Una fila con las cuatro columnas; como Object[] Spring Data la devolvía anidada
+                Object[] dashboardStats = workoutSessionRepository.getDashboardStats(user).stream()
+                        .findFirst().orElse(null);
                 logger.debug("Dashboard stats resultado: {}", java.util.Arrays.toString(dashboardStats));
 
                 if (dashboardStats != null && dashboardStats.length >= 4) {
@@ -395,7 +539,8 @@ public class WorkoutSessionService {
         }
     }
 
-    private void calculateSessionStats(WorkoutSession session, CompleteWorkoutRequest request) {
+    // Visibilidad de paquete para los benchmarks JMH (src/jmh)
+    void calculateSessionStats(WorkoutSession session, CompleteWorkoutRequest request) {
         session.calculateDuration();
 
         int totalSets = 0;
@@ -415,8 +560,12 @@ public class WorkoutSessionService {
         session.calculateCompletionPercentage();
     }
 
-    private void createSessionExercises(WorkoutSession session, List<CompleteWorkoutRequest.CompletedExercise> exercises) {
+    // Visibilidad de paquete para los benchmarks JMH (src/jmh)
+    void createSessionExercises(WorkoutSession session, List<CompleteWorkoutRequest.CompletedExercise> exercises,
+                                boolean versioned) {
         for (CompleteWorkoutRequest.CompletedExercise exerciseRequest : exercises) {
+            boolean templateExercise = versioned && RoutineVersionService.isTemplate(exerciseRequest.getWasAddedDuringWorkout());
+
             Exercise exercise = null;
             if (exerciseRequest.getExerciseId() != null) {
                 exercise = exerciseRepository.findById(exerciseRequest.getExerciseId()).orElse(null);
@@ -429,8 +578,8 @@ public class WorkoutSessionService {
                     .exerciseMuscle(exerciseRequest.getExerciseMuscle())
                     .exerciseOrder(exerciseRequest.getExerciseOrder())
                     .plannedSets(exerciseRequest.getSets().size())
-                    .restBetweenSets(exerciseRequest.getRestBetweenSets())
-                    .notes(exerciseRequest.getNotes())
+                    .restBetweenSets(templateExercise ? null : exerciseRequest.getRestBetweenSets())
+                    .notes(templateExercise ? null : exerciseRequest.getNotes())
                     .wasAddedDuringWorkout(exerciseRequest.getWasAddedDuringWorkout())
                     .build();
 
@@ -440,15 +589,18 @@ public class WorkoutSessionService {
             sessionExercise.setCompletedSets(completedSets);
 
             for (CompleteWorkoutRequest.CompletedSet setRequest : exerciseRequest.getSets()) {
+                // Los objetivos de las series de plantilla viven en la versión de rutina
+                boolean inline = !templateExercise || !RoutineVersionService.isTemplate(setRequest.getWasAddedDuringWorkout());
+
                 WorkoutSessionSet sessionSet = WorkoutSessionSet.builder()
                         .workoutSessionExercise(sessionExercise)
                         .setNumber(setRequest.getSetNumber())
-                        .targetRepsMin(setRequest.getTargetRepsMin())
-                        .targetRepsMax(setRequest.getTargetRepsMax())
-                        .targetWeight(setRequest.getTargetWeight())
-                        .targetRir(setRequest.getTargetRir())
-                        .targetRpe(setRequest.getTargetRpe())
-                        .targetNotes(setRequest.getTargetNotes())
+                        .targetRepsMin(inline ? setRequest.getTargetRepsMin() : null)
+                        .targetRepsMax(inline ? setRequest.getTargetRepsMax() : null)
+                        .targetWeight(inline ? setRequest.getTargetWeight() : null)
+                        .targetRir(inline ? setRequest.getTargetRir() : null)
+                        .targetRpe(inline ? setRequest.getTargetRpe() : null)
+                        .targetNotes(inline ? setRequest.getTargetNotes() : null)
                         .actualReps(setRequest.getActualReps())
                         .actualWeight(setRequest.getActualWeight())
                         .actualRir(setRequest.getActualRir())
@@ -478,10 +630,12 @@ public class WorkoutSessionService {
     }
 
     private WorkoutHistoryResponse convertToHistoryResponse(WorkoutSession session) {
+        RoutineSnapshot snapshot = getSnapshot(session);
+
         WorkoutHistoryResponse.WorkoutHistoryResponseBuilder builder = WorkoutHistoryResponse.builder()
                 .id(session.getId())
                 .routineName(session.getRoutineName())
-                .routineDescription(session.getRoutineDescription())
+                .routineDescription(snapshot != null ? snapshot.getRoutineDescription() : session.getRoutineDescription())
                 .startedAt(session.getStartedAt())
                 .completedAt(session.getCompletedAt())
                 .durationMinutes(session.getDurationMinutes())
@@ -503,9 +657,15 @@ public class WorkoutSessionService {
     private WorkoutHistoryResponse convertToHistoryResponseWithDetails(WorkoutSession session) {
         WorkoutHistoryResponse response = convertToHistoryResponse(session);
 
-        if (session.getExercises() != null) {
-            List<WorkoutHistoryExercise> exercises = session.getExercises().stream()
-                    .map(this::convertToHistoryExercise)
+        // Sesión archivada: sus ejercicios y series están en el blob de workout_session_archives
+        List<WorkoutSessionExercise> sessionExercises = session.getArchivedAt() != null
+                ? workoutArchiveService.loadArchivedExercises(session.getId())
+                : session.getExercises();
+
+        if (sessionExercises != null) {
+            RoutineSnapshot snapshot = getSnapshot(session);
+            List<WorkoutHistoryExercise> exercises = sessionExercises.stream()
+                    .map(exercise -> convertToHistoryExercise(exercise, snapshot))
                     .collect(Collectors.toList());
             response.setExercises(exercises);
         }
@@ -513,7 +673,23 @@ public class WorkoutSessionService {
         return response;
     }
 
-    private WorkoutHistoryExercise convertToHistoryExercise(WorkoutSessionExercise sessionExercise) {
+    /**
+     * Versión de rutina de la sesión, o null en sesiones antiguas que guardan los objetivos en línea.
+     * getId() sobre el proxy LAZY no inicializa la versión: el contenido sale de la caché del servicio.
+     */
+    private RoutineSnapshot getSnapshot(WorkoutSession session) {
+        if (session.getRoutineVersion() == null) {
+            return null;
+        }
+        return routineVersionService.getSnapshot(session.getRoutineVersion().getId());
+    }
+
+    private WorkoutHistoryExercise convertToHistoryExercise(WorkoutSessionExercise sessionExercise, RoutineSnapshot snapshot) {
+        RoutineSnapshot.ExerciseSnapshot exerciseSnapshot =
+                snapshot != null && RoutineVersionService.isTemplate(sessionExercise.getWasAddedDuringWorkout())
+                        ? snapshot.findExercise(sessionExercise.getExerciseOrder())
+                        : null;
+
         WorkoutHistoryExercise exercise = WorkoutHistoryExercise.builder()
                 .exerciseName(sessionExercise.getExerciseName())
                 .exerciseMuscle(sessionExercise.getExerciseMuscle())
@@ -526,7 +702,7 @@ public class WorkoutSessionService {
 
         if (sessionExercise.getSets() != null) {
             List<WorkoutHistorySet> sets = sessionExercise.getSets().stream()
-                    .map(this::convertToHistorySet)
+                    .map(set -> convertToHistorySet(resolveTargets(set, exerciseSnapshot)))
                     .collect(Collectors.toList());
             exercise.setSets(sets);
         }
@@ -534,6 +710,14 @@ public class WorkoutSessionService {
         return exercise;
     }
 
+    private WorkoutSessionSet resolveTargets(WorkoutSessionSet sessionSet, RoutineSnapshot.ExerciseSnapshot exerciseSnapshot) {
+        if (exerciseSnapshot == null || !RoutineVersionService.isTemplate(sessionSet.getWasAddedDuringWorkout())) {
+            return sessionSet;
+        }
+        RoutineSnapshot.SetSnapshot target = exerciseSnapshot.findSet(sessionSet.getSetNumber());
+        return target != null ? sessionSet.withTargetsFrom(target) : sessionSet;
+    }
+
     private WorkoutHistorySet convertToHistorySet(WorkoutSessionSet sessionSet) {
         return WorkoutHistorySet.builder()
                 .setNumber(sessionSet.getSetNumber())
@@ -0,0 +1,31 @@
+package com.example.stayrpe.service;
+
+/**
+ * Evento de aplicación publicado cuando cambian los entrenamientos de un usuario (sesión guardada
+ * o eliminada, macrociclo reseteado). Lo consume {@link WorkoutStatsCache} para invalidar sus
+ * estadísticas una vez confirmada la transacción.
+ */
+public class WorkoutSessionsChangedEvent {
+
+    public enum Reason {
+        SAVED,
+        DELETED,
+        MACROCYCLE_RESET
+    }
+
+    private final Long userId;
+    private final Reason reason;
+
+    public WorkoutSessionsChangedEvent(Long userId, Reason reason) {
+        this.userId = userId;
+        this.reason = reason;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
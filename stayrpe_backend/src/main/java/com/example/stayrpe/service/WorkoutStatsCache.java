@@ -0,0 +1,95 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.WorkoutStatsResponse;
+import com.example.stayrpe.model.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché por usuario del resultado de {@link WorkoutSessionService#getWorkoutStats}, que lanza
+ * siete consultas de agregación. Se invalida con {@link WorkoutSessionsChangedEvent} tras el commit
+ * y la expiración (ttl-minutes) cubre la ventana móvil de "esta semana".
+ *
+ * El cálculo se hace en una transacción de lectura-escritura, y por tanto contra el primario: si se
+ * leyera de la réplica justo después de una invalidación, quedaría en caché hasta ttl-minutes un
+ * resultado sin el entrenamiento que la provocó.
+ *
+ * Acotada a max-users entradas con el desalojo de Caffeine (W-TinyLFU: ventana LRU más frecuencia).
+ * Métricas cache.gets/cache.evictions con cache=workoutStats, y ratio en /admin/cache-stats.
+ */
+@Component
+public class WorkoutStatsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkoutStatsCache.class);
+
+    public static final String CACHE_NAME = "workoutStats";
+
+    private final WorkoutSessionService workoutSessionService;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, WorkoutStatsResponse> cache;
+
+    // Cuenta las invalidaciones: un cálculo que se solapa con una no deja su resultado en caché
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public WorkoutStatsCache(
+            WorkoutSessionService workoutSessionService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${stayrpe.stats-cache.max-users:10000}") long maxUsers,
+            @Value("${stayrpe.stats-cache.ttl-minutes:10}") long ttlMinutes
+    ) {
+        this.workoutSessionService = workoutSessionService;
+        // Sin readOnly: getWorkoutStats se une a esta transacción y no se enruta a la réplica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public WorkoutStatsResponse getStats(Usuario user) {
+        WorkoutStatsResponse cached = cache.getIfPresent(user.getId());
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = invalidations.get();
+        WorkoutStatsResponse stats = transactionTemplate.execute(status -> workoutSessionService.getWorkoutStats(user));
+        cache.put(user.getId(), stats);
+        if (invalidations.get() != generation) {
+            // Una escritura confirmó mientras se calculaba: el resultado puede no incluirla
+            cache.invalidate(user.getId());
+        }
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkoutSessionsChanged(WorkoutSessionsChangedEvent event) {
+        invalidations.incrementAndGet();
+        cache.invalidate(event.getUserId());
+        logger.debug("Estadísticas del usuario {} invalidadas ({})", event.getUserId(), event.getReason());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.model.OutboxEvent;
+import com.example.stayrpe.repository.UsuarioRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tras un entrenamiento completado, recalcula en segundo plano las estadísticas del usuario
+ * que el commit acaba de invalidar, para que el dashboard no pague el cálculo al volver.
+ */
+@Component
+public class WorkoutStatsWarmupHandler implements OutboxEventHandler {
+
+    private final UsuarioRepository usuarioRepository;
+    private final WorkoutStatsCache workoutStatsCache;
+
+    public WorkoutStatsWarmupHandler(UsuarioRepository usuarioRepository, WorkoutStatsCache workoutStatsCache) {
+        this.usuarioRepository = usuarioRepository;
+        this.workoutStatsCache = workoutStatsCache;
+    }
+
+    @Override
+    public String eventType() {
+        return OutboxEvent.WORKOUT_COMPLETED;
+    }
+
+    @Override
+    public String name() {
+        return "stats-warmup";
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        usuarioRepository.findById(event.getUserId()).ifPresent(workoutStatsCache::getStats);
+    }
+}
@@ -0,0 +1,25 @@
+-- MySQL no permite particionar una tabla con claves foráneas ni que otra tabla la referencie.
+-- Los nombres de las constraints los generó Hibernate (ddl-auto=update), así que se buscan en
+-- information_schema; si no hay ninguna la sentencia se queda en DO 0.
+
+SET @drop_fk = (
+    SELECT CONCAT('ALTER TABLE workout_sessions ',
+                  GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', constraint_name, '`') SEPARATOR ', '))
+    FROM information_schema.referential_constraints
+    WHERE constraint_schema = DATABASE() AND table_name = 'workout_sessions');
+SET @drop_fk = COALESCE(@drop_fk, 'DO 0');
+PREPARE drop_fk_stmt FROM @drop_fk;
+EXECUTE drop_fk_stmt;
+DEALLOCATE PREPARE drop_fk_stmt;
+
+SET @drop_fk = (
+    SELECT CONCAT('ALTER TABLE workout_session_exercises ',
+                  GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', constraint_name, '`') SEPARATOR ', '))
+    FROM information_schema.referential_constraints
+    WHERE constraint_schema = DATABASE()
+      AND table_name = 'workout_session_exercises'
+      AND referenced_table_name = 'workout_sessions');
+SET @drop_fk = COALESCE(@drop_fk, 'DO 0');
+PREPARE drop_fk_stmt FROM @drop_fk;
+EXECUTE drop_fk_stmt;
+DEALLOCATE PREPARE drop_fk_stmt;
@@ -0,0 +1,29 @@
+-- Particiona workout_sessions por trimestre de completed_at. Las consultas de estadísticas e
+-- historial filtran por usuario y un rango de completed_at, y con RANGE COLUMNS MySQL descarta
+-- las particiones fuera del rango (columna partitions de EXPLAIN).
+--
+-- Toda clave única tiene que incluir la columna de particionado: la clave primaria pasa a ser
+-- (id, completed_at). id sigue siendo la primera columna, así que AUTO_INCREMENT y las búsquedas
+-- por id siguen usando el índice primario.
+--
+-- p_history recoge todo lo anterior a 2025 y p_future lo que aún no tiene trimestre propio;
+-- WorkoutSessionPartitionService crea los trimestres siguientes partiendo p_future.
+-- Reescribe la tabla entera: en una base grande conviene aplicarlo en una ventana de mantenimiento.
+
+ALTER TABLE workout_sessions
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, completed_at);
+
+ALTER TABLE workout_sessions
+    PARTITION BY RANGE COLUMNS (completed_at) (
+        PARTITION p_history VALUES LESS THAN ('2025-01-01'),
+        PARTITION p_2025q1 VALUES LESS THAN ('2025-04-01'),
+        PARTITION p_2025q2 VALUES LESS THAN ('2025-07-01'),
+        PARTITION p_2025q3 VALUES LESS THAN ('2025-10-01'),
+        PARTITION p_2025q4 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p_2026q1 VALUES LESS THAN ('2026-04-01'),
+        PARTITION p_2026q2 VALUES LESS THAN ('2026-07-01'),
+        PARTITION p_2026q3 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p_2026q4 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,16 @@
+-- Las customizaciones de ámbito MACROCYCLE guardaban microcycle_number a NULL, y en MySQL dos NULL
+-- nunca chocan en uk_scoped_customization. Ahora usan 0 (MacrocycleScopedCustomization.WHOLE_MACROCYCLE).
+-- Se conserva la fila más reciente de cada duplicado antes de rellenar el 0 y quitar el NULL.
+
+DELETE older FROM macrocycle_scoped_customizations older
+    JOIN macrocycle_scoped_customizations newer
+        ON newer.macrocycle_id = older.macrocycle_id
+        AND newer.scope = older.scope
+        AND newer.exercise_set_id = older.exercise_set_id
+        AND newer.microcycle_number IS NULL
+        AND newer.id > older.id
+WHERE older.microcycle_number IS NULL;
+
+UPDATE macrocycle_scoped_customizations SET microcycle_number = 0 WHERE microcycle_number IS NULL;
+
+ALTER TABLE macrocycle_scoped_customizations MODIFY microcycle_number INT NOT NULL;
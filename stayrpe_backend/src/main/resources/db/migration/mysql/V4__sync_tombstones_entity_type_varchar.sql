@@ -0,0 +1,5 @@
+-- Hibernate crea entity_type como ENUM nativo de MySQL con los valores de SyncEntityType que había
+-- al crear la tabla, y ddl-auto=update no lo amplía: MACROCYCLE_SCOPED_CUSTOMIZATION fallaría al
+-- insertarse. Como VARCHAR, un tipo nuevo del change feed ya no necesita migración.
+
+ALTER TABLE sync_tombstones MODIFY entity_type VARCHAR(40) NOT NULL;
@@ -0,0 +1,57 @@
+package com.example.stayrpe.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prometheus hace scrape sin token por el puerto de gestión; por el de la API, y para
+ * /actuator/metrics en cualquiera de los dos, sigue haciendo falta un ADMIN.
+ *
+ * Arranca servidores reales, así que es otro contexto: las regiones de caché llevan prefijo propio.
+ * Sin {@link AutoConfigureObservability} los tests no registran el endpoint de Prometheus.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "spring.jpa.properties.hibernate.cache.region_prefix=management-test",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"
+})
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ManagementPortSecurityTest {
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void prometheusIsOpenOnlyOnTheManagementPort() throws Exception {
+        HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus");
+        assertEquals(200, scrape.statusCode());
+        assertTrue(scrape.body().contains("hikaricp_connections"), "el scrape no trae métricas de Hikari");
+
+        assertEquals(200, get(managementPort, "/actuator/health").statusCode());
+        assertEquals(403, get(managementPort, "/actuator/metrics").statusCode());
+        assertEquals(403, get(serverPort, "/actuator/prometheus").statusCode());
+    }
+
+    private HttpResponse<String> get(int port, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.stayrpe.config;
+
+import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.RoutineRepository;
+import com.example.stayrpe.repository.UsuarioRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Dos bases H2 hacen de primario y réplica. La réplica es una copia del primario tomada antes de
+ * un UPDATE masivo, como una réplica retrasada: lo que se lee de ella no debe acabar en la caché
+ * de segundo nivel ni en la de consultas, o sobreviviría al retraso.
+ *
+ * Las regiones de caché llevan prefijo propio: son globales a la JVM y las demás clases de test
+ * comparten las suyas en otro contexto.
+ */
+@SpringBootTest(properties = {
+        "stayrpe.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE,YEAR,MONTH",
+        "stayrpe.datasource.replica.lag-query=",
+        "stayrpe.datasource.replica.lag-check-interval-ms=3600000",
+        "spring.jpa.properties.hibernate.cache.region_prefix=replica-test",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"
+})
+@ActiveProfiles("test")
+class ReadReplicaCacheTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RoutineRepository routineRepository;
+
+    @Test
+    void readsFromLaggingReplicaAreNotCached() throws Exception {
+        Usuario user = usuarioRepository.save(Usuario.builder()
+                .username("replica-user")
+                .password("test")
+                .enabled(true)
+                .roles(new HashSet<>(Set.of("USER")))
+                .build());
+        Long routineId = routineRepository.save(Routine.builder()
+                .name("Original")
+                .createdBy(user)
+                .isActive(true)
+                .build()).getId();
+        copyPrimaryToReplica();
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // El UPDATE masivo vacía la región de Routine y la réplica aún no lo ha recibido
+        readWrite.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE Routine r SET r.name = 'Nueva' WHERE r.id = :id")
+                .setParameter("id", routineId)
+                .executeUpdate());
+        replicaLagMonitor.check();
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        long entityPuts = statistics.getSecondLevelCachePutCount();
+
+        String fromReplica = readOnly.execute(status -> routineRepository.findById(routineId).orElseThrow().getName());
+        List<Object[]> summaries = readOnly.execute(status -> routineRepository.findRoutineSummariesByUser(user));
+
+        assertEquals("Original", fromReplica);
+        assertEquals("Original", summaries.get(0)[1]);
+        assertFalse(sessionFactory.getCache().containsEntity(Routine.class, routineId));
+        assertEquals(entityPuts, statistics.getSecondLevelCachePutCount());
+
+        // Si la lectura de la réplica se hubiera guardado, estas dos devolverían "Original" desde la caché
+        String fromPrimary = readWrite.execute(status -> routineRepository.findById(routineId).orElseThrow().getName());
+        List<Object[]> summariesFromPrimary = readWrite.execute(status -> routineRepository.findRoutineSummariesByUser(user));
+        assertEquals("Nueva", fromPrimary);
+        assertEquals("Nueva", summariesFromPrimary.get(0)[1]);
+    }
+
+    // Copia completa (esquema y datos) del primario en la réplica con SCRIPT / RUNSCRIPT de H2
+    private void copyPrimaryToReplica() throws Exception {
+        Path script = Files.createTempFile("stayrpe-replica", ".sql");
+        try {
+            try (Connection connection = primaryDataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SCRIPT TO '" + script + "'");
+            }
+            try (Connection connection = DriverManager.getConnection(replicaDataSource.getJdbcUrl(), "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.stayrpe.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Presupuesto de consultas para los tests de endpoints, sobre los contadores de {@link SqlStatementCounter}.
+ * Con MockMvc la petición se ejecuta en el hilo del test, así que se cuentan todas sus sentencias.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    /**
+     * Falla si la acción lanza más de {@code maxStatements} sentencias
+     */
+    public static <T> T assertMaxStatements(int maxStatements, String label, Supplier<T> action) {
+        SqlStatementCounter.Snapshot start = SqlStatementCounter.snapshot();
+        T result = action.get();
+        SqlStatementCounter.Snapshot used = SqlStatementCounter.snapshot().since(start);
+        if (used.statements() > maxStatements) {
+            throw new AssertionError(String.format("%s ejecutó %d sentencias SQL (máximo %d)",
+                    label, used.statements(), maxStatements));
+        }
+        return result;
+    }
+}
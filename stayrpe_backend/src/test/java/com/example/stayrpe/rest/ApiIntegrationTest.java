@@ -0,0 +1,140 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.model.*;
+import com.example.stayrpe.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Base de los tests de endpoints: la aplicación completa sobre H2 (perfil test) y MockMvc.
+ * Todas las subclases comparten contexto, y con él la base y la caché de segundo nivel,
+ * así que cada una crea su propio usuario y solo mira sus datos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+abstract class ApiIntegrationTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected UsuarioRepository usuarioRepository;
+
+    @Autowired
+    protected ExerciseRepository exerciseRepository;
+
+    @Autowired
+    protected RoutineRepository routineRepository;
+
+    @Autowired
+    protected RoutineExerciseRepository routineExerciseRepository;
+
+    @Autowired
+    protected ExerciseSetRepository exerciseSetRepository;
+
+    @Autowired
+    protected MacrocycleRepository macrocycleRepository;
+
+    @Autowired
+    protected MacrocycleDayPlanRepository dayPlanRepository;
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    protected MvcResult perform(RequestBuilder request) {
+        try {
+            return mockMvc.perform(request).andReturn();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Vacía la caché de segundo nivel (entidades, colecciones y consultas) para medir en frío
+     */
+    protected void evictSecondLevelCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    protected Usuario createUser(String username) {
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .password("test")
+                .enabled(true)
+                .roles(new HashSet<>(Set.of("USER")))
+                .build());
+    }
+
+    protected Routine createRoutine(Usuario owner, String name, int exercises, int setsPerExercise) {
+        Routine routine = routineRepository.save(Routine.builder()
+                .name(name)
+                .createdBy(owner)
+                .isActive(true)
+                .build());
+
+        for (int i = 1; i <= exercises; i++) {
+            Exercise exercise = exerciseRepository.save(Exercise.builder()
+                    .name(name + " ejercicio " + i)
+                    .muscle("Pecho")
+                    .muscleGroup("upper_body")
+                    .isCustom(false)
+                    .build());
+            RoutineExercise routineExercise = routineExerciseRepository.save(RoutineExercise.builder()
+                    .routine(routine)
+                    .exercise(exercise)
+                    .order(i)
+                    .numberOfSets(setsPerExercise)
+                    .restBetweenSets(90)
+                    .build());
+            for (int setNumber = 1; setNumber <= setsPerExercise; setNumber++) {
+                exerciseSetRepository.save(ExerciseSet.builder()
+                        .routineExercise(routineExercise)
+                        .setNumber(setNumber)
+                        .targetRepsMin(8)
+                        .targetRepsMax(10)
+                        .targetWeight(50.0)
+                        .rir(2)
+                        .build());
+            }
+        }
+        return routine;
+    }
+
+    /**
+     * Macrociclo de 4 microciclos de 7 días: la rutina los días impares y descanso los pares
+     */
+    protected Macrocycle createMacrocycle(Usuario owner, Routine routine, boolean active) {
+        Macrocycle macrocycle = macrocycleRepository.save(Macrocycle.builder()
+                .name(owner.getUsername() + " macrociclo")
+                .createdBy(owner)
+                .startDate(LocalDate.now())
+                .microcycleDurationDays(7)
+                .totalMicrocycles(4)
+                .isCurrentlyActive(active)
+                .isArchived(false)
+                .build());
+
+        for (int day = 1; day <= 7; day++) {
+            boolean restDay = day % 2 == 0;
+            dayPlanRepository.save(MacrocycleDayPlan.builder()
+                    .macrocycle(macrocycle)
+                    .dayNumber(day)
+                    .routine(restDay ? null : routine)
+                    .isRestDay(restDay)
+                    .build());
+        }
+        return macrocycle;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.config.SqlStatementCounter;
+import com.example.stayrpe.model.ExerciseSet;
+import com.example.stayrpe.model.Macrocycle;
+import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.model.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.stayrpe.config.SqlStatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Presupuesto de consultas de los endpoints de lectura con la caché de segundo nivel vacía.
+ * La rutina tiene varios ejercicios y series: si una vista vuelve a cargar sus hijos uno a uno
+ * (N+1), el número de sentencias crece con ellos y el presupuesto salta.
+ * Duplicar una rutina copia ejercicios y series con INSERT ... SELECT: cuesta lo mismo sea cual sea su tamaño.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(username = "budget-user")
+class EndpointStatementBudgetTest extends ApiIntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Usuario user;
+    private Routine routine;
+    private Macrocycle macrocycle;
+
+    @BeforeAll
+    void createData() {
+        user = createUser("budget-user");
+        routine = createRoutine(user, "Budget", 10, 6);
+        macrocycle = createMacrocycle(user, routine, true);
+    }
+
+    @Test
+    void routineListStaysWithinBudget() throws Exception {
+        assertColdBudget(3, "/routines");
+    }
+
+    @Test
+    void routineDetailStaysWithinBudget() throws Exception {
+        assertColdBudget(5, "/routines/" + routine.getId());
+    }
+
+    @Test
+    void macrocycleDayStaysWithinBudget() throws Exception {
+        assertColdBudget(9, "/macrocycles/" + macrocycle.getId() + "/days/1");
+    }
+
+    @Test
+    void workoutStatsStayWithinBudget() throws Exception {
+        assertColdBudget(9, "/workout-history/stats");
+    }
+
+    @Test
+    void changeFeedStaysWithinBudget() throws Exception {
+        assertColdBudget(10, "/sync/changes");
+    }
+
+    @Test
+    void duplicateCostsTheSameForSmallAndLargeRoutines() throws Exception {
+        long small = assertDuplicateBudget(createRoutine(user, "Duplicar corta", 1, 2));
+        long large = assertDuplicateBudget(createRoutine(user, "Duplicar larga", 12, 8));
+
+        assertEquals(small, large, "duplicar una rutina grande lanzó más sentencias que una pequeña");
+    }
+
+    @Test
+    void responseReportsStatementsInServerTiming() {
+        MvcResult result = perform(get("/routines"));
+
+        String serverTiming = result.getResponse().getHeader("Server-Timing");
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.contains("queries"), serverTiming);
+    }
+
+    /**
+     * Duplica la rutina en frío y comprueba que cada ejercicio copiado tiene las series de su original.
+     * Los pesos se numeran antes (100 * orden + serie) para que un emparejamiento cruzado se note.
+     *
+     * @return sentencias que lanzó la petición
+     */
+    private long assertDuplicateBudget(Routine source) throws Exception {
+        List<ExerciseSet> sourceSets = exerciseSetRepository.findByRoutineIdOrderBySetNumber(source.getId());
+        for (ExerciseSet set : sourceSets) {
+            set.setTargetWeight(100.0 * set.getRoutineExercise().getOrder() + set.getSetNumber());
+        }
+        exerciseSetRepository.saveAll(sourceSets);
+
+        String url = "/routines/" + source.getId() + "/duplicate";
+        evictSecondLevelCache();
+        MvcResult[] result = new MvcResult[1];
+        long statements = SqlStatementCounter.measure(() ->
+                result[0] = assertMaxStatements(9, "POST " + url, () -> perform(post(url)))).statements();
+        assertEquals(200, result[0].getResponse().getStatus(), result[0].getResponse().getContentAsString());
+
+        long copyId = objectMapper.readTree(result[0].getResponse().getContentAsString())
+                .path("routine").path("id").asLong();
+        assertEquals(setsByExercise(source.getId()), setsByExercise(copyId));
+        return statements;
+    }
+
+    /**
+     * Por ejercicio de la rutina (en orden de id): ejercicio del catálogo, orden y cada serie como número:peso
+     */
+    private List<List<String>> setsByExercise(Long routineId) {
+        Map<Long, List<String>> byExercise = new LinkedHashMap<>();
+        for (ExerciseSet set : exerciseSetRepository.findByRoutineIdOrderBySetNumber(routineId)) {
+            byExercise.computeIfAbsent(set.getRoutineExercise().getId(), id -> {
+                List<String> values = new ArrayList<>();
+                values.add(set.getRoutineExercise().getExercise().getId() + "#" + set.getRoutineExercise().getOrder());
+                return values;
+            }).add(set.getSetNumber() + ":" + set.getTargetWeight());
+        }
+        return new ArrayList<>(byExercise.values());
+    }
+
+    private void assertColdBudget(int maxStatements, String url) throws Exception {
+        evictSecondLevelCache();
+        MvcResult result = assertMaxStatements(maxStatements, "GET " + url, () -> perform(get(url)));
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+    }
+}
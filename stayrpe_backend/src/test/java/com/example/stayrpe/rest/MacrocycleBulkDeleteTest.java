@@ -0,0 +1,99 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.model.ExerciseSet;
+import com.example.stayrpe.model.Macrocycle;
+import com.example.stayrpe.model.MacrocycleDayCustomization;
+import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.MacrocycleDayCustomizationRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.stayrpe.config.SqlStatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Borrar o resetear un macrociclo limpia sus customizaciones con sentencias masivas: con 5.000
+ * customizaciones se lanzan las mismas pocas sentencias que con ninguna, no una por fila.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(username = "bulk-user")
+class MacrocycleBulkDeleteTest extends ApiIntegrationTest {
+
+    private static final int CUSTOMIZATIONS = 5_000;
+
+    @Autowired
+    private MacrocycleDayCustomizationRepository customizationRepository;
+
+    private Usuario user;
+    private Routine routine;
+
+    @BeforeAll
+    void createData() {
+        user = createUser("bulk-user");
+        routine = createRoutine(user, "Bulk", 2, 5);
+    }
+
+    @Test
+    void deleteRemovesCustomizationsWithFixedStatements() throws Exception {
+        Macrocycle macrocycle = createCustomizedMacrocycle();
+
+        MvcResult result = assertMaxStatements(11, "DELETE macrociclo con " + CUSTOMIZATIONS + " customizaciones",
+                () -> perform(delete("/macrocycles/" + macrocycle.getId())));
+
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        assertEquals(0, customizationRepository.countByMacrocycle(macrocycle));
+        assertFalse(macrocycleRepository.existsById(macrocycle.getId()));
+    }
+
+    @Test
+    void resetRemovesCustomizationsWithFixedStatements() throws Exception {
+        Macrocycle macrocycle = createCustomizedMacrocycle();
+        String body = "{\"newStartDate\":\"" + LocalDate.now().plusDays(7) + "\"}";
+
+        MvcResult result = assertMaxStatements(9, "PUT reset de macrociclo con " + CUSTOMIZATIONS + " customizaciones",
+                () -> perform(put("/macrocycles/" + macrocycle.getId() + "/reset")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)));
+
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        assertEquals(0, customizationRepository.countByMacrocycle(macrocycle));
+    }
+
+    /**
+     * Macrociclo inactivo con {@link #CUSTOMIZATIONS} customizaciones repartidas entre las series de la rutina
+     */
+    private Macrocycle createCustomizedMacrocycle() {
+        Macrocycle macrocycle = createMacrocycle(user, routine, false);
+        List<ExerciseSet> sets = exerciseSetRepository.findByRoutineIdOrderBySetNumber(routine.getId());
+
+        List<MacrocycleDayCustomization> customizations = new ArrayList<>(CUSTOMIZATIONS);
+        for (int i = 0; i < CUSTOMIZATIONS; i++) {
+            ExerciseSet set = sets.get(i % sets.size());
+            customizations.add(MacrocycleDayCustomization.builder()
+                    .macrocycle(macrocycle)
+                    .absoluteDay(1 + i / sets.size())
+                    .routineExercise(set.getRoutineExercise())
+                    .exerciseSet(set)
+                    .customWeight(60.0)
+                    .build());
+        }
+        customizationRepository.saveAll(customizations);
+        assertEquals(CUSTOMIZATIONS, customizationRepository.countByMacrocycle(macrocycle));
+
+        evictSecondLevelCache();
+        return macrocycle;
+    }
+}
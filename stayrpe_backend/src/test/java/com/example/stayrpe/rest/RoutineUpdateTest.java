@@ -0,0 +1,168 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.dto.CreateExerciseSetDTO;
+import com.example.stayrpe.dto.CreateRoutineDTO;
+import com.example.stayrpe.dto.CreateRoutineExerciseDTO;
+import com.example.stayrpe.model.ExerciseSet;
+import com.example.stayrpe.model.Macrocycle;
+import com.example.stayrpe.model.MacrocycleDayCustomization;
+import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.model.RoutineExercise;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.MacrocycleDayCustomizationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * PUT /routines/{id} aplica la edición como diff: conserva los ids de ejercicios y series (y con
+ * ellos las customizaciones de macrociclo) y un id ajeno a la rutina se rechaza con 400 sin escribir nada.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(username = "update-user")
+class RoutineUpdateTest extends ApiIntegrationTest {
+
+    @Autowired
+    private MacrocycleDayCustomizationRepository customizationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Usuario user;
+
+    @BeforeAll
+    void createData() {
+        user = createUser("update-user");
+    }
+
+    @Test
+    void editKeepsSetIdsAndTheirCustomizations() throws Exception {
+        Routine routine = createRoutine(user, "Conserva", 2, 3);
+        Macrocycle macrocycle = createMacrocycle(user, routine, false);
+        macrocycle.setArchived(true);
+        macrocycleRepository.save(macrocycle);
+
+        List<Long> setIds = setIds(routine);
+        ExerciseSet customizedSet = sets(routine).get(0);
+        customizationRepository.save(MacrocycleDayCustomization.builder()
+                .macrocycle(macrocycle)
+                .absoluteDay(1)
+                .routineExercise(customizedSet.getRoutineExercise())
+                .exerciseSet(customizedSet)
+                .customWeight(80.0)
+                .build());
+
+        CreateRoutineDTO edit = toDto(routine, true);
+        edit.getExercises().forEach(exercise -> exercise.getSets().forEach(set -> set.setTargetWeight(70.0)));
+        MvcResult result = update(routine, edit);
+
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        assertEquals(setIds, setIds(routine));
+        assertTrue(sets(routine).stream().allMatch(set -> set.getTargetWeight() == 70.0));
+        assertEquals(1, customizationRepository.countByMacrocycle(macrocycle));
+    }
+
+    @Test
+    void foreignSetIdIsRejectedWithoutWrites() throws Exception {
+        Routine routine = createRoutine(user, "Ajena", 2, 3);
+        Routine other = createRoutine(user, "Otra", 1, 1);
+        List<Long> setIds = setIds(routine);
+
+        CreateRoutineDTO edit = toDto(routine, true);
+        edit.setName("Ajena renombrada");
+        // Antes del id ajeno: un UPDATE pendiente y un ejercicio nuevo ya insertado, que deben deshacerse
+        edit.getExercises().get(0).getSets().forEach(set -> set.setTargetWeight(70.0));
+        CreateRoutineExerciseDTO added = toDto(other, false).getExercises().get(0);
+        added.setOrder(3);
+        edit.getExercises().add(1, added);
+        edit.getExercises().get(2).getSets().get(0).setId(setIds(other).get(0));
+        MvcResult result = update(routine, edit);
+
+        assertEquals(400, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        assertTrue(result.getResponse().getContentAsString().contains("no pertenece"),
+                result.getResponse().getContentAsString());
+        assertEquals("Ajena", routineRepository.findById(routine.getId()).orElseThrow().getName());
+        assertEquals(2, routineExerciseRepository.findByRoutineIdOrderByOrder(routine.getId()).size());
+        assertEquals(setIds, setIds(routine));
+        assertTrue(sets(routine).stream().allMatch(set -> set.getTargetWeight() == 50.0));
+    }
+
+    @Test
+    void reorderWithoutIdsKeepsExercisesAndSets() throws Exception {
+        Routine routine = createRoutine(user, "Orden", 2, 3);
+        List<RoutineExercise> before = routineExerciseRepository.findByRoutineIdOrderByOrder(routine.getId());
+        List<Long> setIds = setIds(routine);
+
+        CreateRoutineDTO edit = toDto(routine, false);
+        Collections.reverse(edit.getExercises());
+        for (int i = 0; i < edit.getExercises().size(); i++) {
+            edit.getExercises().get(i).setOrder(i + 1);
+        }
+        MvcResult result = update(routine, edit);
+
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        List<RoutineExercise> after = routineExerciseRepository.findByRoutineIdOrderByOrder(routine.getId());
+        assertEquals(List.of(before.get(1).getId(), before.get(0).getId()),
+                after.stream().map(RoutineExercise::getId).toList());
+        assertEquals(setIds, setIds(routine));
+    }
+
+    private MvcResult update(Routine routine, CreateRoutineDTO edit) throws Exception {
+        return perform(put("/routines/" + routine.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(edit)));
+    }
+
+    /**
+     * Estado actual de la rutina como cuerpo de edición, con o sin los ids de ejercicios y series
+     */
+    private CreateRoutineDTO toDto(Routine routine, boolean withIds) {
+        List<CreateRoutineExerciseDTO> exercises = new ArrayList<>();
+        List<ExerciseSet> sets = sets(routine);
+        for (RoutineExercise routineExercise : routineExerciseRepository.findByRoutineIdOrderByOrder(routine.getId())) {
+            List<CreateExerciseSetDTO> setDtos = new ArrayList<>();
+            sets.stream()
+                    .filter(set -> set.getRoutineExercise().getId().equals(routineExercise.getId()))
+                    .forEach(set -> setDtos.add(CreateExerciseSetDTO.builder()
+                            .id(withIds ? set.getId() : null)
+                            .setNumber(set.getSetNumber())
+                            .targetRepsMin(set.getTargetRepsMin())
+                            .targetRepsMax(set.getTargetRepsMax())
+                            .targetWeight(set.getTargetWeight())
+                            .rir(set.getRir())
+                            .build()));
+            exercises.add(CreateRoutineExerciseDTO.builder()
+                    .id(withIds ? routineExercise.getId() : null)
+                    .exerciseId(routineExercise.getExercise().getId())
+                    .order(routineExercise.getOrder())
+                    .numberOfSets(routineExercise.getNumberOfSets())
+                    .restBetweenSets(routineExercise.getRestBetweenSets())
+                    .sets(setDtos)
+                    .build());
+        }
+        return CreateRoutineDTO.builder().name(routine.getName()).exercises(exercises).build();
+    }
+
+    private List<ExerciseSet> sets(Routine routine) {
+        List<ExerciseSet> sets = new ArrayList<>(exerciseSetRepository.findByRoutineIdOrderBySetNumber(routine.getId()));
+        sets.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        return sets;
+    }
+
+    private List<Long> setIds(Routine routine) {
+        return sets(routine).stream().map(ExerciseSet::getId).toList();
+    }
+}
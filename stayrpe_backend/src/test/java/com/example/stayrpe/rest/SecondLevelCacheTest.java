@@ -0,0 +1,54 @@
+package com.example.stayrpe.rest;
+
+import com.example.stayrpe.model.Macrocycle;
+import com.example.stayrpe.model.Routine;
+import com.example.stayrpe.model.Usuario;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static com.example.stayrpe.config.SqlStatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Las pantallas de rutinas y macrociclos se sirven de la caché de segundo nivel y de la caché
+ * de consultas: después de una primera llamada, repetirlas no lanza ninguna sentencia SQL.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithMockUser(username = "cache-user")
+class SecondLevelCacheTest extends ApiIntegrationTest {
+
+    private Routine routine;
+    private Macrocycle macrocycle;
+
+    @BeforeAll
+    void createData() {
+        Usuario user = createUser("cache-user");
+        routine = createRoutine(user, "Cache", 4, 3);
+        macrocycle = createMacrocycle(user, routine, true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/routines",
+            "/routines/{routineId}",
+            "/macrocycles",
+            "/macrocycles/active",
+            "/macrocycles/{macrocycleId}/day-plans"
+    })
+    void repeatedReadIssuesNoSql(String template) throws Exception {
+        String url = template
+                .replace("{routineId}", String.valueOf(routine.getId()))
+                .replace("{macrocycleId}", String.valueOf(macrocycle.getId()));
+
+        MvcResult warmUp = perform(get(url));
+        assertEquals(200, warmUp.getResponse().getStatus(), warmUp.getResponse().getContentAsString());
+
+        MvcResult cached = assertMaxStatements(0, "GET " + url, () -> perform(get(url)));
+        assertEquals(warmUp.getResponse().getContentAsString(), cached.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.PartitionStatusResponse;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * EXPLAIN de las consultas por rango contra un MySQL real, con las migraciones que particionan
+ * workout_sessions aplicadas al arrancar. Solo se ejecuta si STAYRPE_TEST_MYSQL_URL apunta a una
+ * base vacía o de pruebas, por ejemplo:
+ *
+ * <pre>
+ * docker run -d -p 3307:3306 -e MYSQL_ALLOW_EMPTY_PASSWORD=yes -e MYSQL_DATABASE=stayrpe_test mysql:8
+ * STAYRPE_TEST_MYSQL_URL=jdbc:mysql://localhost:3307/stayrpe_test mvn test -Dtest=WorkoutSessionPartitionMysqlTest
+ * </pre>
+ *
+ * Sin caché de segundo nivel: sus regiones son globales a la JVM y las comparten los contextos de los
+ * demás tests, que usan H2.
+ */
+@EnabledIfEnvironmentVariable(named = "STAYRPE_TEST_MYSQL_URL", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${STAYRPE_TEST_MYSQL_URL}",
+        "spring.datasource.username=${STAYRPE_TEST_MYSQL_USER:root}",
+        "spring.datasource.password=${STAYRPE_TEST_MYSQL_PASSWORD:}",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "stayrpe.exercises.seed.enabled=false"
+})
+class WorkoutSessionPartitionMysqlTest {
+
+    @Autowired
+    private WorkoutSessionPartitionService partitionService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void rangeQueriesOnlyReadOverlappingPartitions() {
+        List<PartitionStatusResponse.PartitionInfo> partitions = partitionService.getPartitions();
+        assertFalse(partitions.isEmpty(), WorkoutSessionPartitionService.TABLE + " no está particionada");
+
+        Usuario user = usuarioRepository.findByUsername("partition-mysql-user")
+                .orElseGet(() -> usuarioRepository.save(Usuario.builder()
+                        .username("partition-mysql-user")
+                        .password("test")
+                        .enabled(true)
+                        .roles(new HashSet<>(Set.of("USER")))
+                        .build()));
+
+        List<PartitionStatusResponse.PruningCheck> checks = partitionService.checkPruning(user.getId());
+
+        assertEquals(5, checks.size());
+        for (PartitionStatusResponse.PruningCheck check : checks) {
+            assertTrue(check.isPruned(), () -> String.format("%s lee %s de %d (esperadas %s): %s",
+                    check.getQuery(), check.getPartitionsScanned(), check.getTotalPartitions(),
+                    check.getPartitionsExpected(), check.getSql()));
+        }
+    }
+}
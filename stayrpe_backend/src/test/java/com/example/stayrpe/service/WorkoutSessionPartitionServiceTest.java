@@ -0,0 +1,87 @@
+package com.example.stayrpe.service;
+
+import com.example.stayrpe.dto.PartitionStatusResponse.PartitionInfo;
+import com.example.stayrpe.model.Usuario;
+import com.example.stayrpe.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Las consultas que comprueba GET /admin/partitions/pruning son las que genera Hibernate con el
+ * dialecto MySQL. El EXPLAIN contra MySQL real está en {@link WorkoutSessionPartitionMysqlTest}.
+ */
+// Mismas anotaciones que los tests de endpoints para reutilizar su contexto y su caché de segundo nivel
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WorkoutSessionPartitionServiceTest {
+
+    private static final List<PartitionInfo> PARTITIONS = List.of(
+            partition("p_history", null, LocalDate.of(2025, 1, 1)),
+            partition("p_2025q1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 1)),
+            partition("p_2025q2", LocalDate.of(2025, 4, 1), LocalDate.of(2025, 7, 1)),
+            partition("p_future", LocalDate.of(2025, 7, 1), null));
+
+    @Autowired
+    private WorkoutSessionPartitionService partitionService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void capturesGeneratedSqlOfEveryRangeQuery() {
+        Usuario user = usuarioRepository.save(Usuario.builder()
+                .username("partition-user")
+                .password("test")
+                .enabled(true)
+                .roles(new HashSet<>(Set.of("USER")))
+                .build());
+
+        List<WorkoutSessionPartitionService.RangeQuery> queries =
+                partitionService.captureRangeQueries(user.getId(), LocalDateTime.now());
+
+        assertEquals(List.of("findThisWeekWorkouts", "getThisWeekVolumeByUser", "findByUserAndDateRange",
+                        "findTodayWorkouts", "findSessionIdsToArchive"),
+                queries.stream().map(WorkoutSessionPartitionService.RangeQuery::query).toList());
+        for (WorkoutSessionPartitionService.RangeQuery query : queries) {
+            assertTrue(query.sql().contains("workout_sessions") && query.sql().contains("completed_at"), query.sql());
+        }
+    }
+
+    @Test
+    void expectsOnlyPartitionsOverlappingTheRange() {
+        assertEquals(List.of("p_2025q2", "p_future"),
+                WorkoutSessionPartitionService.expectedPartitions(PARTITIONS, LocalDateTime.of(2025, 5, 10, 8, 0), null));
+        assertEquals(List.of("p_2025q1", "p_2025q2"),
+                WorkoutSessionPartitionService.expectedPartitions(PARTITIONS,
+                        LocalDateTime.of(2025, 3, 20, 0, 0), LocalDateTime.of(2025, 4, 19, 0, 0)));
+        assertEquals(List.of("p_history", "p_2025q1"),
+                WorkoutSessionPartitionService.expectedPartitions(PARTITIONS, null, LocalDateTime.of(2025, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void planWithoutPartitionsIsNotPruned() {
+        List<String> expected = List.of("p_2025q2", "p_future");
+
+        assertTrue(WorkoutSessionPartitionService.isPruned(List.of("p_future"), expected));
+        assertFalse(WorkoutSessionPartitionService.isPruned(List.of(), expected));
+        assertFalse(WorkoutSessionPartitionService.isPruned(List.of("p_2025q1", "p_2025q2"), expected));
+    }
+
+    private static PartitionInfo partition(String name, LocalDate from, LocalDate to) {
+        return PartitionInfo.builder().name(name).from(from).to(to).build();
+    }
+}